@@ -0,0 +1,69 @@
+package eu.f3rog.ormlite.helper;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <p>
+ * Object cache policy of a table. It can annotate table class or it can be used in {@link Helper#caches()} together with {@link #table()}.
+ * Policy given in {@link Helper#caches()} overrides policy of table class. Generated Helper installs the cache when it creates DAO of the table.
+ * </p>
+ * <p>
+ * <b> NOTE: </b>
+ * Cached objects are shared, so changes of an object are visible to all its users even before they are saved.
+ * Hits, misses and evictions of the cache are available via {@code CacheStats.of(dao)}.
+ * </p>
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+public @interface Cache {
+
+    int UNDEFINED = 0;
+
+    /**
+     * <p>
+     * Table class whose DAO uses this policy. It has to be one of {@link Helper#tables()}.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * Specify it only in {@link Helper#caches()}. Annotated table class is used otherwise.
+     * </p>
+     */
+    Class<?> table() default Object.class;
+
+    Policy policy() default Policy.LRU;
+
+    /**
+     * <p>
+     * Maximum number of objects kept by {@link Policy#LRU} cache.
+     * </p>
+     */
+    int maxCount() default UNDEFINED;
+
+    /**
+     * <p>
+     * Maximum estimated size (in bytes) of objects kept by {@link Policy#LRU} cache. Size of object is estimated from its fields,
+     * referenced objects other than strings, arrays and boxed primitives are not counted.
+     * </p>
+     */
+    long maxBytes() default UNDEFINED;
+
+    enum Policy {
+        /**
+         * Objects are not cached.
+         */
+        NONE,
+        /**
+         * Objects are weakly referenced, so they are cached until garbage collector removes them (the same as ORMLite {@code setObjectCache(true)}).
+         */
+        WEAK,
+        /**
+         * Least recently used objects are removed when cache reaches {@link #maxCount()} or {@link #maxBytes()}. At least one of them has to be specified.
+         */
+        LRU
+    }
+
+}
@@ -57,13 +57,183 @@ public @interface Helper {
 
     /**
      * <p>
-     * If set to {@code true}, ConfigUtil class will be generated. This class can be used to generate ORMLite config file for this database.
+     * If set to {@code true}, ConfigUtil class will be generated. This class builds ORMLite table configurations for all {@link #tables()} in generated code
+     * and generated Helper registers them on creation, so ORMLite doesn't have to read annotations of table classes or any config file at runtime.
+     * It also returns statements which {@code onCreate} and {@code clearTables} of generated Helper execute.
      * </p>
+     */
+    boolean withConfigUtil() default false;
+
+    /**
      * <p>
-     * <b> WARNING: </b>
-     * If set to {@code true}, you will have to run the generated class in order to generate config file (do not move the generated config file). Otherwise database won’t be created.
+     * If set to {@code true}, RowMapper class will be generated for each table and DAOs will map query results with it instead of ORMLite reflection.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * Mapper is generated only for tables whose persisted fields are accessible from their package (not private nor final)
+     * and have simple type (primitive, boxed primitive, {@code String}, enum, {@code byte[]} or {@code Date} stored as {@code DATE_LONG}).
+     * Other tables are mapped by ORMLite.
      * </p>
      */
-    boolean withConfigUtil() default false;
+    boolean withRowMappers() default false;
+
+    /**
+     * <p>
+     * If set to {@code true}, generated Helper enables write-ahead logging. Android then uses one primary connection for writes
+     * and a pool of read-only connections for reads, so queries from other threads are not blocked by a running write transaction.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * Size of the reader pool is given by Android. Pooled connections do not get per-connection pragmas of {@link #storage()},
+     * so it cannot be combined with {@code mmapSize}, {@code cacheSizeKb} and {@code tempStore}.
+     * </p>
+     */
+    boolean writeAheadLogging() default false;
+
+    /**
+     * <p>
+     * Storage profile (memory-mapped I/O, page size, cache size, ...) which is applied by generated Helper when database is opened.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * By default, all values are given by Android.
+     * </p>
+     */
+    Storage storage() default @Storage;
+
+    /**
+     * <p>
+     * If set to {@code true}, generated Helper measures every statement run through its ORMLite connection source
+     * and keeps the slow ones together with their query plan. Recorded statements are available via {@code getSlowStatementLog()}.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * Statements run directly on {@code SQLiteDatabase} (e.g. by generated {@code clearTables} or {@code insertAll}) are not measured.
+     * </p>
+     */
+    boolean slowStatementLog() default false;
+
+    /**
+     * <p>
+     * If set to {@code true}, DAO creation and create statements of each table are generated to a small holder class
+     * (e.g. {@code UserDaoHolder}) nested in generated Helper instead of Helper itself. Holder is loaded only when its table is first used,
+     * so class loading and verification at start scale with the tables which are actually used rather than the whole schema.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * Useful for databases with many tables. Generated Helper API stays the same.
+     * </p>
+     */
+    boolean withDaoHolders() default false;
+
+    /**
+     * <p>
+     * If set to {@code true}, DAO getters of tables with {@code int} or {@code long} id return {@code LongIdDao}, which adds
+     * {@code queryForId(long)}, {@code existsById(long)} and {@code deleteByIds(long...)}, so id lookups do not have to box ids.
+     * With enabled object cache, these DAOs use {@code LongObjectCache}, which is keyed by primitive ids too.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * Tables with other id types or with custom DAO class keep {@code Dao} type.
+     * </p>
+     */
+    boolean withPrimitiveIds() default false;
+
+    /**
+     * <p>
+     * Object cache policies of tables. Each {@link Cache} has to specify its {@link Cache#table()} and it overrides {@link Cache} annotation of that table class.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * By default, DAOs do not cache objects.
+     * </p>
+     */
+    Cache[] caches() default {};
+
+    /**
+     * <p>
+     * Specifies if generated helper tracks changes of tables. Every write made through its DAOs, {@code insertAll}, {@code upsertAll},
+     * {@code clearTables} or {@code callInTransaction} increments version of changed table and helper's {@code observe}
+     * re-runs queries whose tables changed. Changes made in transaction are published after it is committed.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * Changes made by custom DAO classes or by raw SQL executed directly on database are not tracked.
+     * </p>
+     */
+    boolean withChangeTracking() default false;
+
+    /**
+     * <p>
+     * Maximum estimated size (in bytes) of results cached by generated {@code queryRawCached} and {@code queryRawValueCached} methods.
+     * Results are keyed by SQL and its arguments and any change of table which the SQL reads invalidates them.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * Requires {@link #withChangeTracking()}. By default, results are not cached.
+     * </p>
+     */
+    long queryCacheBytes() default 0;
+
+    /**
+     * <p>
+     * Specifies if generated helper has asynchronous write methods ({@code createAsync}, {@code updateAsync}, {@code deleteAsync},
+     * {@code upsertAsync} and {@code writeAsync}). Their writes are run by one writer thread and committed in batches,
+     * each in one transaction. Returned futures are completed after their batch is committed.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * Batch size and latency are given by {@link #writeBatchSize()} and {@link #writeLatencyMillis()}.
+     * </p>
+     */
+    boolean withWriteQueue() default false;
+
+    /**
+     * Maximum number of asynchronous writes committed in one transaction.
+     */
+    int writeBatchSize() default 100;
+
+    /**
+     * Maximum time (in milliseconds) for which the first asynchronous write of a batch waits for other writes.
+     */
+    long writeLatencyMillis() default 10;
+
+    /**
+     * <p>
+     * Specifies if generated helper has {@code stream} and {@code forEachChunk} methods for each table. They walk rows
+     * in windows of given size ordered by id, so large tables can be processed without loading all rows at once.
+     * </p>
+     */
+    boolean withChunkedQueries() default false;
+
+    /**
+     * <p>
+     * Specifies if generated helper has keyset pagination methods for each table ({@code pageAfter}, {@code pageBefore}
+     * and {@code KeysetPager} factory). Pages seek on id or on column annotated with {@link PageKey} instead of using {@code OFFSET},
+     * so deep pages are loaded as fast as the first one.
+     * </p>
+     */
+    boolean withKeysetPaging() default false;
+
+    /**
+     * <p>
+     * Specifies if view class is generated for each table and if generated helper has {@code query<Table>View} methods.
+     * View reads columns of current row of an open cursor only when its getters are called, so long lists do not
+     * create object for each row.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * Fields which are not stored in one column (foreign objects, custom persisters) have no getter in view.
+     * </p>
+     */
+    boolean withCursorViews() default false;
+
+    /**
+     * <p>
+     * Array of classes or interfaces annotated with {@link Projection}. Generated helper has {@code query<Projection>} methods
+     * which select only columns of the projection, and mapper class is generated next to each projection.
+     * </p>
+     */
+    Class<?>[] projections() default {};
 
 }
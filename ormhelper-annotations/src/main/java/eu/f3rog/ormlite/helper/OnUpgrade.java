@@ -16,6 +16,12 @@ public @interface OnUpgrade {
      * <p>
      * Version from which this upgrade should be made.
      * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * If it is not specified, upgrade is made from any older version which is not upgraded by previous upgrades
+     * (from version 1 if it is the first upgrade).
+     * Upgrades of one helper have to form chain without gaps or overlaps which starts at version 1 and ends at {@link Helper#version()}.
+     * </p>
      */
     int from() default UNDEFINED;
 
@@ -0,0 +1,30 @@
+package eu.f3rog.ormlite.helper;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <p>
+ * Marks column by which generated keyset pagination orders rows of a table. Rows with the same value are ordered by id.
+ * It has to annotate field which is annotated with {@code @DatabaseField(canBeNull = false)} and it can be used only once in a table class.
+ * </p>
+ * <p>
+ * <b> NOTE: </b>
+ * Without this annotation, rows are ordered by id. Column should be indexed, so pages are found by index seek.
+ * </p>
+ */
+@Target(FIELD)
+@Retention(RUNTIME)
+public @interface PageKey {
+
+    /**
+     * <p>
+     * Specifies if rows are ordered from the lowest value.
+     * </p>
+     */
+    boolean ascending() default true;
+
+}
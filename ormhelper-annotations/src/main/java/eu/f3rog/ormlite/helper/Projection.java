@@ -0,0 +1,34 @@
+package eu.f3rog.ormlite.helper;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <p>
+ * Marks class or interface which holds only some columns of a table. It has to be used in {@link Helper#projections()}.
+ * Generated Helper selects only these columns and maps them with generated mapper, so other columns (e.g. large texts or blobs) are not read.
+ * </p>
+ * <p>
+ * Fields of class (or getters {@code getX()} / {@code isX()} of interface) are matched by name with fields of {@link #table()}
+ * and they have to have the same type. Class has to have accessible empty constructor and its fields must not be private or final.
+ * </p>
+ * <p>
+ * <b> NOTE: </b>
+ * Foreign fields and fields with custom persisters cannot be projected.
+ * </p>
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+public @interface Projection {
+
+    /**
+     * <p>
+     * Table class whose columns are selected. It has to be one of {@link Helper#tables()}.
+     * </p>
+     */
+    Class<?> table();
+
+}
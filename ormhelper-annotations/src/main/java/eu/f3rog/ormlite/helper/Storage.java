@@ -0,0 +1,136 @@
+package eu.f3rog.ormlite.helper;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <p>
+ * Storage profile of database used in {@link Helper#storage()}. Generated Helper applies it with SQLite pragmas
+ * when database is opened, so it is applied before any query is run.
+ * </p>
+ * <p>
+ * <b> NOTE: </b>
+ * Pragmas are applied to the primary connection. {@link #mmapSize()}, {@link #cacheSizeKb()} and {@link #tempStore()}
+ * are set per connection, so they cannot be combined with {@link Helper#writeAheadLogging()}, whose reads run
+ * on read-only connections of Android's connection pool.
+ * </p>
+ */
+@Target({})
+@Retention(RUNTIME)
+public @interface Storage {
+
+    int UNDEFINED = -1;
+
+    /**
+     * <p>
+     * Maximum number of bytes of database file which are accessed with memory-mapped I/O ({@code PRAGMA mmap_size}).
+     * Value 0 disables memory-mapped I/O.
+     * </p>
+     * <p>
+     * <b> NOTE: </b>
+     * It is ignored by SQLite older than 3.7.17 (Android older than 5.0).
+     * </p>
+     */
+    long mmapSize() default UNDEFINED;
+
+    /**
+     * <p>
+     * Page size of database file in bytes ({@code PRAGMA page_size}). It has to be power of two between 512 and 65536.
+     * </p>
+     * <p>
+     * <b> WARNING: </b>
+     * Page size is stored in database file, so file is rebuilt with {@code VACUUM} when it is opened with other page size.
+     * It cannot be combined with {@link Helper#writeAheadLogging()}.
+     * </p>
+     */
+    int pageSize() default UNDEFINED;
+
+    /**
+     * <p>
+     * Size of page cache in kibibytes ({@code PRAGMA cache_size}).
+     * </p>
+     */
+    int cacheSizeKb() default UNDEFINED;
+
+    /**
+     * <p>
+     * How often SQLite waits until data are written to disk ({@code PRAGMA synchronous}).
+     * </p>
+     */
+    Synchronous synchronous() default Synchronous.DEFAULT;
+
+    /**
+     * <p>
+     * Where temporary tables and indices are stored ({@code PRAGMA temp_store}).
+     * </p>
+     */
+    TempStore tempStore() default TempStore.DEFAULT;
+
+    /**
+     * <p>
+     * How free pages are given back to file system ({@code PRAGMA auto_vacuum}).
+     * {@link AutoVacuum#INCREMENTAL} is required by {@code Vacuum.INCREMENTAL} of generated {@code clearTables} method.
+     * </p>
+     * <p>
+     * <b> WARNING: </b>
+     * Auto-vacuum mode is stored in database file, so file is rebuilt with {@code VACUUM} when it is opened with other mode.
+     * </p>
+     */
+    AutoVacuum autoVacuum() default AutoVacuum.DEFAULT;
+
+    enum Synchronous {
+        /**
+         * Value given by Android is used.
+         */
+        DEFAULT,
+        /**
+         * SQLite does not wait for data to be written. Database can be corrupted on power loss.
+         */
+        OFF,
+        /**
+         * SQLite waits at the most critical moments only. It is safe with write-ahead logging.
+         */
+        NORMAL,
+        /**
+         * SQLite waits until all data are written.
+         */
+        FULL
+    }
+
+    enum TempStore {
+        /**
+         * Value given by SQLite build is used.
+         */
+        DEFAULT,
+        /**
+         * Temporary tables and indices are stored in file.
+         */
+        FILE,
+        /**
+         * Temporary tables and indices are stored in memory.
+         */
+        MEMORY
+    }
+
+    enum AutoVacuum {
+        /**
+         * Value given by SQLite build is used.
+         */
+        DEFAULT,
+        /**
+         * Free pages are kept in database file and reused by later inserts.
+         */
+        NONE,
+        /**
+         * Free pages are removed from database file at every commit.
+         */
+        FULL,
+        /**
+         * Free pages are removed from database file only by {@code PRAGMA incremental_vacuum}.
+         */
+        INCREMENTAL
+    }
+
+}
@@ -0,0 +1,22 @@
+package eu.f3rog.ormlite.helper.benchmark;
+
+import eu.f3rog.ormlite.helper.Helper;
+import eu.f3rog.ormlite.helper.benchmark.model.Item;
+
+/**
+ * Class {@link BenchmarkDatabase}.
+ * <p>
+ * Database whose generated config util and row mappers are measured by benchmarks.
+ * Generated helper itself needs Android, so it is only compiled.
+ * </p>
+ */
+@Helper(
+        name = "benchmark",
+        tables = {
+                Item.class
+        },
+        withConfigUtil = true,
+        withRowMappers = true
+)
+public class BenchmarkDatabase {
+}
@@ -0,0 +1,68 @@
+package eu.f3rog.ormlite.helper.benchmark;
+
+import com.j256.ormlite.table.DatabaseTableConfig;
+
+import eu.f3rog.ormlite.helper.benchmark.schema.Schema1000DatabaseConfigUtil;
+import eu.f3rog.ormlite.helper.benchmark.schema.Schema100DatabaseConfigUtil;
+import eu.f3rog.ormlite.helper.benchmark.schema.Schema10DatabaseConfigUtil;
+
+import java.util.List;
+
+/**
+ * Class {@link BenchmarkSchemas}.
+ * <p>
+ * Returns generated config util of database with given number of tables. Databases with 10, 100 and 1000 tables are
+ * generated by {@code generateSchemas} task of this module.
+ * </p>
+ */
+public final class BenchmarkSchemas {
+
+    private BenchmarkSchemas() {
+    }
+
+    /**
+     * Returns statements which generated {@code onCreate} executes.
+     */
+    public static String[] getCreateStatements(int tables) {
+        switch (tables) {
+            case 10:
+                return Schema10DatabaseConfigUtil.getCreateStatements();
+            case 100:
+                return Schema100DatabaseConfigUtil.getCreateStatements();
+            case 1000:
+                return Schema1000DatabaseConfigUtil.getCreateStatements();
+            default:
+                throw new IllegalArgumentException("No database with " + tables + " tables");
+        }
+    }
+
+    /**
+     * Returns statements which generated {@code clearTables} executes.
+     */
+    public static String[] getClearStatements(int tables) {
+        switch (tables) {
+            case 10:
+                return Schema10DatabaseConfigUtil.getClearStatements();
+            case 100:
+                return Schema100DatabaseConfigUtil.getClearStatements();
+            case 1000:
+                return Schema1000DatabaseConfigUtil.getClearStatements();
+            default:
+                throw new IllegalArgumentException("No database with " + tables + " tables");
+        }
+    }
+
+    public static List<DatabaseTableConfig<?>> getTableConfigs(int tables) {
+        switch (tables) {
+            case 10:
+                return Schema10DatabaseConfigUtil.getTableConfigs();
+            case 100:
+                return Schema100DatabaseConfigUtil.getTableConfigs();
+            case 1000:
+                return Schema1000DatabaseConfigUtil.getTableConfigs();
+            default:
+                throw new IllegalArgumentException("No database with " + tables + " tables");
+        }
+    }
+
+}
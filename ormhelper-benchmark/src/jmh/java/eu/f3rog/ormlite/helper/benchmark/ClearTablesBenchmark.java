@@ -0,0 +1,59 @@
+package eu.f3rog.ormlite.helper.benchmark;
+
+import com.j256.ormlite.table.DatabaseTableConfig;
+import com.j256.ormlite.table.TableUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Class {@link ClearTablesBenchmark}.
+ * <p>
+ * Measures {@code clearTables} of database with given number of tables, each containing one row.
+ * Generated {@code clearTables} deletes all tables in one transaction, {@code TableUtils} deletes every table on its own.
+ * Generated statements are read from config util of the database, because generated Helper needs Android.
+ * </p>
+ */
+public class ClearTablesBenchmark extends JdbcBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tables;
+
+    private List<DatabaseTableConfig<?>> mTableConfigs;
+    private String[] mInsertStatements;
+    private String[] mClearStatements;
+
+    @Override
+    protected void prepare() throws SQLException {
+        mTableConfigs = BenchmarkSchemas.getTableConfigs(tables);
+        mClearStatements = BenchmarkSchemas.getClearStatements(tables);
+        mInsertStatements = new String[tables];
+        for (int i = 0; i < tables; i++) {
+            mInsertStatements[i] = "INSERT INTO " + escape(mTableConfigs.get(i).getTableName()) + " (" + escape("name") + ") VALUES ('item')";
+        }
+        executeInTransaction(BenchmarkSchemas.getCreateStatements(tables));
+    }
+
+    @Setup(Level.Invocation)
+    public void fillTables() throws SQLException {
+        executeInTransaction(mInsertStatements);
+    }
+
+    @Benchmark
+    public void generatedStatements() throws SQLException {
+        executeInTransaction(mClearStatements);
+    }
+
+    @Benchmark
+    public void tableUtils() throws SQLException {
+        for (DatabaseTableConfig<?> config : mTableConfigs) {
+            TableUtils.clearTable(connectionSource, config);
+        }
+    }
+
+}
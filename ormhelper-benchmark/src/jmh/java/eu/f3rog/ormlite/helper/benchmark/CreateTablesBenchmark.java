@@ -0,0 +1,60 @@
+package eu.f3rog.ormlite.helper.benchmark;
+
+import com.j256.ormlite.table.DatabaseTableConfig;
+import com.j256.ormlite.table.TableUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Class {@link CreateTablesBenchmark}.
+ * <p>
+ * Measures {@code onCreate} of database with given number of tables. Generated {@code onCreate} executes
+ * {@code CREATE} statements prepared at compile-time in one transaction, while {@code TableUtils} builds them at runtime
+ * and runs every statement on its own. Generated statements are read from config util of the database, because
+ * generated Helper needs Android.
+ * </p>
+ */
+public class CreateTablesBenchmark extends JdbcBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tables;
+
+    private List<DatabaseTableConfig<?>> mTableConfigs;
+    private String[] mCreateStatements;
+    private String[] mDropStatements;
+
+    @Override
+    protected void prepare() throws SQLException {
+        mTableConfigs = BenchmarkSchemas.getTableConfigs(tables);
+        mCreateStatements = BenchmarkSchemas.getCreateStatements(tables);
+        mDropStatements = new String[tables];
+        for (int i = 0; i < tables; i++) {
+            mDropStatements[i] = "DROP TABLE IF EXISTS " + escape(mTableConfigs.get(i).getTableName());
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void dropTables() throws SQLException {
+        executeInTransaction(mDropStatements);
+    }
+
+    @Benchmark
+    public void generatedStatements() throws SQLException {
+        executeInTransaction(mCreateStatements);
+    }
+
+    @Benchmark
+    public void tableUtils() throws SQLException {
+        for (DatabaseTableConfig<?> config : mTableConfigs) {
+            TableUtils.createTable(connectionSource, config);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package eu.f3rog.ormlite.helper.benchmark;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+
+import eu.f3rog.ormlite.helper.HelperMetrics;
+import eu.f3rog.ormlite.helper.MappedDao;
+import eu.f3rog.ormlite.helper.MeteredDao;
+import eu.f3rog.ormlite.helper.benchmark.model.Item;
+import eu.f3rog.ormlite.helper.benchmark.model.ItemRowMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.sql.SQLException;
+
+/**
+ * Class {@link DaoBenchmark}.
+ * <p>
+ * Measures cost of DAO getter. First call of generated getter creates DAO (from table class or from generated config),
+ * next calls only read volatile field, while {@code OrmLiteSqliteOpenHelper.getDao} looks DAO up in {@link DaoManager}.
+ * Generated getter needs Android, so read of its field is measured on volatile field of this benchmark.
+ * </p>
+ */
+public class DaoBenchmark extends JdbcBenchmark {
+
+    private volatile Dao<Item, Long> mItemDao;
+
+    @Override
+    protected void prepare() throws SQLException {
+        mItemDao = DaoManager.createDao(connectionSource, Item.class);
+    }
+
+    @Benchmark
+    public Dao<Item, Long> createFromClass() throws SQLException {
+        return new MeteredDao<Item, Long>(connectionSource, Item.class, HelperMetrics.NONE);
+    }
+
+    @Benchmark
+    public Dao<Item, Long> createFromConfig() throws SQLException {
+        return new MeteredDao<Item, Long>(connectionSource, BenchmarkDatabaseConfigUtil.createItemTableConfig(), HelperMetrics.NONE);
+    }
+
+    @Benchmark
+    public Dao<Item, Long> createMapped() throws SQLException {
+        return new MappedDao<Item, Long>(connectionSource, BenchmarkDatabaseConfigUtil.createItemTableConfig(), new ItemRowMapper(), HelperMetrics.NONE);
+    }
+
+    @Benchmark
+    public Dao<Item, Long> volatileFieldRead() {
+        return mItemDao;
+    }
+
+    @Benchmark
+    public Dao<Item, Long> daoManagerLookup() throws SQLException {
+        return DaoManager.createDao(connectionSource, Item.class);
+    }
+
+}
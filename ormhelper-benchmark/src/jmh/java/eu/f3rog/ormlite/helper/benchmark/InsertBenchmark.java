@@ -0,0 +1,63 @@
+package eu.f3rog.ormlite.helper.benchmark;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.table.TableUtils;
+
+import eu.f3rog.ormlite.helper.HelperMetrics;
+import eu.f3rog.ormlite.helper.MeteredDao;
+import eu.f3rog.ormlite.helper.benchmark.model.Item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Class {@link InsertBenchmark}.
+ * <p>
+ * Measures bulk insert of given number of rows in one transaction with {@link MeteredDao#create(Object)}, which generated
+ * {@code insertAll} uses for tables without statement binder. Statement binder needs Android, so it is not measured.
+ * </p>
+ */
+public class InsertBenchmark extends JdbcBenchmark {
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private Dao<Item, Long> mItemDao;
+    private List<Item> mItems;
+
+    @Override
+    protected void prepare() throws SQLException {
+        mItemDao = new MeteredDao<Item, Long>(connectionSource, BenchmarkDatabaseConfigUtil.createItemTableConfig(), HelperMetrics.NONE);
+        TableUtils.createTable(connectionSource, BenchmarkDatabaseConfigUtil.createItemTableConfig());
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareItems() throws SQLException {
+        TableUtils.clearTable(connectionSource, BenchmarkDatabaseConfigUtil.createItemTableConfig());
+        mItems = new ArrayList<Item>(rows);
+        for (int i = 0; i < rows; i++) {
+            mItems.add(new Item(i));
+        }
+    }
+
+    @Benchmark
+    public void daoCreateInBatch() throws Exception {
+        mItemDao.callBatchTasks(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                for (Item item : mItems) {
+                    mItemDao.create(item);
+                }
+                return null;
+            }
+        });
+    }
+
+}
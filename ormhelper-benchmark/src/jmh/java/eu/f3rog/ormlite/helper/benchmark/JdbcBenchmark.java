@@ -0,0 +1,77 @@
+package eu.f3rog.ormlite.helper.benchmark;
+
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Class {@link JdbcBenchmark}.
+ * <p>
+ * Base class of benchmarks which run on in-memory SQLite database through ormlite-jdbc, so statements generated
+ * for Android run unchanged. Every trial has its own database, which exists until its connection is closed.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public abstract class JdbcBenchmark {
+
+    protected JdbcConnectionSource connectionSource;
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws Exception {
+        connectionSource = new JdbcConnectionSource("jdbc:sqlite::memory:");
+        // JMH does not run setup of super class first, so trial of subclass is prepared from here
+        prepare();
+    }
+
+    /**
+     * Prepares opened database for trial.
+     */
+    protected abstract void prepare() throws Exception;
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws SQLException {
+        connectionSource.close();
+    }
+
+    /**
+     * Executes given statements in one transaction the same way as generated Helper does.
+     */
+    protected void executeInTransaction(String... statements) throws SQLException {
+        DatabaseConnection connection = connectionSource.getReadWriteConnection();
+        try {
+            connection.setAutoCommit(false);
+            try {
+                for (String statement : statements) {
+                    connection.executeStatement(statement, DatabaseConnection.DEFAULT_RESULT_FLAGS);
+                }
+                connection.commit(null);
+            } catch (SQLException e) {
+                connection.rollback(null);
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            connectionSource.releaseConnection(connection);
+        }
+    }
+
+    protected void executeInTransaction(List<String> statements) throws SQLException {
+        executeInTransaction(statements.toArray(new String[statements.size()]));
+    }
+
+    protected String escape(String entityName) {
+        StringBuilder sb = new StringBuilder(entityName.length() + 2);
+        connectionSource.getDatabaseType().appendEscapedEntityName(sb, entityName);
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,165 @@
+package eu.f3rog.ormlite.helper.benchmark;
+
+import eu.f3rog.ormlite.helper.compiler.HelperProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+/**
+ * Class {@link ProcessorBenchmark}.
+ * <p>
+ * Measures wall time of annotation processing of synthetic schema with given number of tables. Half of the tables inherit
+ * their id from common super class. {@code parse} runs the same compilation without processor, so difference of both
+ * benchmarks is time spent in {@link HelperProcessor}, in writing of generated files and in parsing of them in the next round.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ProcessorBenchmark {
+
+    private static final String PACKAGE_NAME = "schema";
+
+    @Param({"100", "1000", "5000"})
+    public int tables;
+
+    private JavaCompiler mCompiler;
+    private List<JavaFileObject> mSources;
+    private File mOutputDir;
+    private List<String> mOptions;
+
+    @Setup(Level.Trial)
+    public void generateSchema() throws IOException {
+        mCompiler = ToolProvider.getSystemJavaCompiler();
+        mSources = new ArrayList<>(tables + 2);
+        mSources.add(source("Entity", "public abstract class Entity {\n"
+                + "    @DatabaseField(generatedId = true)\n"
+                + "    long id;\n"
+                + "}\n"));
+        StringBuilder tableList = new StringBuilder();
+        for (int i = 0; i < tables; i++) {
+            String name = "Table" + i;
+            String id = (i % 2 == 0) ? "    @DatabaseField(generatedId = true)\n    long id;\n" : "";
+            String parent = (i % 2 == 0) ? "" : " extends Entity";
+            mSources.add(source(name, "@DatabaseTable\n"
+                    + "public class " + name + parent + " {\n"
+                    + id
+                    + "    @DatabaseField\n    String name;\n"
+                    + "    @DatabaseField\n    int count;\n"
+                    + "    @DatabaseField\n    Double price;\n"
+                    + "    @DatabaseField(index = true)\n    boolean done;\n"
+                    + "}\n"));
+            tableList.append(i > 0 ? ", " : "").append(name).append(".class");
+        }
+        mSources.add(source("SchemaDatabase", "@eu.f3rog.ormlite.helper.Helper(name = \"schema\", tables = {" + tableList
+                + "}, withConfigUtil = true, withRowMappers = true)\n"
+                + "public class SchemaDatabase {\n"
+                + "}\n"));
+
+        mOutputDir = File.createTempFile("processor-benchmark", "");
+        if (!mOutputDir.delete() || !mOutputDir.mkdir()) {
+            throw new IOException("Cannot create " + mOutputDir);
+        }
+        mOptions = Arrays.asList("-proc:only", "-s", mOutputDir.getPath(),
+                "-classpath", System.getProperty("java.class.path"));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteOutput() {
+        delete(mOutputDir);
+    }
+
+    @Benchmark
+    public boolean parse() {
+        return compile(Collections.<Processor>singletonList(new NoProcessor()));
+    }
+
+    @Benchmark
+    public boolean process() {
+        return compile(Collections.<Processor>singletonList(new HelperProcessor()));
+    }
+
+    private boolean compile(List<Processor> processors) {
+        JavaCompiler.CompilationTask task = mCompiler.getTask(null, null, null, mOptions, null, mSources);
+        task.setProcessors(processors);
+        if (!task.call()) {
+            throw new IllegalStateException("Compilation of schema with " + tables + " tables failed");
+        }
+        return true;
+    }
+
+    /**
+     * Processor which does nothing, so compilation runs the same rounds without {@link HelperProcessor}.
+     */
+    @SupportedAnnotationTypes("*")
+    private static class NoProcessor extends AbstractProcessor {
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            return false;
+        }
+
+    }
+
+    private static JavaFileObject source(String className, final String body) {
+        URI uri = URI.create("string:///" + PACKAGE_NAME + "/" + className + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return "package " + PACKAGE_NAME + ";\n\n"
+                        + "import com.j256.ormlite.field.DatabaseField;\n"
+                        + "import com.j256.ormlite.table.DatabaseTable;\n\n"
+                        + body;
+            }
+        };
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+}
@@ -0,0 +1,75 @@
+package eu.f3rog.ormlite.helper.benchmark;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.stmt.PreparedQuery;
+import com.j256.ormlite.table.TableUtils;
+
+import eu.f3rog.ormlite.helper.HelperMetrics;
+import eu.f3rog.ormlite.helper.MappedDao;
+import eu.f3rog.ormlite.helper.MeteredDao;
+import eu.f3rog.ormlite.helper.benchmark.model.Item;
+import eu.f3rog.ormlite.helper.benchmark.model.ItemRowMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Class {@link QueryBenchmark}.
+ * <p>
+ * Measures mapping of query results by ORMLite reflection and by generated row mapper.
+ * </p>
+ */
+public class QueryBenchmark extends JdbcBenchmark {
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private Dao<Item, Long> mReflectionDao;
+    private Dao<Item, Long> mMappedDao;
+    private PreparedQuery<Item> mReflectionQuery;
+    private PreparedQuery<Item> mMappedQuery;
+
+    @Override
+    protected void prepare() throws Exception {
+        mReflectionDao = new MeteredDao<Item, Long>(connectionSource, BenchmarkDatabaseConfigUtil.createItemTableConfig(), HelperMetrics.NONE);
+        mMappedDao = new MappedDao<Item, Long>(connectionSource, BenchmarkDatabaseConfigUtil.createItemTableConfig(), new ItemRowMapper(), HelperMetrics.NONE);
+        mReflectionQuery = mReflectionDao.queryBuilder().where().eq("done", true).prepare();
+        mMappedQuery = mMappedDao.queryBuilder().where().eq("done", true).prepare();
+
+        TableUtils.createTable(connectionSource, BenchmarkDatabaseConfigUtil.createItemTableConfig());
+        mReflectionDao.callBatchTasks(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                for (int i = 0; i < rows; i++) {
+                    mReflectionDao.create(new Item(i));
+                }
+                return null;
+            }
+        });
+    }
+
+    @Benchmark
+    public List<Item> queryForAllReflection() throws SQLException {
+        return mReflectionDao.queryForAll();
+    }
+
+    @Benchmark
+    public List<Item> queryForAllMapped() throws SQLException {
+        return mMappedDao.queryForAll();
+    }
+
+    @Benchmark
+    public List<Item> queryReflection() throws SQLException {
+        return mReflectionDao.query(mReflectionQuery);
+    }
+
+    @Benchmark
+    public List<Item> queryMapped() throws SQLException {
+        return mMappedDao.query(mMappedQuery);
+    }
+
+}
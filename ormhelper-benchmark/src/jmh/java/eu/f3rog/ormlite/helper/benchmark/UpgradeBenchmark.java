@@ -0,0 +1,57 @@
+package eu.f3rog.ormlite.helper.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class {@link UpgradeBenchmark}.
+ * <p>
+ * Measures upgrade chain with given number of steps, each adding one column to table with 1000 rows.
+ * Steps of upgrade are {@code @OnUpgrade} methods written by user, so there are no generated statements to run.
+ * Benchmark runs their {@code ALTER} statements in one transaction, as generated {@code onUpgrade} does
+ * in transaction of {@code SQLiteOpenHelper}.
+ * </p>
+ */
+public class UpgradeBenchmark extends JdbcBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"1", "10", "50"})
+    public int steps;
+
+    private List<String> mCreateStatements;
+    private String[] mAlterStatements;
+
+    @Override
+    protected void prepare() throws SQLException {
+        String tableName = escape(BenchmarkDatabaseConfigUtil.createItemTableConfig().getTableName());
+        mCreateStatements = new ArrayList<String>(ROWS + 3);
+        mCreateStatements.add("DROP TABLE IF EXISTS " + tableName);
+        mCreateStatements.addAll(Arrays.asList(BenchmarkDatabaseConfigUtil.getCreateStatements()));
+        for (int i = 0; i < ROWS; i++) {
+            mCreateStatements.add("INSERT INTO " + tableName + " (" + escape("name") + ") VALUES ('item " + i + "')");
+        }
+        mAlterStatements = new String[steps];
+        for (int i = 0; i < steps; i++) {
+            mAlterStatements[i] = "ALTER TABLE " + tableName + " ADD COLUMN " + escape("extra_" + i) + " INTEGER";
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createTable() throws SQLException {
+        executeInTransaction(mCreateStatements);
+    }
+
+    @Benchmark
+    public void alterStatementsInTransaction() throws SQLException {
+        executeInTransaction(mAlterStatements);
+    }
+
+}
@@ -0,0 +1,51 @@
+package eu.f3rog.ormlite.helper.benchmark.model;
+
+import com.j256.ormlite.field.DataType;
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+
+import java.util.Date;
+
+/**
+ * Class {@link Item}.
+ * <p>
+ * Table used by benchmarks. Fields are package-private, so row mapper and statement binder are generated for it.
+ * </p>
+ */
+@DatabaseTable(tableName = "item")
+public class Item {
+
+    public enum State {NEW, DONE, OTHER}
+
+    @DatabaseField(generatedId = true)
+    long id;
+    @DatabaseField
+    String name;
+    @DatabaseField
+    Integer count;
+    @DatabaseField
+    double price;
+    @DatabaseField(index = true)
+    boolean done;
+    @DatabaseField(unknownEnumName = "OTHER")
+    State state;
+    @DatabaseField(dataType = DataType.DATE_LONG)
+    Date createdAt;
+
+    public Item() {
+    }
+
+    public Item(int i) {
+        name = "item " + i;
+        count = (i % 10 == 0) ? null : i;
+        price = i * 0.5;
+        done = (i % 2 == 0);
+        state = done ? State.DONE : State.NEW;
+        createdAt = new Date(1444694400000L + i);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+}
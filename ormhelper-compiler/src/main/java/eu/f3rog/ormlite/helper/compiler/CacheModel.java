@@ -0,0 +1,131 @@
+package eu.f3rog.ormlite.helper.compiler;
+
+import com.squareup.javapoet.ClassName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+
+import eu.f3rog.ormlite.helper.Cache;
+import eu.f3rog.ormlite.helper.Helper;
+
+/**
+ * Class {@link CacheModel}.
+ * <p>
+ * Compile-time view of one {@code @Cache} policy, either from {@code @Helper} caches or from table class.
+ * Values are read from annotation mirror, because {@code table} cannot be read as {@link Class} during compilation.
+ * </p>
+ */
+public class CacheModel {
+
+    private final Element mElement;
+    private final Map<String, Object> mValues;
+
+    /**
+     * Returns policies listed in {@code @Helper} caches of given helper class.
+     */
+    public static List<CacheModel> fromHelper(TypeElement helperClass) {
+        List<CacheModel> caches = new ArrayList<>();
+        AnnotationMirror helper = getMirror(helperClass, Helper.class);
+        AnnotationValue value = (helper != null) ? getValue(helper, "caches") : null;
+        if (value != null) {
+            for (Object cache : (List<?>) value.getValue()) {
+                caches.add(new CacheModel(helperClass, (AnnotationMirror) ((AnnotationValue) cache).getValue()));
+            }
+        }
+        return caches;
+    }
+
+    /**
+     * Returns policy of given table class or {@code null} if table class is not annotated with {@code @Cache}.
+     */
+    public static CacheModel fromTable(TypeElement tableClass) {
+        AnnotationMirror cache = getMirror(tableClass, Cache.class);
+        return (cache != null) ? new CacheModel(tableClass, cache) : null;
+    }
+
+    private static AnnotationMirror getMirror(TypeElement element, Class<?> annotation) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (ClassName.get(annotation).equals(ClassName.get(annotationMirror.getAnnotationType().asElement().asType()))) {
+                return annotationMirror;
+            }
+        }
+        return null;
+    }
+
+    private static AnnotationValue getValue(AnnotationMirror annotationMirror, String attribute) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : annotationMirror.getElementValues().entrySet()) {
+            if (e.getKey().getSimpleName().contentEquals(attribute)) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    private CacheModel(Element element, AnnotationMirror cache) {
+        mElement = element;
+        mValues = new HashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : cache.getElementValues().entrySet()) {
+            mValues.put(e.getKey().getSimpleName().toString(), e.getValue().getValue());
+        }
+    }
+
+    /**
+     * Returns helper class or table class which declares this policy.
+     */
+    public Element getElement() {
+        return mElement;
+    }
+
+    /**
+     * Returns explicitly specified table or {@code null}.
+     */
+    public ClassName getTable() {
+        Object value = mValues.get("table");
+        if (!(value instanceof DeclaredType)) {
+            return null;
+        }
+        return ClassName.get((TypeElement) ((DeclaredType) value).asElement());
+    }
+
+    public boolean hasTable() {
+        return mValues.get("table") instanceof TypeMirror;
+    }
+
+    /**
+     * Returns name of {@link Cache.Policy} constant.
+     */
+    public String getPolicy() {
+        Object value = mValues.get("policy");
+        return (value != null) ? ((VariableElement) value).getSimpleName().toString() : Cache.Policy.LRU.name();
+    }
+
+    public int getMaxCount() {
+        Object value = mValues.get("maxCount");
+        return (value != null) ? ((Number) value).intValue() : Cache.UNDEFINED;
+    }
+
+    public long getMaxBytes() {
+        Object value = mValues.get("maxBytes");
+        return (value != null) ? ((Number) value).longValue() : Cache.UNDEFINED;
+    }
+
+    public boolean isLru() {
+        return Cache.Policy.LRU.name().equals(getPolicy());
+    }
+
+    public boolean isWeak() {
+        return Cache.Policy.WEAK.name().equals(getPolicy());
+    }
+
+}
@@ -12,13 +12,42 @@ public enum EClass {
 
     Context(ClassName.get("android.content", "Context")),
     SQLiteDatabase(ClassName.get("android.database.sqlite", "SQLiteDatabase")),
+    SQLiteStatement(ClassName.get("android.database.sqlite", "SQLiteStatement")),
+    Cursor(ClassName.get("android.database", "Cursor")),
     Log(ClassName.get("android.util", "Log")),
+    AsyncTask(ClassName.get("android.os", "AsyncTask")),
+    Build(ClassName.get("android.os", "Build")),
 
+    AndroidDatabaseConnection(ClassName.get("com.j256.ormlite.android", "AndroidDatabaseConnection")),
     OrmLiteSqliteOpenHelper(ClassName.get("com.j256.ormlite.android.apptools", "OrmLiteSqliteOpenHelper")),
     Dao(ClassName.get("com.j256.ormlite.dao", "Dao")),
+    DaoManager(ClassName.get("com.j256.ormlite.dao", "DaoManager")),
+    TransactionManager(ClassName.get("com.j256.ormlite.misc", "TransactionManager")),
+    Where(ClassName.get("com.j256.ormlite.stmt", "Where")),
+    QueryBuilder(ClassName.get("com.j256.ormlite.stmt", "QueryBuilder")),
+    DatabaseTableConfig(ClassName.get("com.j256.ormlite.table", "DatabaseTableConfig")),
+    DatabaseFieldConfig(ClassName.get("com.j256.ormlite.field", "DatabaseFieldConfig")),
     ConnectionSource(ClassName.get("com.j256.ormlite.support", "ConnectionSource")),
     TableUtils(ClassName.get("com.j256.ormlite.table", "TableUtils")),
-    OrmLiteConfigUtil(ClassName.get("com.j256.ormlite.android.apptools", "OrmLiteConfigUtil"));
+    DatabaseResults(ClassName.get("com.j256.ormlite.support", "DatabaseResults")),
+
+    TableRowMapper(ClassName.get("eu.f3rog.ormlite.helper", "TableRowMapper")),
+    MappedDao(ClassName.get("eu.f3rog.ormlite.helper", "MappedDao")),
+    MeteredDao(ClassName.get("eu.f3rog.ormlite.helper", "MeteredDao")),
+    LongIdDao(ClassName.get("eu.f3rog.ormlite.helper", "LongIdDao")),
+    BoundedObjectCache(ClassName.get("eu.f3rog.ormlite.helper", "BoundedObjectCache")),
+    TableChanges(ClassName.get("eu.f3rog.ormlite.helper", "TableChanges")),
+    QueryCache(ClassName.get("eu.f3rog.ormlite.helper", "QueryCache")),
+    WriteQueue(ClassName.get("eu.f3rog.ormlite.helper", "WriteQueue")),
+    ChunkedQuery(ClassName.get("eu.f3rog.ormlite.helper", "ChunkedQuery")),
+    KeysetPager(ClassName.get("eu.f3rog.ormlite.helper", "KeysetPager")),
+    CursorView(ClassName.get("eu.f3rog.ormlite.helper", "CursorView")),
+    Projections(ClassName.get("eu.f3rog.ormlite.helper", "Projections")),
+    HelperMetrics(ClassName.get("eu.f3rog.ormlite.helper", "HelperMetrics")),
+    SlowStatementLog(ClassName.get("eu.f3rog.ormlite.helper", "SlowStatementLog")),
+    TimedConnectionSource(ClassName.get("eu.f3rog.ormlite.helper", "TimedConnectionSource")),
+    StorageFile(ClassName.get("eu.f3rog.ormlite.helper", "StorageFile")),
+    Vacuum(ClassName.get("eu.f3rog.ormlite.helper", "Vacuum"));
 
     private ClassName mClassName;
 
@@ -0,0 +1,120 @@
+package eu.f3rog.ormlite.helper.compiler;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.field.ForeignCollectionField;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Class {@link FieldModel}.
+ * <p>
+ * Compile-time view of one persisted field of a database table. Only attributes explicitly specified
+ * in {@code @DatabaseField} or {@code @ForeignCollectionField} are kept, so everything else has ORMLite default value.
+ * </p>
+ */
+public class FieldModel {
+
+    private final VariableElement mElement;
+    private final boolean mForeignCollection;
+    private final Map<String, Object> mValues;
+
+    /**
+     * Creates model for given field or returns {@code null} if field is not persisted.
+     */
+    public static FieldModel from(VariableElement field) {
+        boolean isDatabaseField = ProcessorUtils.isAnnotated(field, ClassName.get(DatabaseField.class));
+        boolean isForeignCollection = !isDatabaseField && ProcessorUtils.isAnnotated(field, ClassName.get(ForeignCollectionField.class));
+        if (!isDatabaseField && !isForeignCollection) {
+            return null;
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        ClassName annotation = ClassName.get(isDatabaseField ? DatabaseField.class : ForeignCollectionField.class);
+        for (AnnotationMirror annotationMirror : field.getAnnotationMirrors()) {
+            if (!annotation.equals(ClassName.get(annotationMirror.getAnnotationType().asElement().asType()))) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : annotationMirror.getElementValues().entrySet()) {
+                values.put(e.getKey().getSimpleName().toString(), e.getValue().getValue());
+            }
+        }
+
+        if (isDatabaseField && Boolean.FALSE.equals(values.get("persisted"))) {
+            return null;
+        }
+        return new FieldModel(field, isForeignCollection, values);
+    }
+
+    private FieldModel(VariableElement element, boolean foreignCollection, Map<String, Object> values) {
+        mElement = element;
+        mForeignCollection = foreignCollection;
+        mValues = values;
+    }
+
+    public VariableElement getElement() {
+        return mElement;
+    }
+
+    public String getName() {
+        return mElement.getSimpleName().toString();
+    }
+
+    public TypeMirror getType() {
+        return mElement.asType();
+    }
+
+    public TypeName getTypeName() {
+        return TypeName.get(getType());
+    }
+
+    public boolean isForeignCollection() {
+        return mForeignCollection;
+    }
+
+    /**
+     * Returns explicitly specified annotation attributes (attribute name -> value).
+     */
+    public Map<String, Object> getValues() {
+        return mValues;
+    }
+
+    public boolean has(String attribute) {
+        return mValues.containsKey(attribute);
+    }
+
+    public String getString(String attribute) {
+        Object value = mValues.get(attribute);
+        return (value != null && value.toString().length() > 0) ? value.toString() : null;
+    }
+
+    public boolean getBoolean(String attribute) {
+        return Boolean.TRUE.equals(mValues.get(attribute));
+    }
+
+    public boolean isId() {
+        return getBoolean("id") || getBoolean("generatedId") || getString("generatedIdSequence") != null;
+    }
+
+    public boolean isForeign() {
+        return getBoolean("foreign");
+    }
+
+    public String getColumnName() {
+        String columnName = getString("columnName");
+        if (columnName != null) {
+            return columnName;
+        }
+        return isForeign() ? getName() + FieldType.FOREIGN_ID_FIELD_SUFFIX : getName();
+    }
+
+}
@@ -3,24 +3,35 @@ package eu.f3rog.ormlite.helper.compiler;
 import com.google.auto.service.AutoService;
 import com.j256.ormlite.field.DatabaseField;
 import com.j256.ormlite.table.DatabaseTable;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
-import com.sun.tools.javac.code.Symbol;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
 
-import java.io.File;
 import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
@@ -29,17 +40,26 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 import javax.tools.Diagnostic;
 
+import eu.f3rog.ormlite.helper.Cache;
 import eu.f3rog.ormlite.helper.Helper;
 import eu.f3rog.ormlite.helper.OnUpgrade;
+import eu.f3rog.ormlite.helper.PageKey;
 import eu.f3rog.ormlite.helper.Path;
+import eu.f3rog.ormlite.helper.Projection;
+import eu.f3rog.ormlite.helper.Storage;
 
 @AutoService(Processor.class)
 public class HelperProcessor extends AbstractProcessor {
@@ -47,15 +67,41 @@ public class HelperProcessor extends AbstractProcessor {
     private static class HelperBucket {
         public List<ExecutableElement> onUpgradeMethods = new ArrayList<>();
         public ExecutableElement pathMethod = null;
+        public List<ClassName> tableClassNames;
+        public Map<ClassName, CacheModel> caches;
+        public Map<ClassName, ClassName> projections;
     }
 
-    private static final String GET_DB_CONFIG_FILE_METHOD_NAME = "getDatabaseConfigFile";
-    private static final String MAIN_METHOD_NAME = "main";
-    private static final String DB_CONFIG_DIR_NAME = "db_config";
+    private static final String GET_TABLE_CONFIGS_METHOD_NAME = "getTableConfigs";
+    private static final String GET_CREATE_STATEMENTS_METHOD_NAME = "getCreateStatements";
+    private static final String GET_CLEAR_STATEMENTS_METHOD_NAME = "getClearStatements";
+    private static final String DAO_LOCK_NAME = "mDaoLock";
+    private static final String CLEAR_TABLES_METHOD_NAME = "clearTables";
+    private static final String GET_TABLE_NAME_METHOD_NAME = "getTableName";
+    private static final String WARM_UP_METHOD_NAME = "warmUp";
+    private static final String CREATE_TABLE_METHOD_NAME = "createTable";
+    private static final String CREATE_DAO_METHOD_NAME = "createDao";
+    private static final String METRICS_NAME = "mMetrics";
+    private static final String SLOW_STATEMENT_LOG_NAME = "mSlowStatementLog";
+    private static final String TABLE_CHANGES_NAME = "mTableChanges";
+    private static final String QUERY_CACHE_NAME = "mQueryCache";
+    private static final String WRITE_QUEUE_NAME = "mWriteQueue";
 
     private Messager mMessager;
     private Filer mFiler;
     private final HashMap<ClassName, ClassName> mIdClassNames = new HashMap<>();
+    private final HashMap<TypeElement, ClassName> mIdClassNamesByElement = new HashMap<>();
+    private final Set<String> mDeferredHelpers = new LinkedHashSet<>();
+    private final HashMap<ClassName, TableModel> mTableModels = new HashMap<>();
+    private final Set<ClassName> mRowMapperTables = new HashSet<>();
+    private final RowMapperGenerator mRowMapperGenerator = new RowMapperGenerator();
+    private final Set<ClassName> mStatementBinderTables = new HashSet<>();
+    private final StatementBinderGenerator mStatementBinderGenerator = new StatementBinderGenerator();
+    private final SchemaGenerator mSchemaGenerator = new SchemaGenerator();
+    private final Set<ClassName> mViewTables = new HashSet<>();
+    private final ViewGenerator mViewGenerator = new ViewGenerator();
+    private final Set<ClassName> mProjectionMappers = new HashSet<>();
+    private final ProjectionGenerator mProjectionGenerator = new ProjectionGenerator();
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
@@ -81,110 +127,193 @@ public class HelperProcessor extends AbstractProcessor {
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
-        Map<TypeElement, HelperBucket> helpers = new HashMap<>();
+        // elements of previous round may be stale, so tables are read again in every round
+        mIdClassNames.clear();
+        mIdClassNamesByElement.clear();
+        mTableModels.clear();
 
-        // Find all ID classes for db tables
-        Set<? extends Element> dbTableClasses = roundEnv.getElementsAnnotatedWith(DatabaseTable.class);
-        for (Element dbTableClass : dbTableClasses) {
-            saveIdClassForTable((TypeElement) dbTableClass);
+        // check that Path and OnUpgrade methods are inside helper class
+        if (!checkEnclosingHelper(roundEnv, Path.class) || !checkEnclosingHelper(roundEnv, OnUpgrade.class)) {
+            return false;
         }
-        dbTableClasses = null;
 
-        // put all helper classes
-        Set<? extends Element> helperClasses = roundEnv.getElementsAnnotatedWith(Helper.class);
-        for (Element helperClass : helperClasses) {
-            if (!checkHelperClass((TypeElement) helperClass)) {
-                return false;
+        // helper classes of this round and helper classes deferred from previous round
+        Set<TypeElement> helperClasses = new LinkedHashSet<>();
+        for (String deferredHelper : mDeferredHelpers) {
+            TypeElement helperClass = processingEnv.getElementUtils().getTypeElement(deferredHelper);
+            if (helperClass != null) {
+                helperClasses.add(helperClass);
             }
-            helpers.put((TypeElement) helperClass, new HelperBucket());
         }
-        helperClasses = null;
+        mDeferredHelpers.clear();
+        for (Element helperClass : roundEnv.getElementsAnnotatedWith(Helper.class)) {
+            helperClasses.add((TypeElement) helperClass);
+        }
 
-        // add Path methods
-        Set<? extends Element> pathMethods = roundEnv.getElementsAnnotatedWith(Path.class);
-        for (Element pathMethod : pathMethods) {
-            HelperBucket helperBucket = helpers.get((TypeElement) pathMethod.getEnclosingElement());
-            if (helperBucket == null) {
-                error(pathMethod, "Method annotated with @%s must be inside class annotated with @%s.",
-                        Path.class.getSimpleName(), Helper.class.getSimpleName());
-                return false;
+        // generate helper classes
+        for (TypeElement helperClass : helperClasses) {
+            if (hasUnresolvedTables(helperClass)) {
+                if (!roundEnv.processingOver()) {
+                    // table may be generated by other processor in this round
+                    mDeferredHelpers.add(helperClass.getQualifiedName().toString());
+                }
+                // otherwise compiler reports missing class itself
+                continue;
             }
-            if (!checkPathMethod((ExecutableElement) pathMethod)) {
+            if (!processHelper(helperClass)) {
                 return false;
             }
-            helperBucket.pathMethod = (ExecutableElement) pathMethod;
         }
-        pathMethods = null;
 
-        // add onUpgrade methods
-        Set<? extends Element> onUpgradeMethods = roundEnv.getElementsAnnotatedWith(OnUpgrade.class);
-        for (Element onUpgradeMethod : onUpgradeMethods) {
-            HelperBucket helperBucket = helpers.get((TypeElement) onUpgradeMethod.getEnclosingElement());
-            if (helperBucket == null) {
-                error(onUpgradeMethod, "Method annotated with @%s must be inside class annotated with @%s.",
-                        OnUpgrade.class.getSimpleName(), Helper.class.getSimpleName());
-                return false;
+        return false;
+    }
+
+    private boolean processHelper(TypeElement helperClass) {
+        HelperBucket helperBucket = new HelperBucket();
+        helperBucket.tableClassNames = getTableClassNames(helperClass);
+        if (!checkHelperClass(helperClass, helperBucket.tableClassNames)) {
+            return false;
+        }
+        helperBucket.caches = getCaches(helperClass, helperBucket.tableClassNames);
+        if (helperBucket.caches == null) {
+            return false;
+        }
+        helperBucket.projections = getProjections(helperClass, helperBucket.tableClassNames);
+        if (helperBucket.projections == null) {
+            return false;
+        }
+
+        // add Path and onUpgrade methods
+        for (Element enclosed : helperClass.getEnclosedElements()) {
+            if (enclosed.getKind() != ElementKind.METHOD) {
+                continue;
             }
-            if (!checkOnUpMethod((ExecutableElement) onUpgradeMethod)) {
-                return false;
+            if (enclosed.getAnnotation(Path.class) != null) {
+                if (!checkPathMethod((ExecutableElement) enclosed)) {
+                    return false;
+                }
+                helperBucket.pathMethod = (ExecutableElement) enclosed;
+            }
+            if (enclosed.getAnnotation(OnUpgrade.class) != null) {
+                if (!checkOnUpMethod((ExecutableElement) enclosed)) {
+                    return false;
+                }
+                helperBucket.onUpgradeMethods.add((ExecutableElement) enclosed);
             }
-            helperBucket.onUpgradeMethods.add((ExecutableElement) onUpgradeMethod);
         }
-        onUpgradeMethods = null;
+        if (!checkOnUpMethods(helperClass, helperBucket.onUpgradeMethods)) {
+            return false;
+        }
 
-        // generate helper classes
-        for (Map.Entry<TypeElement, HelperBucket> helper : helpers.entrySet()) {
-            generateHelper(helper.getKey(), helper.getValue());
+        // generate row mappers if necessary
+        List<ClassName> tableClassNames = helperBucket.tableClassNames;
+        if (helperClass.getAnnotation(Helper.class).withRowMappers()) {
+            generateRowMappers(tableClassNames);
+        }
+        generateStatementBinders(tableClassNames);
+        if (helperClass.getAnnotation(Helper.class).withCursorViews()) {
+            generateViews(tableClassNames);
+        }
+        generateProjectionMappers(helperBucket.projections);
+
+        generateHelper(helperClass, helperBucket);
+
+        // generate config util class if necessary
+        if (helperClass.getAnnotation(Helper.class).withConfigUtil()) {
+            generateConfigUtil(helperClass, tableClassNames);
+        }
+
+        return true;
+    }
 
-            // generate config util class if necessary
-            if (helper.getKey().getAnnotation(Helper.class).withConfigUtil()) {
-                generateConfigUtil(helper.getKey());
+    private boolean checkEnclosingHelper(RoundEnvironment roundEnv, Class<? extends Annotation> annotation) {
+        for (Element method : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (method.getEnclosingElement().getAnnotation(Helper.class) == null) {
+                error(method, "Method annotated with @%s must be inside class annotated with @%s.",
+                        annotation.getSimpleName(), Helper.class.getSimpleName());
+                return false;
             }
         }
+        return true;
+    }
 
+    /**
+     * Returns {@code true} if some of helper tables cannot be resolved yet (e.g. it is generated in this round).
+     */
+    private boolean hasUnresolvedTables(TypeElement helperClass) {
+        for (AnnotationMirror annotationMirror : helperClass.getAnnotationMirrors()) {
+            if (!ClassName.get(Helper.class).equals(ClassName.get(annotationMirror.getAnnotationType().asElement().asType()))) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> attribute : annotationMirror.getElementValues().entrySet()) {
+                if (!attribute.getKey().getSimpleName().contentEquals("tables")) {
+                    continue;
+                }
+                for (Object table : (List<?>) attribute.getValue().getValue()) {
+                    Object value = ((AnnotationValue) table).getValue();
+                    if (!(value instanceof TypeMirror) || ((TypeMirror) value).getKind() == TypeKind.ERROR) {
+                        return true;
+                    }
+                }
+            }
+        }
         return false;
     }
 
-    private void saveIdClassForTable(TypeElement dbTableClass) {
-        TypeElement superClass = dbTableClass;
-        while (superClass != null && !ClassName.get(superClass).equals(ClassName.get(Object.class))) {
-            // look for id field
-            for (Element enclosed : superClass.getEnclosedElements()) {
-                if (enclosed.getKind() == ElementKind.FIELD) {
-                    DatabaseField a = enclosed.getAnnotation(DatabaseField.class);
-                    if (a != null && (a.id() || a.generatedId())) {
-                        // support primitive types
-                        Class idClass = null;
-                        switch (enclosed.asType().getKind()) {
-                            case INT:
-                                idClass = Integer.class;
-                                break;
-                            case LONG:
-                                idClass = Long.class;
-                                break;
-                            case DOUBLE:
-                                idClass = Double.class;
-                                break;
-                            case FLOAT:
-                                idClass = Float.class;
-                                break;
-                            default: // if object
-                                break;
-                        }
-                        // save to map
-                        ClassName dbTableClassName = (ClassName) ClassName.get(dbTableClass.asType());
-                        ClassName dbFieldClassName = (idClass != null) ? ClassName.get(idClass) : (ClassName) ClassName.get(enclosed.asType());
-                        mIdClassNames.put(dbTableClassName, dbFieldClassName);
-                        return;
+    /**
+     * Returns class of id field declared in given class or in its super classes. Result is remembered for every visited class,
+     * so tables with common super class walk its hierarchy only once.
+     */
+    private ClassName findIdClassName(TypeElement cls) {
+        if (mIdClassNamesByElement.containsKey(cls)) {
+            return mIdClassNamesByElement.get(cls);
+        }
+        ClassName idClassName = getDeclaredIdClassName(cls);
+        if (idClassName == null) {
+            // look into super class
+            TypeMirror superType = cls.getSuperclass();
+            if (superType.getKind() == TypeKind.DECLARED) {
+                idClassName = findIdClassName((TypeElement) ((DeclaredType) superType).asElement());
+            }
+        }
+        mIdClassNamesByElement.put(cls, idClassName);
+        return idClassName;
+    }
+
+    private ClassName getDeclaredIdClassName(TypeElement cls) {
+        for (Element enclosed : cls.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.FIELD) {
+                DatabaseField a = enclosed.getAnnotation(DatabaseField.class);
+                if (a != null && (a.id() || a.generatedId())) {
+                    // support primitive types
+                    switch (enclosed.asType().getKind()) {
+                        case INT:
+                            return ClassName.get(Integer.class);
+                        case LONG:
+                            return ClassName.get(Long.class);
+                        case DOUBLE:
+                            return ClassName.get(Double.class);
+                        case FLOAT:
+                            return ClassName.get(Float.class);
+                        default: // if object
+                            return (ClassName) ClassName.get(enclosed.asType());
                     }
                 }
             }
-            // get super class
-            superClass = (TypeElement) ((Symbol.ClassSymbol) superClass).getSuperclass().asElement();
         }
+        return null;
+    }
+
+    private List<ClassName> getTableClassNames(TypeElement helperClass) {
+        return ProcessorUtils.getParamClasses(helperClass, new ProcessorUtils.IGetter<Class<?>[]>() {
+            @Override
+            public Class<?>[] get(Element element) {
+                return element.getAnnotation(Helper.class).tables();
+            }
+        });
     }
 
-    private boolean checkHelperClass(TypeElement helperClass) {
+    private boolean checkHelperClass(TypeElement helperClass, List<ClassName> tableClassNames) {
         // has to have empty constructor
         boolean hasEmptyConstructor = false;
         for (Element e : helperClass.getEnclosedElements()) {
@@ -199,18 +328,193 @@ public class HelperProcessor extends AbstractProcessor {
         }
 
         // all helper tables has to be annotated with @DatabaseTable
-        List<ClassName> tableClassNames = ProcessorUtils.getParamClasses(helperClass, new ProcessorUtils.IGetter<Class<?>[]>() {
+        boolean validTables = true;
+        for (ClassName tableClassName : tableClassNames) {
+            validTables &= getIdClassName(tableClassName) != null;
+        }
+        if (!validTables) {
+            error(helperClass, "@%s tables must contain classes annotated with @%s with one id field annotated with @%s (can be inherited).",
+                    Helper.class.getSimpleName(), DatabaseTable.class.getSimpleName(), DatabaseField.class.getSimpleName());
+            return false;
+        }
+
+        // storage profile has to contain valid values
+        StorageModel storage = StorageModel.from(helperClass);
+        if (storage.hasPageSize()) {
+            int pageSize = storage.getPageSize();
+            if (pageSize < 512 || pageSize > 65536 || Integer.bitCount(pageSize) != 1) {
+                error(helperClass, "@%s pageSize must be power of two between 512 and 65536.", Storage.class.getSimpleName());
+                return false;
+            }
+            if (helperClass.getAnnotation(Helper.class).writeAheadLogging()) {
+                error(helperClass, "@%s pageSize cannot be combined with writeAheadLogging.", Storage.class.getSimpleName());
+                return false;
+            }
+        }
+        if (storage.getMmapSize() < Storage.UNDEFINED) {
+            error(helperClass, "@%s mmapSize must not be negative.", Storage.class.getSimpleName());
+            return false;
+        }
+        if (storage.hasCacheSize() && storage.getCacheSizeKb() <= 0) {
+            error(helperClass, "@%s cacheSizeKb must be positive.", Storage.class.getSimpleName());
+            return false;
+        }
+        // per-connection pragmas would apply only to primary connection, but WAL reads run on pooled connections
+        if ((storage.hasMmapSize() || storage.hasCacheSize() || storage.hasTempStore()) && helperClass.getAnnotation(Helper.class).writeAheadLogging()) {
+            error(helperClass, "@%s mmapSize, cacheSizeKb and tempStore cannot be combined with writeAheadLogging.", Storage.class.getSimpleName());
+            return false;
+        }
+
+        // query cache is invalidated by table changes
+        Helper helperAnnotation = helperClass.getAnnotation(Helper.class);
+        if (helperAnnotation.queryCacheBytes() < 0) {
+            error(helperClass, "@%s queryCacheBytes must not be negative.", Helper.class.getSimpleName());
+            return false;
+        }
+        if (helperAnnotation.queryCacheBytes() > 0 && !helperAnnotation.withChangeTracking()) {
+            error(helperClass, "@%s queryCacheBytes can be used only withChangeTracking.", Helper.class.getSimpleName());
+            return false;
+        }
+
+        // page key has to be one column of table
+        if (helperAnnotation.withKeysetPaging()) {
+            for (ClassName tableClassName : tableClassNames) {
+                List<VariableElement> pageKeys = getTableModel(tableClassName).getPageKeyElements();
+                for (VariableElement pageKey : pageKeys) {
+                    FieldModel field = FieldModel.from(pageKey);
+                    if (field == null || field.isForeignCollection()) {
+                        error(pageKey, "@%s must annotate field annotated with @%s.", PageKey.class.getSimpleName(), DatabaseField.class.getSimpleName());
+                        return false;
+                    }
+                    // seek compares values of the key, so rows with NULL would never be paged
+                    if (!field.has("canBeNull") || field.getBoolean("canBeNull")) {
+                        error(pageKey, "@%s must annotate field which cannot be null (canBeNull = false).", PageKey.class.getSimpleName());
+                        return false;
+                    }
+                }
+                if (pageKeys.size() > 1) {
+                    error(pageKeys.get(1), "@%s can be used only once in %s.", PageKey.class.getSimpleName(), tableClassName.simpleName());
+                    return false;
+                }
+            }
+        }
+
+        // write queue has to commit at least one write
+        if (helperAnnotation.withWriteQueue()) {
+            if (helperAnnotation.writeBatchSize() <= 0) {
+                error(helperClass, "@%s writeBatchSize must be positive.", Helper.class.getSimpleName());
+                return false;
+            }
+            if (helperAnnotation.writeLatencyMillis() < 0) {
+                error(helperClass, "@%s writeLatencyMillis must not be negative.", Helper.class.getSimpleName());
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns tables of helper projections by projection classes or {@code null} if some projection is not valid.
+     */
+    private Map<ClassName, ClassName> getProjections(TypeElement helperClass, List<ClassName> tableClassNames) {
+        List<ClassName> projectionClassNames = ProcessorUtils.getParamClasses(helperClass, new ProcessorUtils.IGetter<Class<?>[]>() {
             @Override
             public Class<?>[] get(Element element) {
-                return element.getAnnotation(Helper.class).tables();
+                return element.getAnnotation(Helper.class).projections();
             }
         });
-        if (!mIdClassNames.keySet().containsAll(tableClassNames)) {
-            error(helperClass, "@%s tables must contain classes annotated with @%s with one id field annotated with @%s (can be inherited).",
-                    Helper.class.getSimpleName(), DatabaseTable.class.getSimpleName(), DatabaseField.class.getSimpleName());
-            return false;
+
+        Map<ClassName, ClassName> projections = new LinkedHashMap<>();
+        for (ClassName projectionClassName : projectionClassNames) {
+            TypeElement projection = processingEnv.getElementUtils().getTypeElement(projectionClassName.toString());
+            if (projection == null || projection.getAnnotation(Projection.class) == null) {
+                error(helperClass, "@%s projections must contain classes annotated with @%s.", Helper.class.getSimpleName(), Projection.class.getSimpleName());
+                return null;
+            }
+            ClassName tableClassName = ProcessorUtils.getParamClass(projection, new ProcessorUtils.IGetter<Class<?>>() {
+                @Override
+                public Class<?> get(Element element) {
+                    return element.getAnnotation(Projection.class).table();
+                }
+            });
+            if (!tableClassNames.contains(tableClassName)) {
+                error(projection, "@%s table must be one of @%s tables.", Projection.class.getSimpleName(), Helper.class.getSimpleName());
+                return null;
+            }
+            String unsupportedReason = mProjectionGenerator.getUnsupportedReason(projection, getTableModel(tableClassName));
+            if (unsupportedReason != null) {
+                error(projection, "@%s %s cannot be mapped, because %s.", Projection.class.getSimpleName(), projectionClassName.simpleName(), unsupportedReason);
+                return null;
+            }
+            projections.put(projectionClassName, tableClassName);
+        }
+        return projections;
+    }
+
+    /**
+     * Returns cache policies of tables which cache their objects. Policies from helper override policies of table classes.
+     * Returns {@code null} if any policy is invalid.
+     */
+    private Map<ClassName, CacheModel> getCaches(TypeElement helperClass, List<ClassName> tableClassNames) {
+        Map<ClassName, CacheModel> caches = new HashMap<>();
+        for (ClassName tableClassName : tableClassNames) {
+            CacheModel cache = CacheModel.fromTable(getTableModel(tableClassName).getElement());
+            if (cache == null) {
+                continue;
+            }
+            if (cache.hasTable()) {
+                error(cache.getElement(), "@%s table can be specified only in @%s caches.", Cache.class.getSimpleName(), Helper.class.getSimpleName());
+                return null;
+            }
+            if (!checkCache(cache)) {
+                return null;
+            }
+            caches.put(tableClassName, cache);
+        }
+
+        Set<ClassName> helperCacheTables = new HashSet<>();
+        for (CacheModel cache : CacheModel.fromHelper(helperClass)) {
+            ClassName tableClassName = cache.getTable();
+            if (tableClassName == null || !tableClassNames.contains(tableClassName)) {
+                error(helperClass, "@%s caches must specify table which is one of @%s tables.", Helper.class.getSimpleName(), Helper.class.getSimpleName());
+                return null;
+            }
+            if (!helperCacheTables.add(tableClassName)) {
+                error(helperClass, "@%s caches contain %s more than once.", Helper.class.getSimpleName(), tableClassName.simpleName());
+                return null;
+            }
+            if (!checkCache(cache)) {
+                return null;
+            }
+            caches.put(tableClassName, cache);
+        }
+
+        // policy NONE only overrides policy of table class
+        Iterator<CacheModel> iterator = caches.values().iterator();
+        while (iterator.hasNext()) {
+            CacheModel cache = iterator.next();
+            if (!cache.isLru() && !cache.isWeak()) {
+                iterator.remove();
+            }
         }
+        return caches;
+    }
 
+    private boolean checkCache(CacheModel cache) {
+        if (cache.getMaxCount() < 0 || cache.getMaxBytes() < 0) {
+            error(cache.getElement(), "@%s maxCount and maxBytes must not be negative.", Cache.class.getSimpleName());
+            return false;
+        }
+        boolean bounded = cache.getMaxCount() > 0 || cache.getMaxBytes() > 0;
+        if (cache.isLru() && !bounded) {
+            error(cache.getElement(), "@%s with %s policy must specify maxCount or maxBytes.", Cache.class.getSimpleName(), Cache.Policy.LRU);
+            return false;
+        }
+        if (!cache.isLru() && bounded) {
+            error(cache.getElement(), "@%s maxCount and maxBytes can be used only with %s policy.", Cache.class.getSimpleName(), Cache.Policy.LRU);
+            return false;
+        }
         return true;
     }
 
@@ -278,27 +582,91 @@ public class HelperProcessor extends AbstractProcessor {
         return true;
     }
 
+    private boolean checkOnUpMethods(TypeElement helperClass, List<ExecutableElement> onUpgradeMethods) {
+        Helper helperAnnotation = helperClass.getAnnotation(Helper.class);
+        if (helperAnnotation.dropOnUpgrade() || onUpgradeMethods.isEmpty()) {
+            return true;
+        }
+
+        // upgrades have to form one chain which ends at helper version
+        Collections.sort(onUpgradeMethods, new OnUpMethodComparator());
+        ExecutableElement previous = null;
+        int previousTo = OnUpMethodComparator.FIRST_VERSION;
+        for (ExecutableElement onUpMethod : onUpgradeMethods) {
+            OnUpgrade onUp = onUpMethod.getAnnotation(OnUpgrade.class);
+            int from = OnUpMethodComparator.getFrom(onUp, previousTo);
+            if (from < OnUpMethodComparator.FIRST_VERSION) {
+                error(onUpMethod, "Method annotated with @%s cannot upgrade from version lower than %d.",
+                        OnUpgrade.class.getSimpleName(), OnUpMethodComparator.FIRST_VERSION);
+                return false;
+            }
+            if (from >= onUp.to()) {
+                error(onUpMethod, "Method annotated with @%s must upgrade to higher version than %d.",
+                        OnUpgrade.class.getSimpleName(), from);
+                return false;
+            }
+            if (onUp.to() > helperAnnotation.version()) {
+                error(onUpMethod, "Method annotated with @%s cannot upgrade to higher version than @%s version %d.",
+                        OnUpgrade.class.getSimpleName(), Helper.class.getSimpleName(), helperAnnotation.version());
+                return false;
+            }
+            if (previous != null && from < previousTo) {
+                error(onUpMethod, "Method annotated with @%s overlaps with upgrade %s (versions %d - %d).",
+                        OnUpgrade.class.getSimpleName(), previous.getSimpleName(), from, previousTo);
+                return false;
+            }
+            // chain starts at the first version, so every older database can be upgraded
+            if (from > previousTo) {
+                error(onUpMethod, "Upgrade from version %d to %d is missing before this method.", previousTo, from);
+                return false;
+            }
+            previous = onUpMethod;
+            previousTo = onUp.to();
+        }
+        if (previousTo != helperAnnotation.version()) {
+            error(helperClass, "Upgrade from version %d to @%s version %d is missing.", previousTo, Helper.class.getSimpleName(), helperAnnotation.version());
+            return false;
+        }
+
+        return true;
+    }
+
     private void generateHelper(final TypeElement helperClass, final HelperBucket helperBucket) {
         Helper helperAnnotation = helperClass.getAnnotation(Helper.class);
 
         final TypeSpec.Builder helper = TypeSpec.classBuilder(getHelperClassName(helperAnnotation.name()));
         helper.addModifiers(Modifier.PUBLIC, Modifier.FINAL);
         helper.superclass(EClass.OrmLiteSqliteOpenHelper.getName());
+        addOriginatingElements(helper, helperClass, helperBucket.tableClassNames);
 
         // add constructor
-        helper.addMethod(generateHelperConstructor(helperAnnotation, helperBucket.pathMethod));
+        helper.addMethod(generateHelperConstructor(helperAnnotation, helperBucket.pathMethod, helperBucket.tableClassNames));
         // add DAOs
-        List<ClassName> tableClassNames = ProcessorUtils.getParamClasses(helperClass, new ProcessorUtils.IGetter<Class<?>[]>() {
-            @Override
-            public Class<?>[] get(Element element) {
-                return helperClass.getAnnotation(Helper.class).tables();
-            }
-        });
+        helper.addField(generateDaoLockField());
+        helper.addField(generateMetricsField());
+        if (helperAnnotation.slowStatementLog()) {
+            helper.addField(generateSlowStatementLogField());
+        }
+        if (helperAnnotation.withChangeTracking()) {
+            helper.addField(generateTableChangesField());
+        }
+        if (helperAnnotation.queryCacheBytes() > 0) {
+            helper.addField(generateQueryCacheField(helperAnnotation));
+        }
+        if (helperAnnotation.withWriteQueue()) {
+            helper.addField(generateWriteQueueField());
+        }
+        List<ClassName> tableClassNames = helperBucket.tableClassNames;
         for (ClassName tableClassName : tableClassNames) {
-            helper.addField(generateDaoField(tableClassName));
+            helper.addField(generateDaoField(helperAnnotation, tableClassName));
         }
         // implement onCreate method
-        helper.addMethod(generateOnCreateMethod(helperClass, tableClassNames));
+        StorageModel storage = StorageModel.from(helperClass);
+        helper.addMethod(generateOnCreateMethod(helperClass, storage, tableClassNames, helperAnnotation.withDaoHolders()));
+        // implement onOpen method
+        if (helperAnnotation.writeAheadLogging() || storage.hasOpenPragmas()) {
+            helper.addMethod(generateOnOpenMethod(helperClass, helperAnnotation, storage));
+        }
         // implement onUpgrade method
         boolean dropOnUp = helperAnnotation.dropOnUpgrade();
         helper.addMethod(generateOnUpgradeMethod(helperClass, tableClassNames, helperBucket.onUpgradeMethods, dropOnUp));
@@ -307,12 +675,96 @@ public class HelperProcessor extends AbstractProcessor {
             helper.addMethod(generateDropMethod(helperClass, tableClassNames));
         }
         // implement clear method
-        helper.addMethod(generateClearMethod(helperClass, tableClassNames));
+        helper.addMethod(generateClearAllMethod());
+        helper.addMethod(generateClearAllWithVacuumMethod(tableClassNames));
+        helper.addMethod(generateClearMethod(helperClass, tableClassNames, helperBucket.caches));
+        helper.addMethod(generateGetTableNameMethod(tableClassNames));
         // implement close method
-        helper.addMethod(generateCloseMethod(tableClassNames));
+        helper.addMethod(generateCloseMethod(tableClassNames, helperAnnotation.withWriteQueue()));
+        // implement metrics setter
+        helper.addMethod(generateSetMetricsMethod(tableClassNames));
+        if (helperAnnotation.slowStatementLog()) {
+            helper.addMethod(generateGetSlowStatementLogMethod());
+        }
+        if (helperAnnotation.withChangeTracking()) {
+            helper.addMethod(generateGetTableChangesMethod());
+            helper.addMethod(generateObserveMethod());
+            helper.addMethod(generateCallInTransactionMethod());
+        }
+        if (helperAnnotation.queryCacheBytes() > 0) {
+            helper.addMethod(generateGetQueryCacheMethod());
+            helper.addMethod(generateQueryRawCachedMethod());
+            helper.addMethod(generateQueryRawValueCachedMethod());
+        }
+        if (helperAnnotation.withWriteQueue()) {
+            helper.addMethod(generateGetWriteQueueMethod());
+            helper.addMethod(generateWriteAsyncMethod());
+        }
         // implement getters
         for (ClassName tableClassName : tableClassNames) {
-            helper.addMethod(generateDaoGetter(tableClassName));
+            helper.addMethod(generateDaoGetter(helperAnnotation, tableClassName, helperBucket.caches.get(tableClassName)));
+        }
+        // add DAO holders
+        if (helperAnnotation.withDaoHolders()) {
+            for (ClassName tableClassName : tableClassNames) {
+                helper.addType(generateDaoHolder(helperAnnotation, tableClassName, helperBucket.caches.get(tableClassName)));
+            }
+        }
+        // implement asynchronous open
+        helper.addMethod(generateWarmUpMethod(tableClassNames));
+        helper.addMethod(generateOpenAsyncMethod());
+        // implement batch inserts
+        for (ClassName tableClassName : tableClassNames) {
+            boolean cached = helperBucket.caches.containsKey(tableClassName);
+            helper.addMethod(generateInsertAllMethod(tableClassName, false, cached, helperAnnotation.withChangeTracking()));
+            helper.addMethod(generateInsertAllMethod(tableClassName, true, cached, helperAnnotation.withChangeTracking()));
+        }
+        // implement chunked queries
+        if (helperAnnotation.withChunkedQueries()) {
+            for (ClassName tableClassName : tableClassNames) {
+                if (getTableModel(tableClassName).getIdField() == null) {
+                    note(getTableModel(tableClassName).getElement(), "Chunked queries were not generated for %s, because its id field was not found.",
+                            tableClassName.simpleName());
+                    continue;
+                }
+                helper.addMethod(generateStreamMethod(tableClassName));
+                helper.addMethod(generateForEachChunkMethod(tableClassName));
+            }
+        }
+        // implement keyset pagination
+        if (helperAnnotation.withKeysetPaging()) {
+            for (ClassName tableClassName : tableClassNames) {
+                if (getTableModel(tableClassName).getIdField() == null) {
+                    note(getTableModel(tableClassName).getElement(), "Keyset pagination was not generated for %s, because its id field was not found.",
+                            tableClassName.simpleName());
+                    continue;
+                }
+                helper.addMethod(generateCreatePagerMethod(tableClassName));
+                helper.addMethod(generatePageMethod(tableClassName, "pageAfter"));
+                helper.addMethod(generatePageMethod(tableClassName, "pageBefore"));
+            }
+        }
+        // implement projection queries
+        for (Map.Entry<ClassName, ClassName> projection : helperBucket.projections.entrySet()) {
+            helper.addMethod(generateQueryProjectionMethod(projection.getKey(), projection.getValue()));
+            helper.addMethod(generateQueryAllProjectionMethod(projection.getKey(), projection.getValue()));
+        }
+        // implement cursor views
+        if (helperAnnotation.withCursorViews()) {
+            for (ClassName tableClassName : tableClassNames) {
+                if (mViewTables.contains(tableClassName)) {
+                    helper.addMethod(generateQueryViewMethod(tableClassName));
+                }
+            }
+        }
+        // implement asynchronous writes
+        if (helperAnnotation.withWriteQueue()) {
+            for (ClassName tableClassName : tableClassNames) {
+                helper.addMethod(generateAsyncWriteMethod(tableClassName, "createAsync", "create($N)"));
+                helper.addMethod(generateAsyncWriteMethod(tableClassName, "updateAsync", "update($N)"));
+                helper.addMethod(generateAsyncWriteMethod(tableClassName, "deleteAsync", "delete($N)"));
+                helper.addMethod(generateAsyncWriteMethod(tableClassName, "upsertAsync", "createOrUpdate($N).getNumLinesChanged()"));
+            }
         }
 
         // create file
@@ -322,14 +774,22 @@ public class HelperProcessor extends AbstractProcessor {
                 .build();
         try {
             javaFile.writeTo(mFiler);
-            javaFile.writeTo(System.out);
-            System.out.println(String.format("%s successfully generated for %s.", getHelperClassName(helperAnnotation.name()), helperClass.getSimpleName()));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private MethodSpec generateHelperConstructor(Helper helperAnnotation, ExecutableElement pathMethod) {
+    /**
+     * Adds helper class and its tables as originating elements, so incremental build knows which sources generated file depends on.
+     */
+    private void addOriginatingElements(TypeSpec.Builder type, TypeElement helperClass, List<ClassName> tableClassNames) {
+        type.addOriginatingElement(helperClass);
+        for (ClassName tableClassName : tableClassNames) {
+            type.addOriginatingElement(getTableModel(tableClassName).getElement());
+        }
+    }
+
+    private MethodSpec generateHelperConstructor(Helper helperAnnotation, ExecutableElement pathMethod, List<ClassName> tableClassNames) {
 
         MethodSpec.Builder method = MethodSpec.constructorBuilder();
         method.addModifiers(Modifier.PUBLIC);
@@ -346,143 +806,899 @@ public class HelperProcessor extends AbstractProcessor {
         method.addCode(", null");
         // add db version
         method.addCode(", $L", helperAnnotation.version());
-        // add config file
+        method.addCode(");\n");
+        // add table configs
         if (helperAnnotation.withConfigUtil()) {
-            method.addCode(", $N.$N()", getConfigUtilClassName(helperAnnotation.name()), GET_DB_CONFIG_FILE_METHOD_NAME);
+            method.addStatement("$T.addCachedDatabaseConfigs($N.$N())", EClass.DaoManager.getName(),
+                    getConfigUtilClassName(helperAnnotation.name()), GET_TABLE_CONFIGS_METHOD_NAME);
+        }
+        // measure statements of all DAOs
+        if (helperAnnotation.slowStatementLog()) {
+            method.addStatement("connectionSource = new $T(this, $N)", EClass.TimedConnectionSource.getName(), SLOW_STATEMENT_LOG_NAME);
+        }
+        // enable WAL before database is opened
+        if (helperAnnotation.writeAheadLogging()) {
+            method.beginControlFlow("if ($T.VERSION.SDK_INT >= $T.VERSION_CODES.JELLY_BEAN)", EClass.Build.getName(), EClass.Build.getName());
+            method.addStatement("setWriteAheadLoggingEnabled(true)");
+            method.endControlFlow();
+        }
+        // query cache finds tables by their names in SQL
+        if (helperAnnotation.queryCacheBytes() > 0) {
+            for (ClassName tableClassName : tableClassNames) {
+                method.addStatement("$N.addTable($S, $T.class)", QUERY_CACHE_NAME, getTableModel(tableClassName).getTableName(), tableClassName);
+            }
+        }
+        // write queue uses connection source of this helper
+        if (helperAnnotation.withWriteQueue()) {
+            method.addStatement("$N = new $T(getConnectionSource(), $L, $LL, $N)", WRITE_QUEUE_NAME, EClass.WriteQueue.getName(),
+                    helperAnnotation.writeBatchSize(), helperAnnotation.writeLatencyMillis(),
+                    helperAnnotation.withChangeTracking() ? TABLE_CHANGES_NAME : "null");
         }
-        method.addCode(");\n");
 
         return method.build();
     }
 
-    private FieldSpec generateDaoField(ClassName tableClassName) {
-        return FieldSpec.builder(getDaoType(tableClassName), getDaoName(tableClassName))
-                .addModifiers(Modifier.PRIVATE)
-                .build();
-    }
-
-    private MethodSpec generateOnCreateMethod(TypeElement helperClass, List<ClassName> tableClassNames) {
-        MethodSpec.Builder method = MethodSpec.methodBuilder("onCreate");
+    private MethodSpec generateOnOpenMethod(TypeElement helperClass, Helper helperAnnotation, StorageModel storage) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder("onOpen");
         method.addAnnotation(Override.class);
         method.addModifiers(Modifier.PUBLIC);
         method.addParameter(EClass.SQLiteDatabase.getName(), "database");
-        method.addParameter(EClass.ConnectionSource.getName(), "connectionSource");
 
-        method.addStatement("$T.i($T.class.getName(), $S)", EClass.Log.getName(), helperClass, "onCreate");
-        method.beginControlFlow("try");
-        for (ClassName tableClassName : tableClassNames) {
-            method.addStatement("$T.createTable(connectionSource, $T.class)", EClass.TableUtils.getName(), tableClassName);
+        method.addStatement("super.onOpen(database)");
+        if (storage.hasPageSize() || storage.hasAutoVacuum()) {
+            // android_metadata table already exists, so file is rebuilt by VACUUM, which cannot run in transaction of onCreate
+            method.beginControlFlow("if (!database.isReadOnly())");
+            method.beginControlFlow("try");
+            if (storage.hasPageSize()) {
+                method.addStatement("$T.apply(new $T(database, true), $L, $T.AutoVacuum.$L)", EClass.StorageFile.getName(),
+                        EClass.AndroidDatabaseConnection.getName(), storage.getPageSize(), Storage.class, storage.getAutoVacuum());
+            } else {
+                method.addStatement("$T.apply(new $T(database, true), $T.UNDEFINED, $T.AutoVacuum.$L)", EClass.StorageFile.getName(),
+                        EClass.AndroidDatabaseConnection.getName(), Storage.class, Storage.class, storage.getAutoVacuum());
+            }
+            method.endControlFlow();
+            method.beginControlFlow("catch ($T e)", ClassName.get(SQLException.class));
+            method.addStatement("$T.e($T.class.getName(), $S, e)", EClass.Log.getName(), helperClass, "Can't apply storage profile.");
+            method.addStatement("throw new $N(e)", RuntimeException.class.getSimpleName());
+            method.endControlFlow();
+            method.endControlFlow();
+        }
+        if (helperAnnotation.writeAheadLogging()) {
+            // older versions cannot enable WAL before database is opened
+            method.beginControlFlow("if ($T.VERSION.SDK_INT < $T.VERSION_CODES.JELLY_BEAN && !database.isReadOnly())", EClass.Build.getName(), EClass.Build.getName());
+            method.addStatement("database.enableWriteAheadLogging()");
+            method.endControlFlow();
+        }
+        // apply storage profile
+        if (storage.hasMmapSize()) {
+            // this pragma returns new value, so it has to be run as query
+            method.addStatement("$T cursor = database.rawQuery($S, null)", EClass.Cursor.getName(), "PRAGMA mmap_size = " + storage.getMmapSize());
+            method.beginControlFlow("try");
+            method.addStatement("cursor.getCount()");
+            method.endControlFlow();
+            method.beginControlFlow("finally");
+            method.addStatement("cursor.close()");
+            method.endControlFlow();
+        }
+        if (storage.hasCacheSize()) {
+            // negative value is size in KiB
+            method.addStatement("database.execSQL($S)", "PRAGMA cache_size = -" + storage.getCacheSizeKb());
+        }
+        if (storage.hasSynchronous()) {
+            method.addStatement("database.execSQL($S)", "PRAGMA synchronous = " + storage.getSynchronous());
+        }
+        if (storage.hasTempStore()) {
+            method.addStatement("database.execSQL($S)", "PRAGMA temp_store = " + storage.getTempStore());
         }
-        method.endControlFlow();
-
-        method.beginControlFlow("catch ($T e)", ClassName.get(SQLException.class));
-        method.addStatement("$T.e($T.class.getName(), $S, e)", EClass.Log.getName(), helperClass, "Can't create database tables.");
-        method.addStatement("throw new $N(e)", RuntimeException.class.getSimpleName());
-        method.endControlFlow();
 
         return method.build();
     }
 
-    private MethodSpec generateClearMethod(TypeElement helperClass, List<ClassName> tableClassNames) {
-        MethodSpec.Builder method = MethodSpec.methodBuilder("clearTables");
-        method.addModifiers(Modifier.PUBLIC);
-
-        method.addStatement("$T.i($T.class.getName(), $S)", EClass.Log.getName(), helperClass, "clearTables");
-        method.beginControlFlow("try");
-        method.addStatement("connectionSource.getReadWriteConnection()");
-        for (ClassName tableClassName : tableClassNames) {
-            method.addStatement("$T.clearTable(connectionSource, $T.class)", EClass.TableUtils.getName(), tableClassName);
-        }
-        method.endControlFlow();
+    private FieldSpec generateDaoLockField() {
+        return FieldSpec.builder(Object.class, DAO_LOCK_NAME, Modifier.PRIVATE, Modifier.FINAL)
+                .initializer("new $T()", Object.class)
+                .build();
+    }
 
-        method.beginControlFlow("catch ($T e)", ClassName.get(SQLException.class));
-        method.addStatement("$T.e($T.class.getName(), $S, e)", EClass.Log.getName(), helperClass, "Can't clear database tables.");
-        method.endControlFlow();
+    private FieldSpec generateMetricsField() {
+        return FieldSpec.builder(EClass.HelperMetrics.getName(), METRICS_NAME, Modifier.PRIVATE, Modifier.VOLATILE)
+                .initializer("$T.NONE", EClass.HelperMetrics.getName())
+                .build();
+    }
 
-        return method.build();
+    private FieldSpec generateSlowStatementLogField() {
+        return FieldSpec.builder(EClass.SlowStatementLog.getName(), SLOW_STATEMENT_LOG_NAME, Modifier.PRIVATE, Modifier.FINAL)
+                .initializer("new $T()", EClass.SlowStatementLog.getName())
+                .build();
     }
 
-    private MethodSpec generateDropMethod(TypeElement helperClass, List<ClassName> tableClassNames) {
-        MethodSpec.Builder method = MethodSpec.methodBuilder("dropTables");
-        method.addModifiers(Modifier.PRIVATE);
-        method.addParameter(EClass.SQLiteDatabase.getName(), "database");
-        method.addParameter(EClass.ConnectionSource.getName(), "connectionSource");
+    private MethodSpec generateGetSlowStatementLogMethod() {
+        return MethodSpec.methodBuilder("getSlowStatementLog")
+                .addJavadoc("Returns log of statements which were slower than its threshold.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(EClass.SlowStatementLog.getName())
+                .addStatement("return $N", SLOW_STATEMENT_LOG_NAME)
+                .build();
+    }
 
-        method.addStatement("$T.i($T.class.getName(), $S)", EClass.Log.getName(), helperClass, "dropTables");
-        method.beginControlFlow("try");
-        for (ClassName tableClassName : tableClassNames) {
-            method.addStatement("$T.dropTable(connectionSource, $T.class, true)", EClass.TableUtils.getName(), tableClassName);
-        }
-        method.endControlFlow();
+    private FieldSpec generateTableChangesField() {
+        return FieldSpec.builder(EClass.TableChanges.getName(), TABLE_CHANGES_NAME, Modifier.PRIVATE, Modifier.FINAL)
+                .initializer("new $T($T.THREAD_POOL_EXECUTOR)", EClass.TableChanges.getName(), EClass.AsyncTask.getName())
+                .build();
+    }
 
-        method.beginControlFlow("catch ($T e)", ClassName.get(SQLException.class));
-        method.addStatement("$T.e($T.class.getName(), $S, e)", EClass.Log.getName(), helperClass, "Can't drop database tables.");
-        method.endControlFlow();
+    private MethodSpec generateGetTableChangesMethod() {
+        return MethodSpec.methodBuilder("getTableChanges")
+                .addJavadoc("Returns tracker of table changes made through this helper and its DAOs.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(EClass.TableChanges.getName())
+                .addStatement("return $N", TABLE_CHANGES_NAME)
+                .build();
+    }
 
-        return method.build();
+    private MethodSpec generateObserveMethod() {
+        TypeVariableName r = TypeVariableName.get("R");
+        return MethodSpec.methodBuilder("observe")
+                .addJavadoc("Runs given query now and whenever any of given tables changes. Observer is called on background thread.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .addTypeVariable(r)
+                .returns(ParameterizedTypeName.get(EClass.TableChanges.getName().nestedClass("Observation"), r))
+                .addParameter(ParameterizedTypeName.get(EClass.TableChanges.getName().nestedClass("Query"), r), "query")
+                .addParameter(ParameterizedTypeName.get(EClass.TableChanges.getName().nestedClass("Observer"), r), "observer")
+                .addParameter(ArrayTypeName.of(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class))), "tables")
+                .varargs()
+                .addStatement("return $N.observe(query, observer, tables)", TABLE_CHANGES_NAME)
+                .build();
     }
 
-    private MethodSpec generateOnUpgradeMethod(TypeElement helperClass, List<ClassName> tableClassNames, List<ExecutableElement> onUpgradeMethods, boolean clearOnUpgrade) {
-        MethodSpec.Builder method = MethodSpec.methodBuilder("onUpgrade");
-        method.addAnnotation(Override.class);
+    private MethodSpec generateCallInTransactionMethod() {
+        TypeVariableName r = TypeVariableName.get("R");
+        MethodSpec.Builder method = MethodSpec.methodBuilder("callInTransaction");
+        method.addJavadoc("Calls given callable in transaction. Observers are notified about its changes after transaction is committed.\n");
         method.addModifiers(Modifier.PUBLIC);
-        method.addParameter(EClass.SQLiteDatabase.getName(), "database");
-        method.addParameter(EClass.ConnectionSource.getName(), "connectionSource");
-        method.addParameter(int.class, "oldVersion");
-        method.addParameter(int.class, "newVersion");
+        method.addTypeVariable(r);
+        method.returns(r);
+        method.addParameter(ParameterizedTypeName.get(ClassName.get(Callable.class), r), "callable");
+        method.addException(ClassName.get(SQLException.class));
 
-        if (clearOnUpgrade) {
-            method.addStatement("dropTables(database, connectionSource)");
-            method.addStatement("onCreate(database, connectionSource)");
-        } else {
-            method.addStatement("$T upgradeHelper = new $T()", helperClass, helperClass);
-            method.addStatement("int version = oldVersion");
+        addBeginBatchStatements(method);
+        method.addStatement("$T result = $T.callInTransaction(getConnectionSource(), callable)", r, EClass.TransactionManager.getName());
+        method.addStatement("committed = true");
+        method.addStatement("return result");
+        addEndBatchStatements(method);
 
-            // use onUpgradeMethods
-            Collections.sort(onUpgradeMethods, new OnUpMethodComparator());
-            OnUpgrade onUp;
-            ExecutableElement onUpMethod;
-            for (int i = 0; i < onUpgradeMethods.size(); i++) {
-                onUpMethod = onUpgradeMethods.get(i);
-                onUp = onUpMethod.getAnnotation(OnUpgrade.class);
-                if (onUp.from() == OnUpgrade.UNDEFINED) {
-                    method.beginControlFlow("if (version <= $L)", onUp.to());
-                } else {
-                    method.beginControlFlow("if (version == $L)", onUp.from());
+        return method.build();
+    }
+
+    /**
+     * Adds statements which start batch of table changes and open {@code try} block. Code inside the block has to set
+     * {@code committed} variable after its transaction is committed, so changes of rolled back transaction are discarded.
+     */
+    private static void addBeginBatchStatements(MethodSpec.Builder method) {
+        method.addStatement("boolean committed = false");
+        method.addStatement("$N.beginBatch()", TABLE_CHANGES_NAME);
+        method.beginControlFlow("try");
+    }
+
+    /**
+     * Adds statements which close block opened by {@link #addBeginBatchStatements(MethodSpec.Builder)} and end the batch.
+     */
+    private static void addEndBatchStatements(MethodSpec.Builder method) {
+        method.endControlFlow();
+        method.beginControlFlow("finally");
+        method.addStatement("$N.endBatch(committed)", TABLE_CHANGES_NAME);
+        method.endControlFlow();
+    }
+
+    private FieldSpec generateQueryCacheField(Helper helperAnnotation) {
+        return FieldSpec.builder(EClass.QueryCache.getName(), QUERY_CACHE_NAME, Modifier.PRIVATE, Modifier.FINAL)
+                .initializer("new $T($N, $LL)", EClass.QueryCache.getName(), TABLE_CHANGES_NAME, helperAnnotation.queryCacheBytes())
+                .build();
+    }
+
+    private MethodSpec generateGetQueryCacheMethod() {
+        return MethodSpec.methodBuilder("getQueryCache")
+                .addJavadoc("Returns cache of raw query results.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(EClass.QueryCache.getName())
+                .addStatement("return $N", QUERY_CACHE_NAME)
+                .build();
+    }
+
+    private MethodSpec generateQueryRawCachedMethod() {
+        return MethodSpec.methodBuilder("queryRawCached")
+                .addJavadoc("Returns rows of given query. Result is cached until any table which the query reads changes.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(ClassName.get(List.class), ArrayTypeName.of(String.class)))
+                .addParameter(String.class, "sql")
+                .addParameter(ArrayTypeName.of(String.class), "args")
+                .varargs()
+                .addException(ClassName.get(SQLException.class))
+                .addStatement("return $N.queryRaw(getConnectionSource(), sql, args)", QUERY_CACHE_NAME)
+                .build();
+    }
+
+    private MethodSpec generateQueryRawValueCachedMethod() {
+        return MethodSpec.methodBuilder("queryRawValueCached")
+                .addJavadoc("Returns value of given aggregate query. Result is cached until any table which the query reads changes.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(long.class)
+                .addParameter(String.class, "sql")
+                .addParameter(ArrayTypeName.of(String.class), "args")
+                .varargs()
+                .addException(ClassName.get(SQLException.class))
+                .addStatement("return $N.queryRawValue(getConnectionSource(), sql, args)", QUERY_CACHE_NAME)
+                .build();
+    }
+
+    private MethodSpec generateStreamMethod(ClassName tableClassName) {
+        ClassName idClassName = getIdClassName(tableClassName);
+        TypeName chunkedQuery = ParameterizedTypeName.get(EClass.ChunkedQuery.getName(), tableClassName, idClassName);
+        String idColumnName = getTableModel(tableClassName).getIdField().getColumnName();
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder("stream" + tableClassName.simpleName());
+        method.addJavadoc("Returns rows matching given where clause ({@code null} for all rows) loaded in windows of given size ordered by id.\n");
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(chunkedQuery);
+        method.addParameter(ParameterizedTypeName.get(EClass.Where.getName(), tableClassName, idClassName), "where");
+        method.addParameter(int.class, "chunkSize");
+        method.addException(ClassName.get(SQLException.class));
+        method.addStatement("return new $T($N(), $S, where, chunkSize)", chunkedQuery, getDaoGetterName(tableClassName), idColumnName);
+
+        return method.build();
+    }
+
+    private MethodSpec generateForEachChunkMethod(ClassName tableClassName) {
+        ClassName idClassName = getIdClassName(tableClassName);
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder("forEachChunk" + tableClassName.simpleName());
+        method.addJavadoc("Passes rows matching given where clause ({@code null} for all rows) to given callback in windows of given size and returns number of rows.\n");
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(int.class);
+        method.addParameter(ParameterizedTypeName.get(EClass.Where.getName(), tableClassName, idClassName), "where");
+        method.addParameter(int.class, "chunkSize");
+        method.addParameter(ParameterizedTypeName.get(EClass.ChunkedQuery.getName().nestedClass("Callback"), tableClassName), "callback");
+        method.addException(ClassName.get(SQLException.class));
+        method.addStatement("return $N(where, chunkSize).forEachChunk(callback)", "stream" + tableClassName.simpleName());
+
+        return method.build();
+    }
+
+    private MethodSpec generateCreatePagerMethod(ClassName tableClassName) {
+        TableModel table = getTableModel(tableClassName);
+        TypeName pager = ParameterizedTypeName.get(EClass.KeysetPager.getName(), tableClassName, getIdClassName(tableClassName));
+        FieldModel pageKey = table.getPageKeyField();
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder(getCreatePagerName(tableClassName));
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(pager);
+        method.addException(ClassName.get(SQLException.class));
+        if (pageKey != null) {
+            method.addJavadoc("Returns pager which orders rows by $L and then by id.\n", pageKey.getColumnName());
+            method.addStatement("return new $T($N(), $S, $S, $S, $L)", pager, getDaoGetterName(tableClassName), table.getTableName(),
+                    table.getIdField().getColumnName(), pageKey.getColumnName(), pageKey.getElement().getAnnotation(PageKey.class).ascending());
+        } else {
+            method.addJavadoc("Returns pager which orders rows by id.\n");
+            method.addStatement("return new $T($N(), $S)", pager, getDaoGetterName(tableClassName), table.getIdField().getColumnName());
+        }
+
+        return method.build();
+    }
+
+    private static String getCreatePagerName(ClassName tableClassName) {
+        return "create" + tableClassName.simpleName() + "Pager";
+    }
+
+    private MethodSpec generatePageMethod(ClassName tableClassName, String name) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder(name + tableClassName.simpleName());
+        if (name.equals("pageAfter")) {
+            method.addJavadoc("Returns page of rows which follow row with given id ({@code null} for the first page).\n");
+        } else {
+            method.addJavadoc("Returns page of rows which precede row with given id.\n");
+        }
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(ParameterizedTypeName.get(ClassName.get(List.class), tableClassName));
+        method.addParameter(getIdClassName(tableClassName), "id");
+        method.addParameter(int.class, "limit");
+        method.addException(ClassName.get(SQLException.class));
+        method.addStatement("return $N().$N(id, limit)", getCreatePagerName(tableClassName), name);
+
+        return method.build();
+    }
+
+    private MethodSpec generateQueryProjectionMethod(ClassName projectionClassName, ClassName tableClassName) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder("query" + projectionClassName.simpleName());
+        method.addJavadoc("Returns rows of given query with only columns of {@link $T}. Columns are selected by this method.\n", projectionClassName);
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(ParameterizedTypeName.get(ClassName.get(List.class), projectionClassName));
+        method.addParameter(ParameterizedTypeName.get(EClass.QueryBuilder.getName(), tableClassName, getIdClassName(tableClassName)), "query");
+        method.addException(ClassName.get(SQLException.class));
+        method.addStatement("return $T.query($N(), query, new $T())", EClass.Projections.getName(), getDaoGetterName(tableClassName),
+                ProjectionGenerator.getMapperClassName(projectionClassName));
+
+        return method.build();
+    }
+
+    private MethodSpec generateQueryAllProjectionMethod(ClassName projectionClassName, ClassName tableClassName) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder("query" + projectionClassName.simpleName());
+        method.addJavadoc("Returns all rows with only columns of {@link $T}.\n", projectionClassName);
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(ParameterizedTypeName.get(ClassName.get(List.class), projectionClassName));
+        method.addException(ClassName.get(SQLException.class));
+        method.addStatement("return $N($N().queryBuilder())", "query" + projectionClassName.simpleName(), getDaoGetterName(tableClassName));
+
+        return method.build();
+    }
+
+    private MethodSpec generateQueryViewMethod(ClassName tableClassName) {
+        ClassName viewClassName = ViewGenerator.getViewClassName(tableClassName);
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder("query" + viewClassName.simpleName());
+        method.addJavadoc("Returns view of rows matching given selection ({@code null} for all rows) in given order ({@code null} for default order).\n");
+        method.addJavadoc("View has to be closed when it is not used anymore.\n");
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(viewClassName);
+        method.addParameter(String.class, "selection");
+        method.addParameter(String[].class, "selectionArgs");
+        method.addParameter(String.class, "orderBy");
+        method.addStatement("$T cursor = getReadableDatabase().query($S, $T.COLUMNS, selection, selectionArgs, null, null, orderBy)",
+                EClass.Cursor.getName(), "`" + getTableModel(tableClassName).getTableName() + "`", viewClassName);
+        method.addStatement("return new $T(cursor)", viewClassName);
+
+        return method.build();
+    }
+
+    private FieldSpec generateWriteQueueField() {
+        return FieldSpec.builder(EClass.WriteQueue.getName(), WRITE_QUEUE_NAME, Modifier.PRIVATE, Modifier.FINAL)
+                .build();
+    }
+
+    private MethodSpec generateGetWriteQueueMethod() {
+        return MethodSpec.methodBuilder("getWriteQueue")
+                .addJavadoc("Returns queue which runs asynchronous writes of this helper.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(EClass.WriteQueue.getName())
+                .addStatement("return $N", WRITE_QUEUE_NAME)
+                .build();
+    }
+
+    private MethodSpec generateWriteAsyncMethod() {
+        TypeVariableName r = TypeVariableName.get("R");
+        return MethodSpec.methodBuilder("writeAsync")
+                .addJavadoc("Queues given write. It is committed together with other queued writes in one transaction.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .addTypeVariable(r)
+                .returns(ParameterizedTypeName.get(ClassName.get(Future.class), r))
+                .addParameter(ParameterizedTypeName.get(ClassName.get(Callable.class), r), "write")
+                .addStatement("return $N.submit(write)", WRITE_QUEUE_NAME)
+                .build();
+    }
+
+    private MethodSpec generateAsyncWriteMethod(ClassName tableClassName, String name, String daoCall) {
+        TypeName integerCallable = ParameterizedTypeName.get(ClassName.get(Callable.class), ClassName.get(Integer.class));
+
+        MethodSpec.Builder call = MethodSpec.methodBuilder("call");
+        call.addAnnotation(Override.class);
+        call.addModifiers(Modifier.PUBLIC);
+        call.returns(Integer.class);
+        call.addException(Exception.class);
+        call.addStatement("return $N()." + daoCall, getDaoGetterName(tableClassName), "data");
+
+        TypeSpec callable = TypeSpec.anonymousClassBuilder("")
+                .addSuperinterface(integerCallable)
+                .addMethod(call.build())
+                .build();
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder(name);
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(ParameterizedTypeName.get(ClassName.get(Future.class), ClassName.get(Integer.class)));
+        method.addParameter(tableClassName, "data", Modifier.FINAL);
+        method.addStatement("return $N.submit($L)", WRITE_QUEUE_NAME, callable);
+
+        return method.build();
+    }
+
+    private FieldSpec generateDaoField(Helper helperAnnotation, ClassName tableClassName) {
+        return FieldSpec.builder(getDaoType(helperAnnotation, tableClassName), getDaoName(tableClassName))
+                .addModifiers(Modifier.PRIVATE, Modifier.VOLATILE)
+                .build();
+    }
+
+    private MethodSpec generateOnCreateMethod(TypeElement helperClass, StorageModel storage, List<ClassName> tableClassNames, boolean withDaoHolders) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder("onCreate");
+        method.addAnnotation(Override.class);
+        method.addModifiers(Modifier.PUBLIC);
+        method.addParameter(EClass.SQLiteDatabase.getName(), "database");
+        method.addParameter(EClass.ConnectionSource.getName(), "connectionSource");
+
+        method.addStatement("$T.i($T.class.getName(), $S)", EClass.Log.getName(), helperClass, "onCreate");
+        addStartTimingStatements(method, true);
+        // all tables are created in one transaction
+        method.addStatement("database.beginTransaction()");
+        method.beginControlFlow("try");
+        boolean usesTableUtils = false;
+        for (ClassName tableClassName : tableClassNames) {
+            if (withDaoHolders) {
+                method.addStatement("$N.$N(database, connectionSource)", getDaoHolderName(tableClassName), CREATE_TABLE_METHOD_NAME);
+                usesTableUtils |= mSchemaGenerator.getUnsupportedReason(getTableModel(tableClassName)) != null;
+            } else {
+                usesTableUtils |= addCreateTableStatements(method, tableClassName);
+            }
+        }
+        method.addStatement("database.setTransactionSuccessful()");
+        method.endControlFlow();
+
+        if (usesTableUtils) {
+            method.beginControlFlow("catch ($T e)", ClassName.get(SQLException.class));
+            method.addStatement("$T.e($T.class.getName(), $S, e)", EClass.Log.getName(), helperClass, "Can't create database tables.");
+            method.addStatement("throw new $N(e)", RuntimeException.class.getSimpleName());
+            method.endControlFlow();
+        }
+        method.beginControlFlow("finally");
+        method.addStatement("database.endTransaction()");
+        method.endControlFlow();
+        addReportTimingStatement(method, "metrics.onCreate($T.nanoTime() - start)", System.class);
+
+        return method.build();
+    }
+
+    private MethodSpec generateClearAllMethod() {
+        return MethodSpec.methodBuilder(CLEAR_TABLES_METHOD_NAME)
+                .addModifiers(Modifier.PUBLIC)
+                .addStatement("$N($T.NONE)", CLEAR_TABLES_METHOD_NAME, EClass.Vacuum.getName())
+                .build();
+    }
+
+    private MethodSpec generateClearAllWithVacuumMethod(List<ClassName> tableClassNames) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder(CLEAR_TABLES_METHOD_NAME);
+        method.addModifiers(Modifier.PUBLIC);
+        method.addParameter(EClass.Vacuum.getName(), "vacuum");
+
+        String format = "$N(vacuum";
+        Object[] args = new Object[tableClassNames.size() + 1];
+        args[0] = CLEAR_TABLES_METHOD_NAME;
+        for (int i = 0; i < tableClassNames.size(); i++) {
+            format += ", $T.class";
+            args[i + 1] = tableClassNames.get(i);
+        }
+        method.addStatement(format + ")", args);
+
+        return method.build();
+    }
+
+    private MethodSpec generateClearMethod(TypeElement helperClass, List<ClassName> tableClassNames, Map<ClassName, CacheModel> caches) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder(CLEAR_TABLES_METHOD_NAME);
+        method.addModifiers(Modifier.PUBLIC);
+        method.addParameter(EClass.Vacuum.getName(), "vacuum");
+        method.addParameter(ArrayTypeName.of(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class))), "tables");
+        method.varargs();
+
+        method.addStatement("$T.i($T.class.getName(), $S)", EClass.Log.getName(), helperClass, "clearTables");
+        addStartTimingStatements(method, true);
+        method.addStatement("$T database = getWritableDatabase()", EClass.SQLiteDatabase.getName());
+        boolean tracked = helperClass.getAnnotation(Helper.class).withChangeTracking();
+        if (tracked) {
+            addBeginBatchStatements(method);
+        }
+        // all tables are cleared in one transaction
+        method.addStatement("database.beginTransaction()");
+        method.beginControlFlow("try");
+        method.beginControlFlow("for ($T table : tables)", ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)));
+        method.addStatement("database.execSQL($S + $N(table) + $S)", "DELETE FROM `", GET_TABLE_NAME_METHOD_NAME, "`");
+        if (tracked) {
+            method.addStatement("$N.onChanged(table)", TABLE_CHANGES_NAME);
+        }
+        method.endControlFlow();
+        method.addStatement("database.setTransactionSuccessful()");
+        method.endControlFlow();
+        method.beginControlFlow("finally");
+        method.addStatement("database.endTransaction()");
+        method.endControlFlow();
+        if (tracked) {
+            method.addStatement("committed = true");
+            addEndBatchStatements(method);
+        }
+        // deleted objects must not be returned from cache
+        for (ClassName tableClassName : tableClassNames) {
+            if (caches.containsKey(tableClassName)) {
+                addClearObjectCacheStatement(method, tableClassName);
+            }
+        }
+
+        // vacuum cannot run inside transaction
+        method.beginControlFlow("if (vacuum == $T.FULL)", EClass.Vacuum.getName());
+        method.addStatement("database.execSQL($S)", "VACUUM");
+        method.endControlFlow();
+        method.beginControlFlow("else if (vacuum == $T.INCREMENTAL)", EClass.Vacuum.getName());
+        method.addStatement("$T cursor = database.rawQuery($S, null)", EClass.Cursor.getName(), "PRAGMA incremental_vacuum");
+        method.beginControlFlow("try");
+        // pragma is executed when cursor counts its rows
+        method.addStatement("cursor.getCount()");
+        method.endControlFlow();
+        method.beginControlFlow("finally");
+        method.addStatement("cursor.close()");
+        method.endControlFlow();
+        method.endControlFlow();
+        addReportTimingStatement(method, "metrics.onClearTables($T.nanoTime() - start)", System.class);
+
+        return method.build();
+    }
+
+    private MethodSpec generateGetTableNameMethod(List<ClassName> tableClassNames) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder(GET_TABLE_NAME_METHOD_NAME);
+        method.addModifiers(Modifier.PRIVATE, Modifier.STATIC);
+        method.returns(String.class);
+        method.addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)), "tableClass");
+
+        for (ClassName tableClassName : tableClassNames) {
+            method.beginControlFlow("if (tableClass == $T.class)", tableClassName);
+            method.addStatement("return $S", getTableModel(tableClassName).getTableName());
+            method.endControlFlow();
+        }
+        method.addStatement("throw new $T($S + tableClass.getName())", IllegalArgumentException.class, "Unknown table ");
+
+        return method.build();
+    }
+
+    private MethodSpec generateDropMethod(TypeElement helperClass, List<ClassName> tableClassNames) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder("dropTables");
+        method.addModifiers(Modifier.PRIVATE);
+        method.addParameter(EClass.SQLiteDatabase.getName(), "database");
+        method.addParameter(EClass.ConnectionSource.getName(), "connectionSource");
+
+        method.addStatement("$T.i($T.class.getName(), $S)", EClass.Log.getName(), helperClass, "dropTables");
+        method.beginControlFlow("try");
+        for (ClassName tableClassName : tableClassNames) {
+            method.addStatement("$T.dropTable(connectionSource, $T.class, true)", EClass.TableUtils.getName(), tableClassName);
+        }
+        method.endControlFlow();
+
+        method.beginControlFlow("catch ($T e)", ClassName.get(SQLException.class));
+        method.addStatement("$T.e($T.class.getName(), $S, e)", EClass.Log.getName(), helperClass, "Can't drop database tables.");
+        method.endControlFlow();
+
+        return method.build();
+    }
+
+    private MethodSpec generateOnUpgradeMethod(TypeElement helperClass, List<ClassName> tableClassNames, List<ExecutableElement> onUpgradeMethods, boolean clearOnUpgrade) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder("onUpgrade");
+        method.addAnnotation(Override.class);
+        method.addModifiers(Modifier.PUBLIC);
+        method.addParameter(EClass.SQLiteDatabase.getName(), "database");
+        method.addParameter(EClass.ConnectionSource.getName(), "connectionSource");
+        method.addParameter(int.class, "oldVersion");
+        method.addParameter(int.class, "newVersion");
+
+        if (clearOnUpgrade) {
+            method.addStatement("dropTables(database, connectionSource)");
+            method.addStatement("onCreate(database, connectionSource)");
+        } else if (!onUpgradeMethods.isEmpty()) {
+            method.addStatement("$T upgradeHelper = new $T()", helperClass, helperClass);
+
+            // upgrades are checked to form one chain, so each one falls through to the next
+            // NOTE: SQLiteOpenHelper runs whole upgrade in one transaction
+            Collections.sort(onUpgradeMethods, new OnUpMethodComparator());
+            method.addStatement("$T metrics = $N", EClass.HelperMetrics.getName(), METRICS_NAME);
+            method.addStatement("long start");
+            method.beginControlFlow("switch (oldVersion)");
+            int previousTo = OnUpMethodComparator.FIRST_VERSION;
+            for (ExecutableElement onUpMethod : onUpgradeMethods) {
+                OnUpgrade onUp = onUpMethod.getAnnotation(OnUpgrade.class);
+                int from = OnUpMethodComparator.getFrom(onUp, previousTo);
+                // upgrade without from is run for all older versions which are not upgraded by previous upgrades
+                for (int version = from; version < onUp.to(); version++) {
+                    method.addCode("case $L:\n", version);
+                    if (onUp.from() != OnUpgrade.UNDEFINED) {
+                        break;
+                    }
                 }
+                method.addCode("$>");
+                method.addStatement("start = (metrics != $T.NONE) ? $T.nanoTime() : 0L", EClass.HelperMetrics.getName(), System.class);
                 method.addStatement("upgradeHelper.$N(database, connectionSource)", onUpMethod.getSimpleName());
-                method.addStatement("version = $L", onUp.to());
-                method.endControlFlow();
+                addReportTimingStatement(method, "metrics.onUpgrade($L, $L, $T.nanoTime() - start)", from, onUp.to(), System.class);
+                method.addCode("$<");
+                previousTo = onUp.to();
             }
+            method.addCode("$>");
+            method.addStatement("break");
+            method.addCode("$<default:\n$>");
+            method.addStatement("throw new $T($S + oldVersion)", IllegalStateException.class, "Cannot upgrade database from version ");
+            method.addCode("$<");
+            method.endControlFlow();
         }
 
         return method.build();
     }
 
-    private MethodSpec generateCloseMethod(List<ClassName> tableClassNames) {
+    private MethodSpec generateCloseMethod(List<ClassName> tableClassNames, boolean withWriteQueue) {
         MethodSpec.Builder method = MethodSpec.methodBuilder("close");
         method.addAnnotation(Override.class);
         method.addModifiers(Modifier.PUBLIC);
+        if (withWriteQueue) {
+            // queued writes are committed before connection is closed
+            method.addStatement("$N.shutdown()", WRITE_QUEUE_NAME);
+        }
+        // release DAOs before connection is closed, so no getter can return DAO of closed helper
+        method.beginControlFlow("synchronized ($N)", DAO_LOCK_NAME);
+        for (ClassName tableClassName : tableClassNames) {
+            method.addStatement("$N = null", getDaoName(tableClassName));
+        }
         // call super
         method.addStatement("super.close()");
+        method.endControlFlow();
+        return method.build();
+    }
+
+    private MethodSpec generateSetMetricsMethod(List<ClassName> tableClassNames) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder("setMetrics");
+        method.addJavadoc("Sets listener which receives timings of this helper and its DAOs. {@code null} removes listener.\n");
+        method.addModifiers(Modifier.PUBLIC);
+        method.addParameter(EClass.HelperMetrics.getName(), "metrics");
+
+        method.beginControlFlow("synchronized ($N)", DAO_LOCK_NAME);
+        method.addStatement("$N = (metrics != null) ? metrics : $T.NONE", METRICS_NAME, EClass.HelperMetrics.getName());
+        // DAOs which were already created report to new listener too
+        TypeName meteredDao = ParameterizedTypeName.get(EClass.MeteredDao.getName(), WildcardTypeName.subtypeOf(Object.class), WildcardTypeName.subtypeOf(Object.class));
         for (ClassName tableClassName : tableClassNames) {
-            method.addStatement("$N = null", getDaoName(tableClassName));
+            method.beginControlFlow("if ($N instanceof $T)", getDaoName(tableClassName), EClass.MeteredDao.getName());
+            method.addStatement("(($T) $N).setMetrics($N)", meteredDao, getDaoName(tableClassName), METRICS_NAME);
+            method.endControlFlow();
         }
+        method.endControlFlow();
+
         return method.build();
     }
 
-    private MethodSpec generateDaoGetter(ClassName tableClassName) {
+    private MethodSpec generateDaoGetter(Helper helperAnnotation, ClassName tableClassName, CacheModel cache) {
         String dao = getDaoName(tableClassName);
 
         MethodSpec.Builder method = MethodSpec.methodBuilder(getDaoGetterName(tableClassName));
         method.addModifiers(Modifier.PUBLIC);
-        method.returns(getDaoType(tableClassName));
+        method.returns(getDaoType(helperAnnotation, tableClassName));
         method.addException(ClassName.get(SQLException.class));
+        if (helperAnnotation.withPrimitiveIds() && !hasPrimitiveId(tableClassName)) {
+            note(getTableModel(tableClassName).getElement(), "DAO of %s does not have primitive id API, because it does not have int or long id or it has custom DAO class.",
+                    tableClassName.simpleName());
+        }
 
-        method.beginControlFlow("if ($N == null) ", dao);
-        method.addStatement("$N = getDao($T.class)", dao, tableClassName);
+        // volatile field is read only once, lock is taken only when DAO is not created yet
+        method.addStatement("$T dao = $N", getDaoType(helperAnnotation, tableClassName), dao);
+        method.beginControlFlow("if (dao == null)");
+        method.beginControlFlow("synchronized ($N)", DAO_LOCK_NAME);
+        method.addStatement("dao = $N", dao);
+        method.beginControlFlow("if (dao == null)");
+        if (helperAnnotation.withDaoHolders()) {
+            method.addStatement("dao = $N.$N(getConnectionSource(), $N)", getDaoHolderName(tableClassName), CREATE_DAO_METHOD_NAME, METRICS_NAME);
+        } else {
+            addCreateDaoStatements(method, helperAnnotation, tableClassName, cache, false);
+        }
+        if (helperAnnotation.withChangeTracking()) {
+            if (getTableModel(tableClassName).hasCustomDao()) {
+                note(getTableModel(tableClassName).getElement(), "Changes made by custom DAO of %s are not tracked.", tableClassName.simpleName());
+            } else {
+                TypeName meteredDao = ParameterizedTypeName.get(EClass.MeteredDao.getName(), WildcardTypeName.subtypeOf(Object.class), WildcardTypeName.subtypeOf(Object.class));
+                method.addStatement("(($T) dao).setTableChanges($N)", meteredDao, TABLE_CHANGES_NAME);
+            }
+        }
+        method.addStatement("$N = dao", dao);
+        method.endControlFlow();
+        method.endControlFlow();
         method.endControlFlow();
-        method.addStatement("return $N", dao);
+        method.addStatement("return dao");
+
+        return method.build();
+    }
+
+    /**
+     * Adds statements which create DAO of given table to {@code dao} variable, install its object cache and report it to metrics.
+     * DAO holder has connection source and metrics as its parameters, helper uses its own.
+     */
+    private void addCreateDaoStatements(MethodSpec.Builder method, Helper helperAnnotation, ClassName tableClassName, CacheModel cache, boolean inHolder) {
+        String connectionSource = inHolder ? "connectionSource" : "getConnectionSource()";
+
+        // DAO holder has metrics as parameter
+        addStartTimingStatements(method, !inHolder);
+        if (mRowMapperTables.contains(tableClassName)) {
+            TypeName mappedDaoType = ParameterizedTypeName.get(EClass.MappedDao.getName(), tableClassName, getIdClassName(tableClassName));
+            if (helperAnnotation.withConfigUtil()) {
+                method.addStatement("dao = new $T($N, $N.$N(), new $T(), metrics)", mappedDaoType, connectionSource,
+                        getConfigUtilClassName(helperAnnotation.name()), getCreateTableConfigMethodName(tableClassName),
+                        RowMapperGenerator.getRowMapperClassName(tableClassName));
+            } else {
+                method.addStatement("dao = new $T($N, $T.class, new $T(), metrics)", mappedDaoType, connectionSource,
+                        tableClassName, RowMapperGenerator.getRowMapperClassName(tableClassName));
+            }
+            method.addStatement("$T.registerDao($N, dao)", EClass.DaoManager.getName(), connectionSource);
+        } else if (getTableModel(tableClassName).hasCustomDao()) {
+            // DAO class given by table is created by ORMLite
+            if (inHolder) {
+                method.addStatement("dao = $T.createDao($N, $T.class)", EClass.DaoManager.getName(), connectionSource, tableClassName);
+            } else {
+                method.addStatement("dao = getDao($T.class)", tableClassName);
+            }
+        } else {
+            TypeName meteredDaoType = ParameterizedTypeName.get(EClass.MeteredDao.getName(), tableClassName, getIdClassName(tableClassName));
+            if (helperAnnotation.withConfigUtil()) {
+                method.addStatement("dao = new $T($N, $N.$N(), metrics)", meteredDaoType, connectionSource,
+                        getConfigUtilClassName(helperAnnotation.name()), getCreateTableConfigMethodName(tableClassName));
+            } else {
+                method.addStatement("dao = new $T($N, $T.class, metrics)", meteredDaoType, connectionSource, tableClassName);
+            }
+            method.addStatement("$T.registerDao($N, dao)", EClass.DaoManager.getName(), connectionSource);
+        }
+        if (cache != null && cache.isLru()) {
+            method.addStatement("dao.setObjectCache(new $T($L, $LL))", EClass.BoundedObjectCache.getName(), cache.getMaxCount(), cache.getMaxBytes());
+        } else if (cache != null && cache.isWeak()) {
+            method.addStatement("dao.setObjectCache(true)");
+        }
+        addReportTimingStatement(method, "metrics.onDaoCreated($T.class, $T.nanoTime() - start)", tableClassName, System.class);
+    }
+
+    /**
+     * Adds statements which start timing to {@code start} variable. Metrics are read to {@code metrics} variable once,
+     * unless it is parameter of method, and clock is not read if they are {@code HelperMetrics.NONE}.
+     */
+    private static void addStartTimingStatements(MethodSpec.Builder method, boolean declareMetrics) {
+        if (declareMetrics) {
+            method.addStatement("$T metrics = $N", EClass.HelperMetrics.getName(), METRICS_NAME);
+        }
+        method.addStatement("long start = (metrics != $T.NONE) ? $T.nanoTime() : 0L", EClass.HelperMetrics.getName(), System.class);
+    }
+
+    /**
+     * Adds given call of {@code metrics} variable which is skipped if they are {@code HelperMetrics.NONE}.
+     */
+    private static void addReportTimingStatement(MethodSpec.Builder method, String format, Object... args) {
+        method.beginControlFlow("if (metrics != $T.NONE)", EClass.HelperMetrics.getName());
+        method.addStatement(format, args);
+        method.endControlFlow();
+    }
+
+    /**
+     * Adds statements which create given table. Returns {@code true} if table is created with {@code TableUtils},
+     * which throws {@link SQLException}.
+     */
+    private boolean addCreateTableStatements(MethodSpec.Builder method, ClassName tableClassName) {
+        TableModel table = getTableModel(tableClassName);
+        String unsupportedReason = mSchemaGenerator.getUnsupportedReason(table);
+        if (unsupportedReason == null) {
+            for (String statement : mSchemaGenerator.getCreateStatements(table)) {
+                method.addStatement("database.execSQL($S)", statement);
+            }
+            return false;
+        } else {
+            note(table.getElement(), "Table %s is created with TableUtils: %s.", tableClassName.simpleName(), unsupportedReason);
+            method.addStatement("$T.createTable(connectionSource, $T.class)", EClass.TableUtils.getName(), tableClassName);
+            return true;
+        }
+    }
+
+    /**
+     * Generates holder of DAO creation and DDL of one table. Holder is separate class, so it is loaded only when table is used.
+     */
+    private TypeSpec generateDaoHolder(Helper helperAnnotation, ClassName tableClassName, CacheModel cache) {
+        TypeSpec.Builder holder = TypeSpec.classBuilder(getDaoHolderName(tableClassName));
+        holder.addModifiers(Modifier.STATIC, Modifier.FINAL);
+
+        holder.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PRIVATE)
+                .build());
+
+        MethodSpec.Builder createTable = MethodSpec.methodBuilder(CREATE_TABLE_METHOD_NAME);
+        createTable.addModifiers(Modifier.STATIC);
+        createTable.addParameter(EClass.SQLiteDatabase.getName(), "database");
+        createTable.addParameter(EClass.ConnectionSource.getName(), "connectionSource");
+        if (addCreateTableStatements(createTable, tableClassName)) {
+            createTable.addException(ClassName.get(SQLException.class));
+        }
+        holder.addMethod(createTable.build());
+
+        MethodSpec.Builder createDao = MethodSpec.methodBuilder(CREATE_DAO_METHOD_NAME);
+        createDao.addModifiers(Modifier.STATIC);
+        createDao.returns(getDaoType(helperAnnotation, tableClassName));
+        createDao.addParameter(EClass.ConnectionSource.getName(), "connectionSource");
+        createDao.addParameter(EClass.HelperMetrics.getName(), "metrics");
+        createDao.addException(ClassName.get(SQLException.class));
+        createDao.addStatement("$T dao", getDaoType(helperAnnotation, tableClassName));
+        addCreateDaoStatements(createDao, helperAnnotation, tableClassName, cache, true);
+        createDao.addStatement("return dao");
+        holder.addMethod(createDao.build());
+
+        return holder.build();
+    }
+
+    private void addClearObjectCacheStatement(MethodSpec.Builder method, ClassName tableClassName) {
+        method.beginControlFlow("if ($N != null)", getDaoName(tableClassName));
+        method.addStatement("$N.clearObjectCache()", getDaoName(tableClassName));
+        method.endControlFlow();
+    }
+
+    private MethodSpec generateWarmUpMethod(List<ClassName> tableClassNames) {
+        TypeName voidFutureTask = ParameterizedTypeName.get(ClassName.get(FutureTask.class), ClassName.get(Void.class));
+
+        MethodSpec.Builder call = MethodSpec.methodBuilder("call");
+        call.addAnnotation(Override.class);
+        call.addModifiers(Modifier.PUBLIC);
+        call.returns(Void.class);
+        call.addException(Exception.class);
+        // open database first, so DAOs do not wait for it
+        call.addStatement("getWritableDatabase()");
+        for (ClassName tableClassName : tableClassNames) {
+            call.addStatement("$N()", getDaoGetterName(tableClassName));
+        }
+        call.addStatement("return null");
+
+        TypeSpec callable = TypeSpec.anonymousClassBuilder("")
+                .addSuperinterface(ParameterizedTypeName.get(ClassName.get(Callable.class), ClassName.get(Void.class)))
+                .addMethod(call.build())
+                .build();
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder(WARM_UP_METHOD_NAME);
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(ParameterizedTypeName.get(ClassName.get(Future.class), ClassName.get(Void.class)));
+        method.addParameter(Executor.class, "executor");
+        method.addStatement("$T task = new $T($L)", voidFutureTask, voidFutureTask, callable);
+        method.addStatement("executor.execute(task)");
+        method.addStatement("return task");
+
+        return method.build();
+    }
+
+    private MethodSpec generateOpenAsyncMethod() {
+        return MethodSpec.methodBuilder("openAsync")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(ClassName.get(Future.class), ClassName.get(Void.class)))
+                .addStatement("return $N($T.THREAD_POOL_EXECUTOR)", WARM_UP_METHOD_NAME, EClass.AsyncTask.getName())
+                .build();
+    }
+
+    private MethodSpec generateInsertAllMethod(ClassName tableClassName, boolean upsert, boolean cached, boolean tracked) {
+        String name = (upsert ? "upsertAll" : "insertAll");
+        MethodSpec.Builder method = MethodSpec.methodBuilder(name + tableClassName.simpleName());
+        method.addModifiers(Modifier.PUBLIC);
+        method.addParameter(ParameterizedTypeName.get(ClassName.get(Collection.class), tableClassName), "data");
+        method.addException(ClassName.get(SQLException.class));
+
+        boolean usesBinder = mStatementBinderTables.contains(tableClassName);
+        method.addStatement("$T database = getWritableDatabase()", EClass.SQLiteDatabase.getName());
+        if (usesBinder) {
+            addStartTimingStatements(method, true);
+        }
+        if (tracked) {
+            // observers are notified after transaction is committed
+            addBeginBatchStatements(method);
+        }
+        // all rows are inserted in one transaction
+        method.addStatement("database.beginTransaction()");
+        method.beginControlFlow("try");
+        if (usesBinder) {
+            method.addStatement("$T.$N(database, data)", StatementBinderGenerator.getStatementBinderClassName(tableClassName), name);
+            if (tracked) {
+                method.addStatement("$N.onChanged($T.class)", TABLE_CHANGES_NAME, tableClassName);
+            }
+        } else {
+            method.addStatement("$T dao = $N()", getDaoType(tableClassName), getDaoGetterName(tableClassName));
+            method.beginControlFlow("for ($T item : data)", tableClassName);
+            method.addStatement(upsert ? "dao.createOrUpdate(item)" : "dao.create(item)");
+            method.endControlFlow();
+        }
+        method.addStatement("database.setTransactionSuccessful()");
+        method.endControlFlow();
+        method.beginControlFlow("finally");
+        method.addStatement("database.endTransaction()");
+        method.endControlFlow();
+        if (tracked) {
+            method.addStatement("committed = true");
+            addEndBatchStatements(method);
+        }
+        if (usesBinder) {
+            // DAO reports its inserts itself
+            addReportTimingStatement(method, "metrics.onInsert($T.class, data.size(), $T.nanoTime() - start)", tableClassName, System.class);
+            if (upsert && cached) {
+                // replaced rows were not updated in cache
+                addClearObjectCacheStatement(method, tableClassName);
+            }
+        }
 
         return method.build();
     }
@@ -491,7 +1707,35 @@ public class HelperProcessor extends AbstractProcessor {
         return ParameterizedTypeName.get(EClass.Dao.getName(), tableClassName, getIdClassName(tableClassName));
     }
 
+    /**
+     * Returns type of DAO in generated Helper. DAO of table with {@code int} or {@code long} id has primitive id API if it is enabled.
+     */
+    private ParameterizedTypeName getDaoType(Helper helperAnnotation, ClassName tableClassName) {
+        if (helperAnnotation.withPrimitiveIds() && hasPrimitiveId(tableClassName)) {
+            return ParameterizedTypeName.get(EClass.LongIdDao.getName(), tableClassName, getIdClassName(tableClassName));
+        }
+        return getDaoType(tableClassName);
+    }
+
+    /**
+     * Checks if table has integer id and its DAO is created by generated Helper (so it is {@code MeteredDao}).
+     */
+    private boolean hasPrimitiveId(ClassName tableClassName) {
+        ClassName idClassName = getIdClassName(tableClassName);
+        return (ClassName.get(Long.class).equals(idClassName) || ClassName.get(Integer.class).equals(idClassName))
+                && !getTableModel(tableClassName).hasCustomDao();
+    }
+
+    /**
+     * Returns class of table id or {@code null} if class is not annotated with {@code @DatabaseTable} or has no id field.
+     * Table may come from this round, from previous round or from classpath.
+     */
     private ClassName getIdClassName(ClassName tableClassName) {
+        if (!mIdClassNames.containsKey(tableClassName)) {
+            TypeElement tableClass = processingEnv.getElementUtils().getTypeElement(tableClassName.toString());
+            boolean isTable = tableClass != null && tableClass.getAnnotation(DatabaseTable.class) != null;
+            mIdClassNames.put(tableClassName, isTable ? findIdClassName(tableClass) : null);
+        }
         return mIdClassNames.get(tableClassName);
     }
 
@@ -512,30 +1756,130 @@ public class HelperProcessor extends AbstractProcessor {
         return String.format("m%sDao", tableClassName.simpleName());
     }
 
+    private String getDaoHolderName(ClassName tableClassName) {
+        return String.format("%sDaoHolder", tableClassName.simpleName());
+    }
+
     private String getDaoGetterName(ClassName tableClassName) {
         return String.format("get%sDao", tableClassName.simpleName());
     }
 
-    private void generateConfigUtil(final TypeElement helperClass) {
-        final Helper helperAnnotation = helperClass.getAnnotation(Helper.class);
+    private void generateRowMappers(List<ClassName> tableClassNames) {
+        for (ClassName tableClassName : tableClassNames) {
+            if (mRowMapperTables.contains(tableClassName)) {
+                continue; // already generated for other helper
+            }
+            TableModel table = getTableModel(tableClassName);
+            String unsupportedReason = mRowMapperGenerator.getUnsupportedReason(table);
+            if (unsupportedReason != null) {
+                note(table.getElement(), "Row mapper was not generated for %s, because %s. ORMLite mapping will be used.",
+                        tableClassName.simpleName(), unsupportedReason);
+                continue;
+            }
+
+            // create file
+            JavaFile javaFile = JavaFile.builder(tableClassName.packageName(), mRowMapperGenerator.generate(table))
+                    .build();
+            try {
+                javaFile.writeTo(mFiler);
+                mRowMapperTables.add(tableClassName);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void generateProjectionMappers(Map<ClassName, ClassName> projections) {
+        for (Map.Entry<ClassName, ClassName> projection : projections.entrySet()) {
+            if (mProjectionMappers.contains(projection.getKey())) {
+                continue; // already generated for other helper
+            }
+            TypeElement projectionClass = processingEnv.getElementUtils().getTypeElement(projection.getKey().toString());
+
+            // create file
+            JavaFile javaFile = JavaFile.builder(projection.getKey().packageName(),
+                    mProjectionGenerator.generate(projectionClass, getTableModel(projection.getValue())))
+                    .build();
+            try {
+                javaFile.writeTo(mFiler);
+                mProjectionMappers.add(projection.getKey());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void generateViews(List<ClassName> tableClassNames) {
+        for (ClassName tableClassName : tableClassNames) {
+            if (mViewTables.contains(tableClassName)) {
+                continue; // already generated for other helper
+            }
+            TableModel table = getTableModel(tableClassName);
+            List<FieldModel> fields = mViewGenerator.getSupportedFields(table);
+            if (fields.isEmpty()) {
+                note(table.getElement(), "View was not generated for %s, because none of its fields is supported.", tableClassName.simpleName());
+                continue;
+            }
+            for (FieldModel field : table.getFields()) {
+                if (!field.isForeignCollection() && !fields.contains(field)) {
+                    note(field.getElement(), "Field '%s' has no getter in view of %s, because it is not stored in one supported column.",
+                            field.getName(), tableClassName.simpleName());
+                }
+            }
+
+            // create file
+            JavaFile javaFile = JavaFile.builder(tableClassName.packageName(), mViewGenerator.generate(table))
+                    .build();
+            try {
+                javaFile.writeTo(mFiler);
+                mViewTables.add(tableClassName);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void generateStatementBinders(List<ClassName> tableClassNames) {
+        for (ClassName tableClassName : tableClassNames) {
+            if (mStatementBinderTables.contains(tableClassName)) {
+                continue; // already generated for other helper
+            }
+            TableModel table = getTableModel(tableClassName);
+            String unsupportedReason = mStatementBinderGenerator.getUnsupportedReason(table);
+            if (unsupportedReason != null) {
+                note(table.getElement(), "Statement binder was not generated for %s, because %s. DAO will be used for batch inserts.",
+                        tableClassName.simpleName(), unsupportedReason);
+                continue;
+            }
+
+            // create file
+            JavaFile javaFile = JavaFile.builder(tableClassName.packageName(), mStatementBinderGenerator.generate(table))
+                    .build();
+            try {
+                javaFile.writeTo(mFiler);
+                mStatementBinderTables.add(tableClassName);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void generateConfigUtil(TypeElement helperClass, List<ClassName> tableClassNames) {
+        Helper helperAnnotation = helperClass.getAnnotation(Helper.class);
 
         final TypeSpec.Builder configUtil = TypeSpec.classBuilder(getConfigUtilClassName(helperAnnotation.name()));
         configUtil.addModifiers(Modifier.PUBLIC, Modifier.FINAL);
-        configUtil.superclass(EClass.OrmLiteConfigUtil.getName());
+        addOriginatingElements(configUtil, helperClass, tableClassNames);
 
-        // add table list field
-        List<ClassName> tableClassNames = ProcessorUtils.getParamClasses(helperClass, new ProcessorUtils.IGetter<Class<?>[]>() {
-            @Override
-            public Class<?>[] get(Element element) {
-                return helperAnnotation.tables();
-            }
-        });
-        FieldSpec tableListField = generateTableListField(tableClassNames);
-        configUtil.addField(tableListField);
-        // add config file getter method
-        configUtil.addMethod(generateGetConfigFileMethod(helperAnnotation.name()));
-        // add main method
-        configUtil.addMethod(generateMainConfigMethod(tableListField));
+        // add table configs getter method
+        configUtil.addMethod(generateGetTableConfigsMethod(tableClassNames));
+        // add table config for each table
+        for (ClassName tableClassName : tableClassNames) {
+            configUtil.addMethod(generateCreateTableConfigMethod(getTableModel(tableClassName)));
+        }
+        // add statements which generated Helper executes
+        configUtil.addMethod(generateGetCreateStatementsMethod(tableClassNames));
+        configUtil.addMethod(generateGetClearStatementsMethod(tableClassNames));
 
         // create file
         String packageName = helperClass.getQualifiedName().toString();
@@ -544,60 +1888,188 @@ public class HelperProcessor extends AbstractProcessor {
                 .build();
         try {
             javaFile.writeTo(mFiler);
-            javaFile.writeTo(System.out);
-            System.out.println(String.format("%s successfully generated for %s.", getConfigUtilClassName(helperAnnotation.name()), helperClass.getSimpleName()));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private FieldSpec generateTableListField(List<ClassName> tableClassNames) {
-        FieldSpec.Builder field = FieldSpec.builder(Class[].class, "sTableClasses", Modifier.PRIVATE, Modifier.FINAL, Modifier.STATIC);
-        String format = "new Class[] {\n";
-        Object args[] = new Object[tableClassNames.size()];
-        for (int i = 0; i < tableClassNames.size(); i++) {
-            format += "\t$T.class,\n";
-            args[i] = tableClassNames.get(i);
-        }
-        format += "}";
-        field.initializer(format, args);
-        return field.build();
-    }
-
-    private MethodSpec generateGetConfigFileMethod(String databaseName) {
-        return MethodSpec.methodBuilder(GET_DB_CONFIG_FILE_METHOD_NAME)
-                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
-                .returns(File.class)
-                .addStatement("File dir = new File($S)", DB_CONFIG_DIR_NAME)
-                .addStatement("dir.mkdir()")
-                .addStatement("File configFile = new File(dir, $S)", getConfigFileName(databaseName))
-                .beginControlFlow("if (!configFile.exists())")
-                .beginControlFlow("try")
-                .addStatement("configFile.createNewFile()")
-                .endControlFlow()
-                .beginControlFlow("catch ($T e)", IOException.class)
-                .addStatement("e.printStackTrace()")
-                .endControlFlow()
-                .endControlFlow()
-                .addStatement("return configFile")
-                .build();
+    private MethodSpec generateGetTableConfigsMethod(List<ClassName> tableClassNames) {
+        TypeName tableConfigType = ParameterizedTypeName.get(EClass.DatabaseTableConfig.getName(), WildcardTypeName.subtypeOf(Object.class));
+        TypeName listType = ParameterizedTypeName.get(ClassName.get(List.class), tableConfigType);
+        TypeName arrayListType = ParameterizedTypeName.get(ClassName.get(ArrayList.class), tableConfigType);
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder(GET_TABLE_CONFIGS_METHOD_NAME);
+        method.addModifiers(Modifier.PUBLIC, Modifier.STATIC);
+        method.returns(listType);
+
+        method.addStatement("$T tableConfigs = new $T($L)", listType, arrayListType, tableClassNames.size());
+        for (ClassName tableClassName : tableClassNames) {
+            method.addStatement("tableConfigs.add($N())", getCreateTableConfigMethodName(tableClassName));
+        }
+        method.addStatement("return tableConfigs");
+
+        return method.build();
     }
 
-    private String getConfigFileName(String databaseName) {
-        return String.format("%s_config.txt", databaseName);
+    private MethodSpec generateGetCreateStatementsMethod(List<ClassName> tableClassNames) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder(GET_CREATE_STATEMENTS_METHOD_NAME);
+        method.addJavadoc("Returns statements which {@code onCreate} executes in one transaction.\n");
+        method.addJavadoc("Tables which are created with {@code TableUtils} are not included.\n");
+        method.addModifiers(Modifier.PUBLIC, Modifier.STATIC);
+        method.returns(ArrayTypeName.of(String.class));
+
+        List<String> statements = new ArrayList<>();
+        for (ClassName tableClassName : tableClassNames) {
+            TableModel table = getTableModel(tableClassName);
+            if (mSchemaGenerator.getUnsupportedReason(table) == null) {
+                statements.addAll(mSchemaGenerator.getCreateStatements(table));
+            }
+        }
+        addReturnArrayStatement(method, statements);
+
+        return method.build();
     }
 
-    private MethodSpec generateMainConfigMethod(FieldSpec tableListField) {
-        return MethodSpec.methodBuilder(MAIN_METHOD_NAME)
-                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
-                .addParameter(String[].class, "args")
-                .addException(IOException.class)
-                .addException(SQLException.class)
-                .addStatement("writeConfigFile($N(), $N)", GET_DB_CONFIG_FILE_METHOD_NAME, tableListField)
-                .build();
+    private MethodSpec generateGetClearStatementsMethod(List<ClassName> tableClassNames) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder(GET_CLEAR_STATEMENTS_METHOD_NAME);
+        method.addJavadoc("Returns statements which {@code clearTables} executes in one transaction.\n");
+        method.addModifiers(Modifier.PUBLIC, Modifier.STATIC);
+        method.returns(ArrayTypeName.of(String.class));
+
+        List<String> statements = new ArrayList<>(tableClassNames.size());
+        for (ClassName tableClassName : tableClassNames) {
+            statements.add("DELETE FROM `" + getTableModel(tableClassName).getTableName() + "`");
+        }
+        addReturnArrayStatement(method, statements);
+
+        return method.build();
+    }
+
+    private static void addReturnArrayStatement(MethodSpec.Builder method, List<String> values) {
+        method.addCode("return new $T[] {\n$>", String.class);
+        for (String value : values) {
+            method.addCode("$S,\n", value);
+        }
+        method.addCode("$<};\n");
+    }
+
+    private MethodSpec generateCreateTableConfigMethod(TableModel table) {
+        TypeName fieldConfigListType = ParameterizedTypeName.get(ClassName.get(List.class), EClass.DatabaseFieldConfig.getName());
+        TypeName fieldConfigArrayListType = ParameterizedTypeName.get(ClassName.get(ArrayList.class), EClass.DatabaseFieldConfig.getName());
+        TypeName tableConfigType = ParameterizedTypeName.get(EClass.DatabaseTableConfig.getName(), table.getClassName());
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder(getCreateTableConfigMethodName(table.getClassName()));
+        method.addModifiers(Modifier.PUBLIC, Modifier.STATIC);
+        method.returns(tableConfigType);
+
+        method.addStatement("$T fieldConfigs = new $T($L)", fieldConfigListType, fieldConfigArrayListType, table.getFields().size());
+        method.addStatement("$T fieldConfig", EClass.DatabaseFieldConfig.getName());
+        for (FieldModel field : table.getFields()) {
+            method.addStatement("fieldConfig = new $T($S)", EClass.DatabaseFieldConfig.getName(), field.getName());
+            if (field.isForeignCollection()) {
+                addForeignCollectionConfig(method, field);
+            } else {
+                addDatabaseFieldConfig(method, field);
+            }
+            method.addStatement("fieldConfigs.add(fieldConfig)");
+        }
+        method.addStatement("return new $T($T.class, $S, fieldConfigs)", tableConfigType, table.getClassName(), table.getTableName());
+
+        return method.build();
+    }
+
+    private void addDatabaseFieldConfig(MethodSpec.Builder method, FieldModel field) {
+        for (Map.Entry<String, Object> attribute : field.getValues().entrySet()) {
+            String name = attribute.getKey();
+            Object value = attribute.getValue();
+            switch (name) {
+                case "persisted": // not persisted fields are skipped
+                    break;
+                case "unknownEnumName":
+                    if (field.getString(name) != null) {
+                        method.addStatement("fieldConfig.setUnknownEnumValue($T.$N)", field.getTypeName(), field.getString(name));
+                    }
+                    break;
+                case "columnName":
+                case "generatedIdSequence":
+                case "format":
+                case "indexName":
+                case "uniqueIndexName":
+                case "columnDefinition":
+                case "foreignColumnName":
+                    // blank values are ignored by ORMLite
+                    if (field.getString(name) != null) {
+                        addFieldConfigSetter(method, name, value);
+                    }
+                    break;
+                default:
+                    addFieldConfigSetter(method, name, value);
+                    break;
+            }
+        }
+    }
+
+    private void addForeignCollectionConfig(MethodSpec.Builder method, FieldModel field) {
+        method.addStatement("fieldConfig.setForeignCollection(true)");
+        if (field.getString("columnName") != null) {
+            method.addStatement("fieldConfig.setColumnName($S)", field.getString("columnName"));
+            method.addStatement("fieldConfig.setForeignCollectionColumnName($S)", field.getString("columnName"));
+        }
+        if (field.has("eager")) {
+            method.addStatement("fieldConfig.setForeignCollectionEager($L)", field.getBoolean("eager"));
+        }
+        if (field.has("maxEagerForeignCollectionLevel")) {
+            method.addStatement("fieldConfig.setForeignCollectionMaxEagerLevel($L)", field.getValues().get("maxEagerForeignCollectionLevel"));
+        } else if (field.has("maxEagerLevel")) {
+            method.addStatement("fieldConfig.setForeignCollectionMaxEagerLevel($L)", field.getValues().get("maxEagerLevel"));
+        }
+        if (field.getString("orderColumnName") != null) {
+            method.addStatement("fieldConfig.setForeignCollectionOrderColumnName($S)", field.getString("orderColumnName"));
+        }
+        if (field.has("orderAscending")) {
+            method.addStatement("fieldConfig.setForeignCollectionOrderAscending($L)", field.getBoolean("orderAscending"));
+        }
+        String foreignFieldName = field.getString("foreignFieldName");
+        if (foreignFieldName == null) {
+            foreignFieldName = field.getString("foreignColumnName");
+        }
+        if (foreignFieldName != null) {
+            method.addStatement("fieldConfig.setForeignCollectionForeignFieldName($S)", foreignFieldName);
+        }
+    }
+
+    private void addFieldConfigSetter(MethodSpec.Builder method, String attribute, Object value) {
+        String setter = "set" + attribute.substring(0, 1).toUpperCase() + attribute.substring(1);
+        if (value instanceof String) {
+            method.addStatement("fieldConfig.$N($S)", setter, value);
+        } else if (value instanceof VariableElement) { // enum constant
+            VariableElement constant = (VariableElement) value;
+            method.addStatement("fieldConfig.$N($T.$N)", setter, ClassName.get(constant.getEnclosingElement().asType()), constant.getSimpleName().toString());
+        } else if (value instanceof TypeMirror) { // class
+            method.addStatement("fieldConfig.$N($T.class)", setter, ClassName.get((TypeMirror) value));
+        } else {
+            method.addStatement("fieldConfig.$N($L)", setter, value);
+        }
+    }
+
+    private String getCreateTableConfigMethodName(ClassName tableClassName) {
+        return String.format("create%sTableConfig", tableClassName.simpleName());
+    }
+
+    private TableModel getTableModel(ClassName tableClassName) {
+        TableModel table = mTableModels.get(tableClassName);
+        if (table == null) {
+            table = TableModel.from(processingEnv.getElementUtils().getTypeElement(tableClassName.toString()));
+            mTableModels.put(tableClassName, table);
+        }
+        return table;
     }
 
     private void error(Element e, String msg, Object... args) {
         mMessager.printMessage(Diagnostic.Kind.ERROR, String.format(msg, args), e);
     }
+
+    private void note(Element e, String msg, Object... args) {
+        mMessager.printMessage(Diagnostic.Kind.NOTE, String.format(msg, args), e);
+    }
 }
@@ -6,24 +6,38 @@ import eu.f3rog.ormlite.helper.OnUpgrade;
 
 /**
  * Class {@link OnUpMethodComparator}.
+ * <p>
+ * Orders upgrade methods by version to which they upgrade database.
+ * </p>
  *
  * @author Frantisek Gazo
- * @version 2015-09-26
+ * @version 2015-10-10
  */
 public class OnUpMethodComparator
         implements java.util.Comparator<ExecutableElement> {
 
+    /**
+     * Version of newly created database, the first upgrade of a chain has to start at it.
+     */
+    public static final int FIRST_VERSION = 1;
+
     @Override
     public int compare(ExecutableElement o1, ExecutableElement o2) {
-        eu.f3rog.ormlite.helper.OnUpgrade onUp1 = o1.getAnnotation(OnUpgrade.class);
+        OnUpgrade onUp1 = o1.getAnnotation(OnUpgrade.class);
         OnUpgrade onUp2 = o2.getAnnotation(OnUpgrade.class);
-        if (onUp1.from() == OnUpgrade.UNDEFINED) {
+        if (onUp1.to() != onUp2.to()) {
             return onUp1.to() - onUp2.to();
         }
-        if (onUp1.from() != onUp2.from()) {
-            return onUp1.from() - onUp2.from();
-        }
-        return onUp1.to() - onUp2.to();
+        return onUp1.from() - onUp2.from();
+    }
+
+    /**
+     * Returns the lowest version from which given upgrade starts. Upgrade without {@code from} starts at version
+     * to which previous upgrade of the chain upgrades ({@link #FIRST_VERSION} for the first upgrade), so it is run
+     * for every older version which is not upgraded by previous upgrades.
+     */
+    public static int getFrom(OnUpgrade onUp, int previousTo) {
+        return (onUp.from() == OnUpgrade.UNDEFINED) ? previousTo : onUp.from();
     }
 
 }
@@ -2,7 +2,6 @@ package eu.f3rog.ormlite.helper.compiler;
 
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.TypeName;
-import com.sun.tools.javac.code.Symbol;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,6 +12,7 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.MirroredTypeException;
 import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 
 /**
@@ -82,14 +82,30 @@ public class ProcessorUtils {
     }
 
     public static boolean isSubClassOf(final TypeElement element, final ClassName cls) {
-        TypeElement superClass = element;
-        do {
-            superClass = (TypeElement) ((Symbol.ClassSymbol) superClass).getSuperclass().asElement();
-            if (superClass != null && ClassName.get(superClass).equals(cls)) {
+        TypeMirror superType = element.getSuperclass();
+        while (superType.getKind() == TypeKind.DECLARED) {
+            TypeElement superClass = (TypeElement) ((DeclaredType) superType).asElement();
+            if (ClassName.get(superClass).equals(cls)) {
                 return true;
             }
-        } while (superClass != null);
+            superType = superClass.getSuperclass();
+        }
         return false;
     }
 
+    /**
+     * Converts {@code camelCase} name to {@code CAMEL_CASE}.
+     */
+    public static String toConstantName(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 8);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(name.charAt(i - 1))) {
+                sb.append('_');
+            }
+            sb.append(Character.toUpperCase(c));
+        }
+        return sb.toString();
+    }
+
 }
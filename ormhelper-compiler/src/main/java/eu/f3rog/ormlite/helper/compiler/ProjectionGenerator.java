@@ -0,0 +1,208 @@
+package eu.f3rog.ormlite.helper.compiler;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Class {@link ProjectionGenerator}.
+ * <p>
+ * Generates {@code TableRowMapper} of class or interface annotated with {@code @Projection}. Members of projection
+ * (fields of class or getters of interface) are matched by name with fields of table and mapper reads only their columns.
+ * Interface is implemented by class nested in the mapper.
+ * </p>
+ */
+public class ProjectionGenerator {
+
+    private static final String DATA = "data";
+    private static final String COLUMNS = "COLUMNS";
+    private static final String VALUES = "Values";
+
+    /**
+     * Returns reason why mapper cannot be generated for given projection of given table or {@code null} if it can be generated.
+     */
+    public String getUnsupportedReason(TypeElement projection, TableModel table) {
+        boolean isInterface = projection.getKind() == ElementKind.INTERFACE;
+        Set<Modifier> classModifiers = projection.getModifiers();
+        if (!isInterface && projection.getKind() != ElementKind.CLASS) {
+            return "it is not class or interface";
+        }
+        if (!isInterface && classModifiers.contains(Modifier.ABSTRACT)) {
+            return "it is abstract class";
+        }
+        if (projection.getEnclosingElement().getKind() != ElementKind.PACKAGE
+                && (!classModifiers.contains(Modifier.STATIC) || classModifiers.contains(Modifier.PRIVATE))) {
+            return "it is private or inner class";
+        }
+        if (!isInterface && !RowMapperGenerator.hasAccessibleEmptyConstructor(projection)) {
+            return "it has no accessible empty constructor";
+        }
+
+        Map<String, Element> members = getMembers(projection);
+        if (members.isEmpty()) {
+            return isInterface ? "it has no getters" : "it has no fields";
+        }
+        for (Map.Entry<String, Element> member : members.entrySet()) {
+            Element element = member.getValue();
+            if (!isInterface) {
+                Set<Modifier> modifiers = element.getModifiers();
+                if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+                    return String.format("field '%s' is private or final", member.getKey());
+                }
+            } else if (!((ExecutableElement) element).getParameters().isEmpty()) {
+                return String.format("method '%s' has parameters", element.getSimpleName());
+            }
+            FieldModel field = getTableField(table, member.getKey());
+            if (field == null) {
+                return String.format("'%s' is not field of %s", member.getKey(), table.getClassName().simpleName());
+            }
+            if (field.isForeign() || field.has("persisterClass") || RowMapperGenerator.getColumnKind(field) == null) {
+                return String.format("type of field '%s' is not supported", member.getKey());
+            }
+            TypeName type = isInterface ? TypeName.get(((ExecutableElement) element).getReturnType()) : TypeName.get(element.asType());
+            if (!type.equals(field.getTypeName())) {
+                return String.format("'%s' has other type than field of %s", member.getKey(), table.getClassName().simpleName());
+            }
+        }
+        return null;
+    }
+
+    public TypeSpec generate(TypeElement projection, TableModel table) {
+        ClassName projectionClassName = ClassName.get(projection);
+        boolean isInterface = projection.getKind() == ElementKind.INTERFACE;
+        Map<String, Element> members = getMembers(projection);
+        List<FieldModel> fields = new ArrayList<>();
+        for (String name : members.keySet()) {
+            fields.add(getTableField(table, name));
+        }
+
+        TypeSpec.Builder mapper = TypeSpec.classBuilder(getMapperClassName(projectionClassName).simpleName());
+        mapper.addJavadoc("Maps columns of {@link $T} selected by {@link $T}.\n", table.getClassName(), projectionClassName);
+        mapper.addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+        mapper.superclass(ParameterizedTypeName.get(EClass.TableRowMapper.getName(), projectionClassName));
+        mapper.addOriginatingElement(projection);
+        mapper.addOriginatingElement(table.getElement());
+
+        // add column index constants
+        String columnsFormat = "{";
+        Object[] columns = new Object[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            FieldModel field = fields.get(i);
+            mapper.addField(FieldSpec.builder(int.class, RowMapperGenerator.getIndexName(field), Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", i)
+                    .build());
+            columnsFormat += (i > 0) ? ", $S" : "$S";
+            columns[i] = field.getColumnName();
+        }
+        columnsFormat += "}";
+        mapper.addField(FieldSpec.builder(ArrayTypeName.of(String.class), COLUMNS, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer(columnsFormat, columns)
+                .build());
+
+        // add implementation of interface
+        ClassName dataClassName = projectionClassName;
+        if (isInterface) {
+            dataClassName = getMapperClassName(projectionClassName).nestedClass(VALUES);
+            mapper.addType(generateValues(projectionClassName, members, fields));
+        }
+
+        // add constructor
+        mapper.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addStatement("super($N)", COLUMNS)
+                .build());
+
+        // add mapRow method
+        MethodSpec.Builder method = MethodSpec.methodBuilder("mapRow");
+        method.addAnnotation(Override.class);
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(projectionClassName);
+        method.addParameter(EClass.DatabaseResults.getName(), RowMapperGenerator.RESULTS);
+        method.addException(SQLException.class);
+        method.addStatement("$T $N = new $T()", dataClassName, DATA, dataClassName);
+        for (FieldModel field : fields) {
+            RowMapperGenerator.addReadStatement(method, field, DATA);
+        }
+        method.addStatement("return $N", DATA);
+        mapper.addMethod(method.build());
+
+        return mapper.build();
+    }
+
+    private TypeSpec generateValues(ClassName projectionClassName, Map<String, Element> members, List<FieldModel> fields) {
+        TypeSpec.Builder values = TypeSpec.classBuilder(VALUES);
+        values.addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL);
+        values.addSuperinterface(projectionClassName);
+        int i = 0;
+        for (Element getter : members.values()) {
+            FieldModel field = fields.get(i++);
+            values.addField(field.getTypeName(), field.getName());
+            values.addMethod(MethodSpec.methodBuilder(getter.getSimpleName().toString())
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(field.getTypeName())
+                    .addStatement("return $N", field.getName())
+                    .build());
+        }
+        return values.build();
+    }
+
+    /**
+     * Returns members of projection by names of table fields in declaration order. Class members are its non-static fields,
+     * interface members are its {@code getX()} and {@code isX()} methods.
+     */
+    private static Map<String, Element> getMembers(TypeElement projection) {
+        Map<String, Element> members = new LinkedHashMap<>();
+        boolean isInterface = projection.getKind() == ElementKind.INTERFACE;
+        for (Element enclosed : projection.getEnclosedElements()) {
+            if (enclosed.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            if (!isInterface && enclosed.getKind() == ElementKind.FIELD) {
+                members.put(enclosed.getSimpleName().toString(), enclosed);
+            } else if (isInterface && enclosed.getKind() == ElementKind.METHOD && enclosed.getModifiers().contains(Modifier.ABSTRACT)) {
+                members.put(getPropertyName(enclosed.getSimpleName().toString()), enclosed);
+            }
+        }
+        return members;
+    }
+
+    private static String getPropertyName(String getterName) {
+        int prefixLength = getterName.startsWith("get") ? 3 : (getterName.startsWith("is") ? 2 : 0);
+        if (prefixLength == 0 || getterName.length() == prefixLength) {
+            return getterName;
+        }
+        return getterName.substring(prefixLength, prefixLength + 1).toLowerCase() + getterName.substring(prefixLength + 1);
+    }
+
+    private static FieldModel getTableField(TableModel table, String name) {
+        for (FieldModel field : table.getFields()) {
+            if (!field.isForeignCollection() && field.getName().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    public static ClassName getMapperClassName(ClassName projectionClassName) {
+        return ClassName.get(projectionClassName.packageName(), String.format("%sMapper", projectionClassName.simpleName()));
+    }
+
+}
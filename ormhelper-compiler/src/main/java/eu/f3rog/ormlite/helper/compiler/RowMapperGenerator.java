@@ -0,0 +1,329 @@
+package eu.f3rog.ormlite.helper.compiler;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Class {@link RowMapperGenerator}.
+ * <p>
+ * Generates {@code TableRowMapper} which reads columns by fixed indexes and assigns fields of table class directly.
+ * Generated mapper is placed in the package of table class, so it can access package-private fields.
+ * </p>
+ */
+public class RowMapperGenerator {
+
+    static final String RESULTS = "results";
+    private static final String DATA = "data";
+    private static final String COLUMNS = "COLUMNS";
+
+    private static final Set<String> UNSUPPORTED_ATTRIBUTES = new HashSet<>(Arrays.asList(
+            "foreign", "useGetSet", "persisterClass"
+    ));
+
+    /**
+     * Returns reason why row mapper cannot be generated for given table or {@code null} if it can be generated.
+     */
+    public String getUnsupportedReason(TableModel table) {
+        TypeElement tableClass = table.getElement();
+        if (tableClass.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "class is abstract";
+        }
+        if (tableClass.getEnclosingElement().getKind() != ElementKind.PACKAGE
+                && (!tableClass.getModifiers().contains(Modifier.STATIC) || tableClass.getModifiers().contains(Modifier.PRIVATE))) {
+            return "nested class has to be static and not private";
+        }
+        if (!hasAccessibleEmptyConstructor(tableClass)) {
+            return "class has no accessible empty constructor";
+        }
+
+        Set<String> fieldNames = new HashSet<>();
+        String tablePackage = getPackageName(tableClass);
+        for (FieldModel field : table.getFields()) {
+            if (!fieldNames.add(field.getName())) {
+                return String.format("field '%s' is declared more than once", field.getName());
+            }
+            if (field.isForeignCollection()) {
+                return String.format("field '%s' is foreign collection", field.getName());
+            }
+            for (String attribute : UNSUPPORTED_ATTRIBUTES) {
+                if (field.getBoolean(attribute) || (field.has(attribute) && !(field.getValues().get(attribute) instanceof Boolean))) {
+                    return String.format("field '%s' uses '%s'", field.getName(), attribute);
+                }
+            }
+            Set<Modifier> modifiers = field.getElement().getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+                return String.format("field '%s' is private, final or static", field.getName());
+            }
+            if (!tablePackage.equals(getPackageName(field.getElement())) && !modifiers.contains(Modifier.PUBLIC)) {
+                return String.format("field '%s' is not public and is declared in other package", field.getName());
+            }
+            if (getColumnKind(field) == null) {
+                return String.format("type of field '%s' is not supported", field.getName());
+            }
+        }
+        return null;
+    }
+
+    public TypeSpec generate(TableModel table) {
+        ClassName tableClassName = table.getClassName();
+        List<FieldModel> fields = table.getFields();
+
+        TypeSpec.Builder rowMapper = TypeSpec.classBuilder(getRowMapperClassName(tableClassName).simpleName());
+        rowMapper.addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+        rowMapper.superclass(ParameterizedTypeName.get(EClass.TableRowMapper.getName(), tableClassName));
+        rowMapper.addOriginatingElement(table.getElement());
+
+        // add column index constants
+        String columnsFormat = "{";
+        Object[] columns = new Object[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            FieldModel field = fields.get(i);
+            rowMapper.addField(FieldSpec.builder(int.class, getIndexName(field), Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", i)
+                    .build());
+            columnsFormat += (i > 0) ? ", $S" : "$S";
+            columns[i] = field.getColumnName();
+        }
+        columnsFormat += "}";
+        rowMapper.addField(FieldSpec.builder(ArrayTypeName.of(String.class), COLUMNS, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer(columnsFormat, columns)
+                .build());
+
+        // add constructor
+        rowMapper.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addStatement("super($N)", COLUMNS)
+                .build());
+
+        // add mapRow method
+        MethodSpec.Builder method = MethodSpec.methodBuilder("mapRow");
+        method.addAnnotation(Override.class);
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(tableClassName);
+        method.addParameter(EClass.DatabaseResults.getName(), RESULTS);
+        method.addException(SQLException.class);
+        method.addStatement("$T $N = new $T()", tableClassName, DATA, tableClassName);
+        for (FieldModel field : fields) {
+            addReadStatement(method, field, DATA);
+        }
+        method.addStatement("return $N", DATA);
+        rowMapper.addMethod(method.build());
+
+        return rowMapper.build();
+    }
+
+    /**
+     * Adds statements which read given field from results and assign it to the same named field of given object.
+     */
+    static void addReadStatement(MethodSpec.Builder method, FieldModel field, String data) {
+        ColumnKind kind = getColumnKind(field);
+        String index = getIndexName(field);
+        String name = field.getName();
+        switch (kind) {
+            case PRIMITIVE:
+            case STRING:
+            case BYTES:
+                method.addStatement("$N.$N = $N.$N($N)", data, name, RESULTS, getResultsGetter(field.getType().getKind()), index);
+                break;
+            case BOXED:
+                TypeKind primitiveKind = getUnboxedKind(field.getType());
+                method.addStatement("$T $N = $N.$N($N)", getPrimitiveTypeName(primitiveKind), name + "Value", RESULTS, getResultsGetter(primitiveKind), index);
+                method.addStatement("$N.$N = $N.wasNull($N) ? null : $N", data, name, RESULTS, index, name + "Value");
+                break;
+            case ENUM:
+                String unknownEnumName = field.getString("unknownEnumName");
+                if (unknownEnumName != null) {
+                    method.addStatement("$N.$N = toEnum($T.class, $N.getString($N), $T.$N)", data, name, field.getTypeName(), RESULTS, index, field.getTypeName(), unknownEnumName);
+                } else {
+                    method.addStatement("$N.$N = toEnum($T.class, $N.getString($N), null)", data, name, field.getTypeName(), RESULTS, index);
+                }
+                break;
+            case DATE_LONG:
+                method.addStatement("long $N = $N.getLong($N)", name + "Value", RESULTS, index);
+                method.addStatement("$N.$N = $N.wasNull($N) ? null : new $T($N)", data, name, RESULTS, index, Date.class, name + "Value");
+                break;
+        }
+    }
+
+    enum ColumnKind {
+        PRIMITIVE, BOXED, STRING, ENUM, DATE_LONG, BYTES
+    }
+
+    /**
+     * Returns how the field is read from results or {@code null} if it is not supported by generated mapper.
+     */
+    static ColumnKind getColumnKind(FieldModel field) {
+        TypeMirror type = field.getType();
+        String dataType = field.has("dataType") ? ((VariableElement) field.getValues().get("dataType")).getSimpleName().toString() : null;
+        if (type.getKind().isPrimitive()) {
+            return (dataType == null || dataType.equals(getDataTypeName(type.getKind(), false))) ? ColumnKind.PRIMITIVE : null;
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return ("BYTE_ARRAY".equals(dataType) && TypeName.get(type).equals(ArrayTypeName.of(byte.class))) ? ColumnKind.BYTES : null;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeKind unboxedKind = getUnboxedKind(type);
+        if (unboxedKind != null) {
+            return (dataType == null || dataType.equals(getDataTypeName(unboxedKind, true))) ? ColumnKind.BOXED : null;
+        }
+        if (TypeName.get(type).equals(ClassName.get(String.class))) {
+            return (dataType == null || dataType.equals("STRING") || dataType.equals("LONG_STRING")) ? ColumnKind.STRING : null;
+        }
+        if (((DeclaredType) type).asElement().getKind() == ElementKind.ENUM) {
+            return (dataType == null || dataType.equals("ENUM_STRING")) ? ColumnKind.ENUM : null;
+        }
+        if (TypeName.get(type).equals(ClassName.get(Date.class))) {
+            return "DATE_LONG".equals(dataType) ? ColumnKind.DATE_LONG : null;
+        }
+        return null;
+    }
+
+    private static final List<TypeKind> PRIMITIVE_KINDS = Arrays.asList(TypeKind.BOOLEAN, TypeKind.BYTE, TypeKind.SHORT,
+            TypeKind.CHAR, TypeKind.INT, TypeKind.LONG, TypeKind.FLOAT, TypeKind.DOUBLE);
+
+    static TypeKind getUnboxedKind(TypeMirror type) {
+        TypeName typeName = TypeName.get(type);
+        for (TypeKind kind : PRIMITIVE_KINDS) {
+            if (typeName.equals(getBoxedClassName(kind))) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    static TypeName getPrimitiveTypeName(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return TypeName.BOOLEAN;
+            case BYTE:
+                return TypeName.BYTE;
+            case SHORT:
+                return TypeName.SHORT;
+            case CHAR:
+                return TypeName.CHAR;
+            case INT:
+                return TypeName.INT;
+            case LONG:
+                return TypeName.LONG;
+            case FLOAT:
+                return TypeName.FLOAT;
+            default:
+                return TypeName.DOUBLE;
+        }
+    }
+
+    private static ClassName getBoxedClassName(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return ClassName.get(Boolean.class);
+            case BYTE:
+                return ClassName.get(Byte.class);
+            case SHORT:
+                return ClassName.get(Short.class);
+            case CHAR:
+                return ClassName.get(Character.class);
+            case INT:
+                return ClassName.get(Integer.class);
+            case LONG:
+                return ClassName.get(Long.class);
+            case FLOAT:
+                return ClassName.get(Float.class);
+            case DOUBLE:
+                return ClassName.get(Double.class);
+            default:
+                return null;
+        }
+    }
+
+    private static String getDataTypeName(TypeKind primitiveKind, boolean boxed) {
+        String name;
+        switch (primitiveKind) {
+            case INT:
+                name = "INTEGER";
+                break;
+            default:
+                name = primitiveKind.name();
+                break;
+        }
+        return boxed ? name + "_OBJ" : name;
+    }
+
+    static String getResultsGetter(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return "getBoolean";
+            case BYTE:
+                return "getByte";
+            case SHORT:
+                return "getShort";
+            case CHAR:
+                return "getChar";
+            case INT:
+                return "getInt";
+            case LONG:
+                return "getLong";
+            case FLOAT:
+                return "getFloat";
+            case DOUBLE:
+                return "getDouble";
+            case ARRAY:
+                return "getBytes";
+            default:
+                return "getString";
+        }
+    }
+
+    static boolean hasAccessibleEmptyConstructor(TypeElement tableClass) {
+        boolean hasConstructor = false;
+        for (Element e : tableClass.getEnclosedElements()) {
+            if (e.getKind() == ElementKind.CONSTRUCTOR) {
+                hasConstructor = true;
+                if (((ExecutableElement) e).getParameters().isEmpty() && !e.getModifiers().contains(Modifier.PRIVATE)) {
+                    return true;
+                }
+            }
+        }
+        return !hasConstructor;
+    }
+
+    static String getPackageName(Element element) {
+        while (element.getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+        return ((PackageElement) element).getQualifiedName().toString();
+    }
+
+    static String getIndexName(FieldModel field) {
+        return "INDEX_" + ProcessorUtils.toConstantName(field.getName());
+    }
+
+    public static ClassName getRowMapperClassName(ClassName tableClassName) {
+        return ClassName.get(tableClassName.packageName(), String.format("%sRowMapper", tableClassName.simpleName()));
+    }
+
+}
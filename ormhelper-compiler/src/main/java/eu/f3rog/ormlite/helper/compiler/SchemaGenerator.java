@@ -0,0 +1,333 @@
+package eu.f3rog.ormlite.helper.compiler;
+
+import com.j256.ormlite.field.DataPersister;
+import com.j256.ormlite.field.DataType;
+import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.field.types.EnumStringType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Class {@link SchemaGenerator}.
+ * <p>
+ * Builds {@code CREATE TABLE} and {@code CREATE INDEX} statements at compile time. Statements are the same as
+ * {@code TableUtils.createTable} produces for Android SQLite, but without reflection at runtime.
+ * </p>
+ */
+public class SchemaGenerator {
+
+    private static final Map<String, DataPersister> BUILT_IN_PERSISTERS = new HashMap<>();
+
+    static {
+        // same lookup as DataPersisterManager does for field class
+        for (DataType dataType : DataType.values()) {
+            DataPersister persister = dataType.getDataPersister();
+            if (persister == null) {
+                continue;
+            }
+            for (Class<?> clazz : persister.getAssociatedClasses()) {
+                BUILT_IN_PERSISTERS.put(clazz.getName(), persister);
+            }
+            if (persister.getAssociatedClassNames() != null) {
+                for (String className : persister.getAssociatedClassNames()) {
+                    BUILT_IN_PERSISTERS.put(className, persister);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns reason why statements cannot be generated for given table or {@code null} if they can be generated.
+     */
+    public String getUnsupportedReason(TableModel table) {
+        for (FieldModel field : table.getFields()) {
+            if (field.isForeignCollection()) {
+                continue;
+            }
+            String reason = getUnsupportedReason(field);
+            if (reason != null) {
+                return String.format("field '%s' %s", field.getName(), reason);
+            }
+        }
+        return null;
+    }
+
+    private String getUnsupportedReason(FieldModel field) {
+        if (field.has("persisterClass") || field.has("foreignColumnName") || field.getBoolean("foreignAutoRefresh")
+                || field.getString("generatedIdSequence") != null) {
+            return "uses custom persister, foreign column or id sequence";
+        }
+        if (field.getString("columnDefinition") != null) {
+            return null;
+        }
+        DataPersister persister = getDataPersister(field);
+        if (persister == null || getColumnType(persister.getSqlType(), false) == null) {
+            return "has type which is not supported";
+        }
+        if (field.getBoolean("generatedId")
+                && (persister.isSelfGeneratedId() || (persister.getSqlType() != SqlType.INTEGER && persister.getSqlType() != SqlType.LONG))) {
+            return "is generated id which is not integer or long";
+        }
+        if (!field.getBoolean("generatedId") && field.getString("defaultValue") != null && getDefaultValue(field, persister) == null) {
+            return "has default value which is not supported";
+        }
+        return null;
+    }
+
+    /**
+     * Returns statements which create given table. Table has to be supported.
+     */
+    public List<String> getCreateStatements(TableModel table) {
+        String tableName = table.getTableName();
+        StringBuilder sb = new StringBuilder(256);
+        List<String> additionalArgs = new ArrayList<>();
+        StringBuilder primaryKey = null;
+        StringBuilder uniqueCombo = null;
+
+        sb.append("CREATE TABLE ");
+        appendEscapedName(sb, tableName);
+        sb.append(" (");
+        boolean first = true;
+        for (FieldModel field : table.getFields()) {
+            if (field.isForeignCollection()) {
+                continue;
+            }
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            appendColumn(sb, field, additionalArgs);
+
+            if (field.isId() && !field.getBoolean("generatedId")) {
+                primaryKey = appendToList(primaryKey, "PRIMARY KEY (", field.getColumnName());
+            }
+            if (field.getBoolean("uniqueCombo")) {
+                uniqueCombo = appendToList(uniqueCombo, "UNIQUE (", field.getColumnName());
+            }
+        }
+        if (primaryKey != null) {
+            additionalArgs.add(primaryKey.append(") ").toString());
+        }
+        if (uniqueCombo != null) {
+            additionalArgs.add(uniqueCombo.append(") ").toString());
+        }
+        for (String arg : additionalArgs) {
+            sb.append(", ").append(arg);
+        }
+        sb.append(") ");
+
+        List<String> statements = new ArrayList<>();
+        statements.add(sb.toString());
+        addCreateIndexStatements(statements, table, false);
+        addCreateIndexStatements(statements, table, true);
+        return statements;
+    }
+
+    private void appendColumn(StringBuilder sb, FieldModel field, List<String> additionalArgs) {
+        appendEscapedName(sb, field.getColumnName());
+        sb.append(' ');
+        String columnDefinition = field.getString("columnDefinition");
+        if (columnDefinition != null) {
+            // hand defined column
+            sb.append(columnDefinition).append(' ');
+            return;
+        }
+
+        boolean generatedId = field.getBoolean("generatedId");
+        DataPersister persister = getDataPersister(field);
+        sb.append(getColumnType(persister.getSqlType(), generatedId)).append(' ');
+        if (generatedId) {
+            // neither default value nor not null make sense for generated id
+            sb.append("PRIMARY KEY AUTOINCREMENT ");
+            return;
+        }
+        if (field.getString("defaultValue") != null) {
+            sb.append("DEFAULT ").append(getDefaultValue(field, persister)).append(' ');
+        }
+        if (field.has("canBeNull") && !field.getBoolean("canBeNull")) {
+            sb.append("NOT NULL ");
+        }
+        if (field.getBoolean("unique")) {
+            StringBuilder unique = new StringBuilder(" UNIQUE (");
+            appendEscapedName(unique, field.getColumnName());
+            additionalArgs.add(unique.append(")").toString());
+        }
+    }
+
+    private void addCreateIndexStatements(List<String> statements, TableModel table, boolean unique) {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        for (FieldModel field : table.getFields()) {
+            String indexName = getIndexName(table, field, unique);
+            if (indexName == null) {
+                continue;
+            }
+            List<String> columns = indexes.get(indexName);
+            if (columns == null) {
+                columns = new ArrayList<>();
+                indexes.put(indexName, columns);
+            }
+            columns.add(field.getColumnName());
+        }
+
+        for (Map.Entry<String, List<String>> index : indexes.entrySet()) {
+            StringBuilder sb = new StringBuilder(128);
+            sb.append(unique ? "CREATE UNIQUE INDEX " : "CREATE INDEX ");
+            appendEscapedName(sb, index.getKey());
+            sb.append(" ON ");
+            appendEscapedName(sb, table.getTableName());
+            sb.append(" ( ");
+            for (int i = 0; i < index.getValue().size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                appendEscapedName(sb, index.getValue().get(i));
+            }
+            sb.append(" )");
+            statements.add(sb.toString());
+        }
+    }
+
+    private String getIndexName(TableModel table, FieldModel field, boolean unique) {
+        String indexName = field.getString(unique ? "uniqueIndexName" : "indexName");
+        if (indexName == null && field.getBoolean(unique ? "uniqueIndex" : "index")) {
+            // ORMLite uses field name (not foreign column name) unless column name is specified
+            String columnName = field.getString("columnName");
+            indexName = String.format("%s_%s_idx", table.getTableName(), (columnName != null) ? columnName : field.getName());
+        }
+        return indexName;
+    }
+
+    private DataPersister getDataPersister(FieldModel field) {
+        if (field.isForeign()) {
+            FieldModel foreignId = getForeignIdField(field);
+            return (foreignId != null && !foreignId.isForeign()) ? getDataPersister(foreignId) : null;
+        }
+        Object dataType = field.getValues().get("dataType");
+        if (dataType instanceof VariableElement) {
+            return DataType.valueOf(((VariableElement) dataType).getSimpleName().toString()).getDataPersister();
+        }
+
+        TypeMirror type = field.getType();
+        if (type.getKind().isPrimitive()) {
+            return BUILT_IN_PERSISTERS.get(type.toString());
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+        if (typeElement.getKind() == ElementKind.ENUM) {
+            return EnumStringType.getSingleton();
+        }
+        return BUILT_IN_PERSISTERS.get(typeElement.getQualifiedName().toString());
+    }
+
+    private FieldModel getForeignIdField(FieldModel field) {
+        TypeMirror type = field.getType();
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return TableModel.from((TypeElement) ((DeclaredType) type).asElement()).getIdField();
+    }
+
+    /**
+     * Returns Android SQLite column type for given SQL type or {@code null} if it is not supported.
+     */
+    private static String getColumnType(SqlType sqlType, boolean generatedId) {
+        switch (sqlType) {
+            case STRING:
+            case DATE:
+                // Android stores dates as strings
+                return "VARCHAR";
+            case LONG_STRING:
+                return "TEXT";
+            case BOOLEAN:
+            case SHORT:
+                return "SMALLINT";
+            case CHAR:
+                return "CHAR";
+            case BYTE:
+                return "TINYINT";
+            case BYTE_ARRAY:
+            case SERIALIZABLE:
+                return "BLOB";
+            case INTEGER:
+                return "INTEGER";
+            case LONG:
+                // SQLite needs INTEGER for auto-increment key
+                return generatedId ? "INTEGER" : "BIGINT";
+            case FLOAT:
+                return "FLOAT";
+            case DOUBLE:
+                return "DOUBLE PRECISION";
+            case BIG_DECIMAL:
+                return "NUMERIC";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns default value as it is written to SQL or {@code null} if it is not supported.
+     * Only default values of fields without explicit data type are supported.
+     */
+    private static String getDefaultValue(FieldModel field, DataPersister persister) {
+        if (field.has("dataType") || field.isForeign()) {
+            return null;
+        }
+        String value = field.getString("defaultValue");
+        try {
+            switch (persister.getSqlType()) {
+                case STRING:
+                    boolean isString = persister == EnumStringType.getSingleton()
+                            || persister == DataType.STRING.getDataPersister();
+                    return isString ? "'" + value + "'" : null;
+                case CHAR:
+                    return (value.length() == 1) ? "'" + value + "'" : null;
+                case BOOLEAN:
+                    return Boolean.parseBoolean(value) ? "1" : "0";
+                case BYTE:
+                    return String.valueOf(Byte.parseByte(value));
+                case SHORT:
+                    return String.valueOf(Short.parseShort(value));
+                case INTEGER:
+                    return String.valueOf(Integer.parseInt(value));
+                case LONG:
+                    return String.valueOf(Long.parseLong(value));
+                case FLOAT:
+                    return String.valueOf(Float.parseFloat(value));
+                case DOUBLE:
+                    return String.valueOf(Double.parseDouble(value));
+                default:
+                    return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static StringBuilder appendToList(StringBuilder sb, String prefix, String columnName) {
+        if (sb == null) {
+            sb = new StringBuilder(48).append(prefix);
+        } else {
+            sb.append(',');
+        }
+        appendEscapedName(sb, columnName);
+        return sb;
+    }
+
+    private static void appendEscapedName(StringBuilder sb, String name) {
+        sb.append('`').append(name).append('`');
+    }
+
+}
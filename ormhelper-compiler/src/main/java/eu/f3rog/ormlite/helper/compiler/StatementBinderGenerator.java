@@ -0,0 +1,265 @@
+package eu.f3rog.ormlite.helper.compiler;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.type.TypeKind;
+
+/**
+ * Class {@link StatementBinderGenerator}.
+ * <p>
+ * Generates binder which inserts table objects with one compiled {@code INSERT} (or {@code INSERT OR REPLACE})
+ * statement. Values are bound directly from fields, so generated binder is placed in the package of table class.
+ * </p>
+ */
+public class StatementBinderGenerator {
+
+    private static final String STATEMENT = "statement";
+    private static final String DATA = "data";
+    private static final String DATABASE = "database";
+    private static final String INSERT = "INSERT";
+    private static final String REPLACE = "REPLACE";
+
+    private final RowMapperGenerator mRowMapperGenerator = new RowMapperGenerator();
+
+    /**
+     * Returns reason why binder cannot be generated for given table or {@code null} if it can be generated.
+     */
+    public String getUnsupportedReason(TableModel table) {
+        // fields have to be accessible and of simple types same as for row mapper
+        String reason = mRowMapperGenerator.getUnsupportedReason(table);
+        if (reason != null) {
+            return reason;
+        }
+        for (FieldModel field : table.getFields()) {
+            if (field.has("defaultValue") || field.getBoolean("version") || field.getBoolean("readOnly")
+                    || field.getBoolean("allowGeneratedIdInsert") || field.has("generatedIdSequence")) {
+                return String.format("field '%s' uses default value, version, read only or special id", field.getName());
+            }
+            if (field.getBoolean("generatedId") && !isIntegerKind(field)) {
+                return String.format("generated id '%s' is not integer or long", field.getName());
+            }
+        }
+        return null;
+    }
+
+    public TypeSpec generate(TableModel table) {
+        ClassName tableClassName = table.getClassName();
+        FieldModel generatedId = getGeneratedIdField(table);
+        List<FieldModel> columns = new ArrayList<>();
+        for (FieldModel field : table.getFields()) {
+            if (field != generatedId) {
+                columns.add(field);
+            }
+        }
+
+        TypeSpec.Builder binder = TypeSpec.classBuilder(getStatementBinderClassName(tableClassName).simpleName());
+        binder.addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+        binder.addOriginatingElement(table.getElement());
+
+        // add SQL constants, generated id is the last column of REPLACE statement
+        binder.addField(FieldSpec.builder(String.class, INSERT, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$S", getInsertSql("INSERT INTO ", table.getTableName(), columns))
+                .build());
+        List<FieldModel> replaceColumns = new ArrayList<>(columns);
+        if (generatedId != null) {
+            replaceColumns.add(generatedId);
+        }
+        binder.addField(FieldSpec.builder(String.class, REPLACE, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$S", getInsertSql("INSERT OR REPLACE INTO ", table.getTableName(), replaceColumns))
+                .build());
+
+        binder.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PRIVATE)
+                .build());
+
+        // add bind method
+        MethodSpec.Builder bind = MethodSpec.methodBuilder("bind");
+        bind.addJavadoc("Binds all columns except generated id.\n");
+        bind.addModifiers(Modifier.PUBLIC, Modifier.STATIC);
+        bind.addParameter(EClass.SQLiteStatement.getName(), STATEMENT);
+        bind.addParameter(tableClassName, DATA);
+        for (int i = 0; i < columns.size(); i++) {
+            addBindStatement(bind, columns.get(i), i + 1);
+        }
+        binder.addMethod(bind.build());
+
+        binder.addMethod(generateInsertAllMethod(tableClassName, generatedId));
+        binder.addMethod(generateUpsertAllMethod(tableClassName, generatedId, replaceColumns.size()));
+
+        return binder.build();
+    }
+
+    private MethodSpec generateInsertAllMethod(ClassName tableClassName, FieldModel generatedId) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder("insertAll");
+        method.addModifiers(Modifier.PUBLIC, Modifier.STATIC);
+        method.addParameter(EClass.SQLiteDatabase.getName(), DATABASE);
+        method.addParameter(ParameterizedTypeName.get(ClassName.get(Collection.class), tableClassName), DATA);
+
+        method.addStatement("$T insert = $N.compileStatement($N)", EClass.SQLiteStatement.getName(), DATABASE, INSERT);
+        method.beginControlFlow("try");
+        method.beginControlFlow("for ($T item : $N)", tableClassName, DATA);
+        method.addStatement("bind(insert, item)");
+        addExecuteInsert(method, generatedId);
+        method.endControlFlow();
+        method.endControlFlow();
+        method.beginControlFlow("finally");
+        method.addStatement("insert.close()");
+        method.endControlFlow();
+
+        return method.build();
+    }
+
+    private MethodSpec generateUpsertAllMethod(ClassName tableClassName, FieldModel generatedId, int idIndex) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder("upsertAll");
+        method.addModifiers(Modifier.PUBLIC, Modifier.STATIC);
+        method.addParameter(EClass.SQLiteDatabase.getName(), DATABASE);
+        method.addParameter(ParameterizedTypeName.get(ClassName.get(Collection.class), tableClassName), DATA);
+
+        if (generatedId == null) {
+            method.addStatement("$T replace = $N.compileStatement($N)", EClass.SQLiteStatement.getName(), DATABASE, REPLACE);
+            method.beginControlFlow("try");
+            method.beginControlFlow("for ($T item : $N)", tableClassName, DATA);
+            method.addStatement("bind(replace, item)");
+            method.addStatement("replace.executeInsert()");
+            method.endControlFlow();
+            method.endControlFlow();
+            method.beginControlFlow("finally");
+            method.addStatement("replace.close()");
+            method.endControlFlow();
+            return method.build();
+        }
+
+        // objects without id are inserted and get new id, others replace row with their id
+        String id = generatedId.getName();
+        method.addStatement("$T insert = $N.compileStatement($N)", EClass.SQLiteStatement.getName(), DATABASE, INSERT);
+        method.addStatement("$T replace = $N.compileStatement($N)", EClass.SQLiteStatement.getName(), DATABASE, REPLACE);
+        method.beginControlFlow("try");
+        method.beginControlFlow("for ($T item : $N)", tableClassName, DATA);
+        if (generatedId.getType().getKind().isPrimitive()) {
+            method.beginControlFlow("if (item.$N == 0)", id);
+        } else {
+            method.beginControlFlow("if (item.$N == null || item.$N == 0)", id, id);
+        }
+        method.addStatement("bind(insert, item)");
+        addExecuteInsert(method, generatedId);
+        method.endControlFlow();
+        method.beginControlFlow("else");
+        method.addStatement("bind(replace, item)");
+        method.addStatement("replace.bindLong($L, item.$N)", idIndex, id);
+        method.addStatement("replace.executeInsert()");
+        method.endControlFlow();
+        method.endControlFlow();
+        method.endControlFlow();
+        method.beginControlFlow("finally");
+        method.addStatement("insert.close()");
+        method.addStatement("replace.close()");
+        method.endControlFlow();
+
+        return method.build();
+    }
+
+    private void addExecuteInsert(MethodSpec.Builder method, FieldModel generatedId) {
+        if (generatedId == null) {
+            method.addStatement("insert.executeInsert()");
+        } else if (isLong(generatedId)) {
+            method.addStatement("item.$N = insert.executeInsert()", generatedId.getName());
+        } else {
+            method.addStatement("item.$N = (int) insert.executeInsert()", generatedId.getName());
+        }
+    }
+
+    private void addBindStatement(MethodSpec.Builder method, FieldModel field, int index) {
+        RowMapperGenerator.ColumnKind kind = RowMapperGenerator.getColumnKind(field);
+        String value = DATA + "." + field.getName();
+        if (kind == RowMapperGenerator.ColumnKind.PRIMITIVE) {
+            addBindValue(method, field.getType().getKind(), index, value);
+            return;
+        }
+
+        method.beginControlFlow("if ($N == null)", value);
+        method.addStatement("$N.bindNull($L)", STATEMENT, index);
+        method.endControlFlow();
+        method.beginControlFlow("else");
+        switch (kind) {
+            case BOXED:
+                addBindValue(method, RowMapperGenerator.getUnboxedKind(field.getType()), index, value);
+                break;
+            case STRING:
+                method.addStatement("$N.bindString($L, $N)", STATEMENT, index, value);
+                break;
+            case ENUM:
+                method.addStatement("$N.bindString($L, $N.name())", STATEMENT, index, value);
+                break;
+            case DATE_LONG:
+                method.addStatement("$N.bindLong($L, $N.getTime())", STATEMENT, index, value);
+                break;
+            case BYTES:
+                method.addStatement("$N.bindBlob($L, $N)", STATEMENT, index, value);
+                break;
+        }
+        method.endControlFlow();
+    }
+
+    /**
+     * Binds primitive value the same way as ORMLite stores it in Android SQLite.
+     */
+    private void addBindValue(MethodSpec.Builder method, TypeKind kind, int index, String value) {
+        switch (kind) {
+            case BOOLEAN:
+                method.addStatement("$N.bindLong($L, $N ? 1 : 0)", STATEMENT, index, value);
+                break;
+            case CHAR:
+                method.addStatement("$N.bindString($L, $T.valueOf($N))", STATEMENT, index, String.class, value);
+                break;
+            case FLOAT:
+            case DOUBLE:
+                method.addStatement("$N.bindDouble($L, $N)", STATEMENT, index, value);
+                break;
+            default:
+                method.addStatement("$N.bindLong($L, $N)", STATEMENT, index, value);
+                break;
+        }
+    }
+
+    private static String getInsertSql(String prefix, String tableName, List<FieldModel> columns) {
+        StringBuilder sb = new StringBuilder(prefix);
+        sb.append('`').append(tableName).append("` (");
+        for (int i = 0; i < columns.size(); i++) {
+            sb.append(i > 0 ? ", `" : "`").append(columns.get(i).getColumnName()).append('`');
+        }
+        sb.append(") VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+            sb.append(i > 0 ? ", ?" : "?");
+        }
+        return sb.append(')').toString();
+    }
+
+    private static FieldModel getGeneratedIdField(TableModel table) {
+        FieldModel id = table.getIdField();
+        return (id != null && id.getBoolean("generatedId")) ? id : null;
+    }
+
+    private static boolean isIntegerKind(FieldModel field) {
+        TypeKind kind = field.getType().getKind().isPrimitive() ? field.getType().getKind() : RowMapperGenerator.getUnboxedKind(field.getType());
+        return kind == TypeKind.INT || kind == TypeKind.LONG;
+    }
+
+    private static boolean isLong(FieldModel field) {
+        return field.getType().getKind() == TypeKind.LONG || TypeName.get(field.getType()).equals(ClassName.get(Long.class));
+    }
+
+    public static ClassName getStatementBinderClassName(ClassName tableClassName) {
+        return ClassName.get(tableClassName.packageName(), String.format("%sStatementBinder", tableClassName.simpleName()));
+    }
+
+}
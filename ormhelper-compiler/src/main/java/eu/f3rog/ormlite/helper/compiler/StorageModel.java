@@ -0,0 +1,131 @@
+package eu.f3rog.ormlite.helper.compiler;
+
+import com.squareup.javapoet.ClassName;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+
+import eu.f3rog.ormlite.helper.Helper;
+import eu.f3rog.ormlite.helper.Storage;
+
+/**
+ * Class {@link StorageModel}.
+ * <p>
+ * Compile-time view of {@code @Storage} profile of a helper class. Only attributes explicitly specified
+ * in {@code @Storage} are kept, so values are read from annotation mirror instead of nested annotation default.
+ * </p>
+ */
+public class StorageModel {
+
+    private final Map<String, Object> mValues;
+
+    public static StorageModel from(TypeElement helperClass) {
+        Map<String, Object> values = new HashMap<>();
+        AnnotationMirror storage = getStorageMirror(helperClass);
+        if (storage != null) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : storage.getElementValues().entrySet()) {
+                values.put(e.getKey().getSimpleName().toString(), e.getValue().getValue());
+            }
+        }
+        return new StorageModel(values);
+    }
+
+    private static AnnotationMirror getStorageMirror(TypeElement helperClass) {
+        for (AnnotationMirror annotationMirror : helperClass.getAnnotationMirrors()) {
+            if (!ClassName.get(Helper.class).equals(ClassName.get(annotationMirror.getAnnotationType().asElement().asType()))) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : annotationMirror.getElementValues().entrySet()) {
+                if (e.getKey().getSimpleName().contentEquals("storage")) {
+                    return (AnnotationMirror) e.getValue().getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private StorageModel(Map<String, Object> values) {
+        mValues = values;
+    }
+
+    public long getMmapSize() {
+        return getNumber("mmapSize").longValue();
+    }
+
+    public int getPageSize() {
+        return getNumber("pageSize").intValue();
+    }
+
+    public int getCacheSizeKb() {
+        return getNumber("cacheSizeKb").intValue();
+    }
+
+    /**
+     * Returns name of {@link Storage.Synchronous} constant.
+     */
+    public String getSynchronous() {
+        return getEnumName("synchronous", Storage.Synchronous.DEFAULT);
+    }
+
+    /**
+     * Returns name of {@link Storage.TempStore} constant.
+     */
+    public String getTempStore() {
+        return getEnumName("tempStore", Storage.TempStore.DEFAULT);
+    }
+
+    /**
+     * Returns name of {@link Storage.AutoVacuum} constant.
+     */
+    public String getAutoVacuum() {
+        return getEnumName("autoVacuum", Storage.AutoVacuum.DEFAULT);
+    }
+
+    public boolean hasMmapSize() {
+        return getMmapSize() != Storage.UNDEFINED;
+    }
+
+    public boolean hasPageSize() {
+        return getPageSize() != Storage.UNDEFINED;
+    }
+
+    public boolean hasCacheSize() {
+        return getCacheSizeKb() != Storage.UNDEFINED;
+    }
+
+    public boolean hasSynchronous() {
+        return !Storage.Synchronous.DEFAULT.name().equals(getSynchronous());
+    }
+
+    public boolean hasTempStore() {
+        return !Storage.TempStore.DEFAULT.name().equals(getTempStore());
+    }
+
+    public boolean hasAutoVacuum() {
+        return !Storage.AutoVacuum.DEFAULT.name().equals(getAutoVacuum());
+    }
+
+    /**
+     * Returns {@code true} if any pragma has to be applied whenever database is opened.
+     */
+    public boolean hasOpenPragmas() {
+        return hasPageSize() || hasAutoVacuum() || hasMmapSize() || hasCacheSize() || hasSynchronous() || hasTempStore();
+    }
+
+    private Number getNumber(String attribute) {
+        Object value = mValues.get(attribute);
+        return (value != null) ? (Number) value : Storage.UNDEFINED;
+    }
+
+    private String getEnumName(String attribute, Enum<?> defaultValue) {
+        Object value = mValues.get(attribute);
+        return (value != null) ? ((VariableElement) value).getSimpleName().toString() : defaultValue.name();
+    }
+
+}
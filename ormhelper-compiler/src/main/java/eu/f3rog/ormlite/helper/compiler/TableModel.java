@@ -0,0 +1,147 @@
+package eu.f3rog.ormlite.helper.compiler;
+
+import com.j256.ormlite.table.DatabaseTable;
+import com.squareup.javapoet.ClassName;
+
+import eu.f3rog.ormlite.helper.PageKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Class {@link TableModel}.
+ * <p>
+ * Compile-time view of a class annotated with {@code @DatabaseTable}.
+ * Fields are ordered the same way as ORMLite orders them (class fields first, then fields of super classes).
+ * </p>
+ */
+public class TableModel {
+
+    private final TypeElement mElement;
+    private final ClassName mClassName;
+    private final String mTableName;
+    private final List<FieldModel> mFields;
+    private final FieldModel mIdField;
+    private final List<VariableElement> mPageKeyElements;
+    private final boolean mCustomDao;
+
+    public static TableModel from(TypeElement tableClass) {
+        List<FieldModel> fields = new ArrayList<>();
+        FieldModel idField = null;
+        List<VariableElement> pageKeyElements = new ArrayList<>();
+
+        TypeElement superClass = tableClass;
+        while (superClass != null && !ClassName.get(superClass).equals(ClassName.get(Object.class))) {
+            for (Element enclosed : superClass.getEnclosedElements()) {
+                if (enclosed.getKind() == ElementKind.FIELD) {
+                    if (enclosed.getAnnotation(PageKey.class) != null) {
+                        pageKeyElements.add((VariableElement) enclosed);
+                    }
+                    FieldModel field = FieldModel.from((VariableElement) enclosed);
+                    if (field != null) {
+                        fields.add(field);
+                        if (idField == null && field.isId()) {
+                            idField = field;
+                        }
+                    }
+                }
+            }
+            // get super class
+            TypeMirror superType = superClass.getSuperclass();
+            superClass = (superType.getKind() == TypeKind.DECLARED) ? (TypeElement) ((DeclaredType) superType).asElement() : null;
+        }
+
+        return new TableModel(tableClass, getTableName(tableClass), fields, idField, pageKeyElements, hasDaoClass(tableClass));
+    }
+
+    private static boolean hasDaoClass(TypeElement tableClass) {
+        for (AnnotationMirror annotationMirror : tableClass.getAnnotationMirrors()) {
+            if (!ClassName.get(DatabaseTable.class).equals(ClassName.get(annotationMirror.getAnnotationType().asElement().asType()))) {
+                continue;
+            }
+            for (ExecutableElement attribute : annotationMirror.getElementValues().keySet()) {
+                if (attribute.getSimpleName().contentEquals("daoClass")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String getTableName(TypeElement tableClass) {
+        DatabaseTable databaseTable = tableClass.getAnnotation(DatabaseTable.class);
+        if (databaseTable != null && databaseTable.tableName().length() > 0) {
+            return databaseTable.tableName();
+        }
+        return tableClass.getSimpleName().toString().toLowerCase();
+    }
+
+    private TableModel(TypeElement element, String tableName, List<FieldModel> fields, FieldModel idField, List<VariableElement> pageKeyElements,
+                       boolean customDao) {
+        mElement = element;
+        mClassName = ClassName.get(element);
+        mTableName = tableName;
+        mFields = Collections.unmodifiableList(fields);
+        mIdField = idField;
+        mPageKeyElements = Collections.unmodifiableList(pageKeyElements);
+        mCustomDao = customDao;
+    }
+
+    public TypeElement getElement() {
+        return mElement;
+    }
+
+    public ClassName getClassName() {
+        return mClassName;
+    }
+
+    public String getTableName() {
+        return mTableName;
+    }
+
+    public List<FieldModel> getFields() {
+        return mFields;
+    }
+
+    public FieldModel getIdField() {
+        return mIdField;
+    }
+
+    /**
+     * Returns all fields annotated with {@code @PageKey}, including invalid ones.
+     */
+    public List<VariableElement> getPageKeyElements() {
+        return mPageKeyElements;
+    }
+
+    /**
+     * Returns column field annotated with {@code @PageKey} or {@code null} if rows are paged by id.
+     */
+    public FieldModel getPageKeyField() {
+        for (FieldModel field : mFields) {
+            if (!field.isId() && field.getElement().getAnnotation(PageKey.class) != null) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code true} if table specifies its own DAO class in {@code @DatabaseTable}.
+     */
+    public boolean hasCustomDao() {
+        return mCustomDao;
+    }
+
+}
@@ -0,0 +1,149 @@
+package eu.f3rog.ormlite.helper.compiler;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.type.TypeKind;
+
+/**
+ * Class {@link ViewGenerator}.
+ * <p>
+ * Generates {@code CursorView} of table whose getters read columns of current cursor row by fixed indexes.
+ * Fields which cannot be read from one column (foreign objects, custom persisters) have no getter.
+ * </p>
+ */
+public class ViewGenerator {
+
+    private static final String CURSOR = "mCursor";
+    private static final String COLUMNS = "COLUMNS";
+
+    /**
+     * Returns fields of given table which can be read by generated view.
+     */
+    public List<FieldModel> getSupportedFields(TableModel table) {
+        List<FieldModel> fields = new ArrayList<>();
+        Set<String> fieldNames = new HashSet<>();
+        for (FieldModel field : table.getFields()) {
+            if (field.isForeignCollection() || field.getBoolean("foreign") || field.has("persisterClass")) {
+                continue;
+            }
+            if (RowMapperGenerator.getColumnKind(field) == null || !fieldNames.add(field.getName())) {
+                continue;
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    public TypeSpec generate(TableModel table) {
+        ClassName tableClassName = table.getClassName();
+        List<FieldModel> fields = getSupportedFields(table);
+
+        TypeSpec.Builder view = TypeSpec.classBuilder(getViewClassName(tableClassName).simpleName());
+        view.addJavadoc("View of rows of {@link $T} table which reads columns of current row lazily.\n", tableClassName);
+        view.addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+        view.superclass(EClass.CursorView.getName());
+        view.addOriginatingElement(table.getElement());
+
+        // add column index constants, columns are escaped because they are used in query
+        String columnsFormat = "{";
+        Object[] columns = new Object[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            FieldModel field = fields.get(i);
+            view.addField(FieldSpec.builder(int.class, RowMapperGenerator.getIndexName(field), Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", i)
+                    .build());
+            columnsFormat += (i > 0) ? ", $S" : "$S";
+            columns[i] = "`" + field.getColumnName() + "`";
+        }
+        columnsFormat += "}";
+        view.addField(FieldSpec.builder(ArrayTypeName.of(String.class), COLUMNS, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer(columnsFormat, columns)
+                .build());
+
+        // add constructor
+        view.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(EClass.Cursor.getName(), "cursor")
+                .addStatement("super(cursor)")
+                .build());
+
+        // add getters
+        for (FieldModel field : fields) {
+            view.addMethod(generateGetter(field));
+        }
+
+        return view.build();
+    }
+
+    private MethodSpec generateGetter(FieldModel field) {
+        String index = RowMapperGenerator.getIndexName(field);
+        TypeKind kind = field.getType().getKind();
+        String prefix = (kind == TypeKind.BOOLEAN) ? "is" : "get";
+        String name = field.getName();
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder(prefix + name.substring(0, 1).toUpperCase() + name.substring(1));
+        method.addModifiers(Modifier.PUBLIC);
+        method.returns(field.getTypeName());
+        switch (RowMapperGenerator.getColumnKind(field)) {
+            case PRIMITIVE:
+                method.addStatement("return $L", getPrimitiveRead(kind, index));
+                break;
+            case BOXED:
+                method.addStatement("return $N.isNull($N) ? null : $L", CURSOR, index,
+                        getPrimitiveRead(RowMapperGenerator.getUnboxedKind(field.getType()), index));
+                break;
+            case STRING:
+                method.addStatement("return $N.getString($N)", CURSOR, index);
+                break;
+            case BYTES:
+                method.addStatement("return $N.getBlob($N)", CURSOR, index);
+                break;
+            case ENUM:
+                String unknownEnumName = field.getString("unknownEnumName");
+                if (unknownEnumName != null) {
+                    method.addStatement("return toEnum($T.class, $N.getString($N), $T.$N)", field.getTypeName(), CURSOR, index, field.getTypeName(), unknownEnumName);
+                } else {
+                    method.addStatement("return toEnum($T.class, $N.getString($N), null)", field.getTypeName(), CURSOR, index);
+                }
+                break;
+            case DATE_LONG:
+                method.addStatement("return $N.isNull($N) ? null : new $T($N.getLong($N))", CURSOR, index, Date.class, CURSOR, index);
+                break;
+        }
+        return method.build();
+    }
+
+    /**
+     * Returns expression which reads primitive value the same way as ORMLite Android results do.
+     */
+    private static CodeBlock getPrimitiveRead(TypeKind kind, String index) {
+        switch (kind) {
+            case BOOLEAN:
+                return CodeBlock.builder().add("$N.getShort($N) != 0", CURSOR, index).build();
+            case BYTE:
+                return CodeBlock.builder().add("($T) $N.getShort($N)", TypeName.BYTE, CURSOR, index).build();
+            case CHAR:
+                return CodeBlock.builder().add("toChar($N.getString($N))", CURSOR, index).build();
+            default:
+                return CodeBlock.builder().add("$N.$N($N)", CURSOR, RowMapperGenerator.getResultsGetter(kind), index).build();
+        }
+    }
+
+    public static ClassName getViewClassName(ClassName tableClassName) {
+        return ClassName.get(tableClassName.packageName(), String.format("%sView", tableClassName.simpleName()));
+    }
+
+}
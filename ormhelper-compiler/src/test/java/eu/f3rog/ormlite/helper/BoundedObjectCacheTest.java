@@ -0,0 +1,133 @@
+package eu.f3rog.ormlite.helper;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class {@link BoundedObjectCacheTest}.
+ */
+public class BoundedObjectCacheTest {
+
+    public static class Item {
+
+        long id;
+        String name;
+
+        Item(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    @Test
+    public void leastRecentlyUsedObjectIsEvicted() {
+        BoundedObjectCache cache = create(2, 0);
+        Item a = new Item(1, "a");
+        Item b = new Item(2, "b");
+        Item c = new Item(3, "c");
+        cache.put(Item.class, 1L, a);
+        cache.put(Item.class, 2L, b);
+        // a becomes the most recently used
+        cache.get(Item.class, 1L);
+        cache.put(Item.class, 3L, c);
+
+        assertSame(a, cache.get(Item.class, 1L));
+        assertNull(cache.get(Item.class, 2L));
+        assertSame(c, cache.get(Item.class, 3L));
+        assertEquals(2, cache.size(Item.class));
+        assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void objectsAreEvictedByBytes() {
+        BoundedObjectCache cache = create(0, 1);
+        cache.put(Item.class, 1L, new Item(1, "a"));
+        long itemBytes = cache.getBytes(Item.class);
+        // limit of one byte cannot hold any object
+        assertEquals(0, cache.size(Item.class));
+        assertEquals(0, itemBytes);
+
+        cache = create(0, 1000);
+        cache.put(Item.class, 1L, new Item(1, "a"));
+        itemBytes = cache.getBytes(Item.class);
+        assertTrue(itemBytes > 0);
+        for (long id = 2; id <= 100; id++) {
+            cache.put(Item.class, id, new Item(id, "a"));
+        }
+        assertTrue(cache.getBytes(Item.class) <= 1000);
+        assertEquals(cache.size(Item.class) * itemBytes, cache.getBytes(Item.class));
+        assertEquals(100 - cache.size(Item.class), cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void bytesFollowReplaceAndRemove() {
+        BoundedObjectCache cache = create(10, 0);
+        cache.put(Item.class, 1L, new Item(1, "a"));
+        assertEquals(0, cache.getBytes(Item.class));
+
+        cache = create(0, 100000);
+        cache.put(Item.class, 1L, new Item(1, "a"));
+        long shortBytes = cache.getBytes(Item.class);
+        cache.put(Item.class, 1L, new Item(1, "a much longer name"));
+        long longBytes = cache.getBytes(Item.class);
+        assertTrue(longBytes > shortBytes);
+        assertEquals(1, cache.size(Item.class));
+
+        cache.put(Item.class, 2L, new Item(2, "a"));
+        assertEquals(longBytes + shortBytes, cache.getBytes(Item.class));
+        cache.remove(Item.class, 1L);
+        assertEquals(shortBytes, cache.getBytes(Item.class));
+        cache.clear(Item.class);
+        assertEquals(0, cache.getBytes(Item.class));
+    }
+
+    @Test
+    public void updateIdKeepsBytes() {
+        BoundedObjectCache cache = create(0, 100000);
+        Item a = new Item(1, "a");
+        cache.put(Item.class, 1L, a);
+        long bytesOfA = cache.getBytes(Item.class);
+        cache.put(Item.class, 2L, new Item(2, "a much longer name"));
+        long bytes = cache.getBytes(Item.class);
+
+        assertSame(a, cache.updateId(Item.class, 1L, 3L));
+        assertEquals(bytes, cache.getBytes(Item.class));
+        assertNull(cache.get(Item.class, 1L));
+        assertSame(a, cache.get(Item.class, 3L));
+
+        // object which had the new id is replaced
+        assertSame(a, cache.updateId(Item.class, 3L, 2L));
+        assertEquals(1, cache.size(Item.class));
+        assertEquals(bytesOfA, cache.getBytes(Item.class));
+        assertNull(cache.updateId(Item.class, 1L, 4L));
+    }
+
+    @Test
+    public void statsCountHitsAndMisses() {
+        BoundedObjectCache cache = create(10, 0);
+        cache.put(Item.class, 1L, new Item(1, "a"));
+        cache.get(Item.class, 1L);
+        cache.get(Item.class, 1L);
+        cache.get(Item.class, 2L);
+
+        assertEquals(2, cache.getStats().getHitCount());
+        assertEquals(1, cache.getStats().getMissCount());
+        assertEquals(0, cache.getStats().getEvictionCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cacheHasToBeLimited() {
+        new BoundedObjectCache(0, 0);
+    }
+
+    private static BoundedObjectCache create(int maxCount, long maxBytes) {
+        BoundedObjectCache cache = new BoundedObjectCache(maxCount, maxBytes);
+        cache.registerClass(Item.class);
+        return cache;
+    }
+
+}
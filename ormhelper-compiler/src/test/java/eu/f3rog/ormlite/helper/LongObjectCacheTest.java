@@ -0,0 +1,91 @@
+package eu.f3rog.ormlite.helper;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Class {@link LongObjectCacheTest}.
+ */
+public class LongObjectCacheTest {
+
+    private LongObjectCache mCache;
+
+    @Before
+    public void setUp() {
+        mCache = new LongObjectCache();
+        mCache.registerClass(String.class);
+    }
+
+    @Test
+    public void primitiveAndBoxedIdsMatch() {
+        String a = "a";
+        String b = "b";
+        mCache.put(String.class, 1L, a);
+        mCache.put(String.class, Integer.valueOf(2), b);
+
+        assertSame(a, mCache.get(String.class, Long.valueOf(1)));
+        assertSame(a, mCache.get(String.class, Integer.valueOf(1)));
+        assertSame(b, mCache.get(String.class, 2L));
+        assertEquals(2, mCache.size(String.class));
+    }
+
+    @Test
+    public void otherIdTypesAreNotCached() {
+        mCache.put(String.class, "id", "a");
+
+        assertNull(mCache.get(String.class, "id"));
+        assertEquals(0, mCache.sizeAll());
+    }
+
+    @Test
+    public void unregisteredClassIsNotCached() {
+        mCache.put(Object.class, 1L, new Object());
+
+        assertNull(mCache.get(Object.class, 1L));
+        assertEquals(0, mCache.sizeAll());
+    }
+
+    @Test
+    public void statsCountHitsAndMisses() {
+        String a = "a";
+        mCache.put(String.class, 1L, a);
+        mCache.get(String.class, 1L);
+        mCache.get(String.class, 2L);
+        // lookup is not counted
+        mCache.lookup(String.class, 1L);
+
+        assertEquals(1, mCache.getStats().getHitCount());
+        assertEquals(1, mCache.getStats().getMissCount());
+        assertEquals(0, mCache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void updateIdMovesObject() {
+        String a = "a";
+        mCache.put(String.class, 1L, a);
+
+        assertSame(a, mCache.updateId(String.class, 1L, 5L));
+        assertNull(mCache.lookup(String.class, 1L));
+        assertSame(a, mCache.lookup(String.class, 5L));
+        assertNull(mCache.updateId(String.class, 1L, 6L));
+    }
+
+    @Test
+    public void removeAndClear() {
+        String a = "a";
+        String b = "b";
+        mCache.put(String.class, 1L, a);
+        mCache.put(String.class, 2L, b);
+
+        mCache.remove(String.class, 1L);
+        assertNull(mCache.lookup(String.class, 1L));
+        assertEquals(1, mCache.size(String.class));
+        mCache.clearAll();
+        assertEquals(0, mCache.sizeAll());
+    }
+
+}
@@ -0,0 +1,134 @@
+package eu.f3rog.ormlite.helper;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Class {@link LongObjectMapTest}.
+ * <p>
+ * Tests probing of {@link LongObjectMap}. Keys 0, 16, 32 (and 15, 31, 47) have the same home slot in map with initial capacity.
+ * </p>
+ */
+public class LongObjectMapTest {
+
+    @Test
+    public void putAndGet() {
+        LongObjectMap map = new LongObjectMap();
+        String a = "a";
+        String b = "b";
+        map.put(1, a);
+        map.put(Long.MIN_VALUE, b);
+
+        assertSame(a, map.get(1));
+        assertSame(b, map.get(Long.MIN_VALUE));
+        assertNull(map.get(2));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void putReplacesValue() {
+        LongObjectMap map = new LongObjectMap();
+        String a = "a";
+        String b = "b";
+        map.put(1, a);
+        map.put(1, b);
+
+        assertSame(b, map.get(1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void remove() {
+        LongObjectMap map = new LongObjectMap();
+        String a = "a";
+        map.put(1, a);
+
+        assertSame(a, map.remove(1));
+        assertNull(map.remove(1));
+        assertNull(map.get(1));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void removeShiftsCollidingKeys() {
+        LongObjectMap map = new LongObjectMap();
+        String a = "a";
+        String b = "b";
+        String c = "c";
+        map.put(0, a);
+        map.put(16, b);
+        map.put(32, c);
+
+        assertSame(a, map.remove(0));
+        assertSame(b, map.get(16));
+        assertSame(c, map.get(32));
+        assertSame(b, map.remove(16));
+        assertSame(c, map.get(32));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void collidingKeysWrapAround() {
+        LongObjectMap map = new LongObjectMap();
+        String a = "a";
+        String b = "b";
+        String c = "c";
+        String d = "d";
+        // 31 and 47 are placed to slots 0 and 1, 1 is moved from its home slot by them
+        map.put(15, a);
+        map.put(31, b);
+        map.put(47, c);
+        map.put(1, d);
+
+        assertSame(a, map.remove(15));
+        assertSame(b, map.get(31));
+        assertSame(c, map.get(47));
+        assertSame(d, map.get(1));
+        assertSame(c, map.remove(47));
+        assertSame(b, map.get(31));
+        assertSame(d, map.get(1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void resizeKeepsEntries() {
+        LongObjectMap map = new LongObjectMap();
+        // values are strongly referenced, so they cannot be collected
+        List<Object> values = new ArrayList<Object>();
+        for (int i = 0; i < 1000; i++) {
+            Object value = new Object();
+            values.add(value);
+            map.put(i * 16L, value);
+        }
+
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertSame(values.get(i), map.get(i * 16L));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertSame(values.get(i), map.remove(i * 16L));
+        }
+        for (int i = 1; i < 1000; i += 2) {
+            assertSame(values.get(i), map.get(i * 16L));
+        }
+        assertEquals(500, map.size());
+    }
+
+    @Test
+    public void clear() {
+        LongObjectMap map = new LongObjectMap();
+        String a = "a";
+        map.put(1, a);
+        map.clear();
+
+        assertNull(map.get(1));
+        assertEquals(0, map.size());
+    }
+
+}
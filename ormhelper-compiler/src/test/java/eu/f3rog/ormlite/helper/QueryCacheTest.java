@@ -0,0 +1,172 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.jdbc.JdbcPooledConnectionSource;
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.table.DatabaseTable;
+import com.j256.ormlite.table.TableUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class {@link QueryCacheTest}.
+ * <p>
+ * Runs {@link QueryCache} on in-memory H2 database.
+ * </p>
+ */
+public class QueryCacheTest {
+
+    @DatabaseTable(tableName = "item")
+    public static class Item {
+
+        @DatabaseField(generatedId = true)
+        long id;
+        @DatabaseField
+        String name;
+
+        public Item() {
+        }
+
+        Item(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final String COUNT = "SELECT COUNT(*) FROM item";
+    private static final String SELECT = "SELECT name FROM item WHERE name = ?";
+    private static final AtomicInteger DATABASE_COUNTER = new AtomicInteger();
+
+    private JdbcPooledConnectionSource mConnectionSource;
+    private MeteredDao<Item, Long> mDao;
+    private TableChanges mTableChanges;
+    private QueryCache mCache;
+
+    @Before
+    public void setUp() throws Exception {
+        mConnectionSource = new JdbcPooledConnectionSource("jdbc:h2:mem:query_cache_" + DATABASE_COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        TableUtils.createTable(mConnectionSource, Item.class);
+        mDao = new MeteredDao<Item, Long>(mConnectionSource, Item.class, HelperMetrics.NONE);
+        mTableChanges = new TableChanges(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                // observers are not used
+            }
+        });
+        mDao.setTableChanges(mTableChanges);
+        mCache = new QueryCache(mTableChanges, 64 * 1024);
+        mCache.addTable("item", Item.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mConnectionSource.close();
+    }
+
+    @Test
+    public void repeatedQueryIsReadFromCache() throws Exception {
+        mDao.create(new Item("a"));
+
+        assertEquals(1, mCache.queryRaw(mConnectionSource, SELECT, "a").size());
+        assertEquals(1, mCache.queryRaw(mConnectionSource, SELECT, "a").size());
+        assertEquals(0, mCache.queryRaw(mConnectionSource, SELECT, "b").size());
+
+        assertEquals(1, mCache.getStats().getHitCount());
+        assertEquals(2, mCache.getStats().getMissCount());
+        assertEquals(2, mCache.size());
+    }
+
+    @Test
+    public void changeOfTableInvalidatesResult() throws Exception {
+        assertEquals(0, mCache.queryRawValue(mConnectionSource, COUNT));
+        mDao.create(new Item("a"));
+
+        assertEquals(1, mCache.queryRawValue(mConnectionSource, COUNT));
+        assertEquals(1, mCache.queryRawValue(mConnectionSource, COUNT));
+        assertEquals(1, mCache.getStats().getHitCount());
+        assertEquals(2, mCache.getStats().getMissCount());
+    }
+
+    @Test
+    public void queryOfUnknownTableIsNotCached() throws Exception {
+        assertEquals(1, mCache.queryRawValue(mConnectionSource, "SELECT 1"));
+
+        assertEquals(0, mCache.size());
+        assertEquals(0, mCache.getStats().getMissCount());
+    }
+
+    @Test
+    public void queryInsideBatchSeesItsChanges() throws Exception {
+        assertEquals(0, mCache.queryRawValue(mConnectionSource, COUNT));
+
+        TransactionManager.callInTransaction(mConnectionSource, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                mTableChanges.beginBatch();
+                try {
+                    mDao.create(new Item("a"));
+                    assertEquals(1, mCache.queryRawValue(mConnectionSource, COUNT));
+                    List<String[]> rows = mCache.queryRaw(mConnectionSource, SELECT, "a");
+                    assertEquals(1, rows.size());
+                } finally {
+                    mTableChanges.endBatch();
+                }
+                return null;
+            }
+        });
+
+        // nothing was read or stored inside batch
+        assertEquals(1, mCache.size());
+        assertEquals(0, mCache.getStats().getHitCount());
+        assertEquals(1, mCache.queryRawValue(mConnectionSource, COUNT));
+        assertEquals(0, mCache.getStats().getHitCount());
+        assertEquals(2, mCache.getStats().getMissCount());
+    }
+
+    @Test
+    public void rolledBackBatchKeepsCachedResult() throws Exception {
+        assertEquals(0, mCache.queryRawValue(mConnectionSource, COUNT));
+        long version = mTableChanges.getVersion(Item.class);
+
+        try {
+            mDao.callBatchTasks(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    mDao.create(new Item("a"));
+                    throw new IllegalStateException("rollback");
+                }
+            });
+        } catch (Exception e) {
+            // expected
+        }
+
+        assertFalse(mTableChanges.isInBatch());
+        assertEquals(version, mTableChanges.getVersion(Item.class));
+        assertEquals(0, mCache.queryRawValue(mConnectionSource, COUNT));
+        assertEquals(1, mCache.getStats().getHitCount());
+    }
+
+    @Test
+    public void cacheIsLimitedByBytes() throws Exception {
+        QueryCache cache = new QueryCache(mTableChanges, 300);
+        cache.addTable("item", Item.class);
+        for (int i = 0; i < 10; i++) {
+            cache.queryRaw(mConnectionSource, SELECT, "item" + i);
+        }
+
+        assertTrue(cache.size() < 10);
+        assertTrue(cache.getBytes() <= 300);
+        assertEquals(10 - cache.size(), cache.getStats().getEvictionCount());
+    }
+
+}
@@ -0,0 +1,89 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class {@link StorageFileTest}.
+ * <p>
+ * Applies settings to SQLite database file which already has a table, as Android database has {@code android_metadata}.
+ * </p>
+ */
+public class StorageFileTest {
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    private JdbcConnectionSource mConnectionSource;
+    private DatabaseConnection mConnection;
+
+    @Before
+    public void setUp() throws Exception {
+        mConnectionSource = new JdbcConnectionSource("jdbc:sqlite:" + mTemporaryFolder.newFile("storage.db").getAbsolutePath());
+        mConnection = mConnectionSource.getReadWriteConnection();
+        mConnection.executeStatement("CREATE TABLE android_metadata (locale TEXT)", DatabaseConnection.DEFAULT_RESULT_FLAGS);
+        mConnection.executeStatement("INSERT INTO android_metadata VALUES ('en_US')", DatabaseConnection.DEFAULT_RESULT_FLAGS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mConnectionSource.releaseConnection(mConnection);
+        mConnectionSource.close();
+    }
+
+    @Test
+    public void pageSizeIsChangedByRebuild() throws Exception {
+        assertEquals(1024, mConnection.queryForLong("PRAGMA page_size"));
+        // pragma alone does not change page size of file with table
+        mConnection.executeStatement("PRAGMA page_size = 2048", DatabaseConnection.DEFAULT_RESULT_FLAGS);
+        assertEquals(1024, mConnection.queryForLong("PRAGMA page_size"));
+
+        assertTrue(StorageFile.apply(mConnection, 8192, Storage.AutoVacuum.DEFAULT));
+
+        assertEquals(8192, mConnection.queryForLong("PRAGMA page_size"));
+        assertEquals(1, mConnection.queryForLong("SELECT COUNT(*) FROM android_metadata"));
+        // file is not rebuilt again
+        assertFalse(StorageFile.apply(mConnection, 8192, Storage.AutoVacuum.DEFAULT));
+    }
+
+    @Test
+    public void autoVacuumIsChangedByRebuild() throws Exception {
+        assertEquals(0, mConnection.queryForLong("PRAGMA auto_vacuum"));
+        mConnection.executeStatement("PRAGMA auto_vacuum = INCREMENTAL", DatabaseConnection.DEFAULT_RESULT_FLAGS);
+        assertEquals(0, mConnection.queryForLong("PRAGMA auto_vacuum"));
+
+        assertTrue(StorageFile.apply(mConnection, Storage.UNDEFINED, Storage.AutoVacuum.INCREMENTAL));
+
+        assertEquals(2, mConnection.queryForLong("PRAGMA auto_vacuum"));
+        assertEquals(1024, mConnection.queryForLong("PRAGMA page_size"));
+        assertFalse(StorageFile.apply(mConnection, Storage.UNDEFINED, Storage.AutoVacuum.INCREMENTAL));
+    }
+
+    @Test
+    public void bothSettingsAreChangedByOneRebuild() throws Exception {
+        assertTrue(StorageFile.apply(mConnection, 4096, Storage.AutoVacuum.FULL));
+
+        assertEquals(4096, mConnection.queryForLong("PRAGMA page_size"));
+        assertEquals(1, mConnection.queryForLong("PRAGMA auto_vacuum"));
+        assertFalse(StorageFile.apply(mConnection, 4096, Storage.AutoVacuum.FULL));
+    }
+
+    @Test
+    public void undefinedSettingsAreKept() throws Exception {
+        assertFalse(StorageFile.apply(mConnection, Storage.UNDEFINED, Storage.AutoVacuum.DEFAULT));
+
+        assertEquals(1024, mConnection.queryForLong("PRAGMA page_size"));
+        assertEquals(0, mConnection.queryForLong("PRAGMA auto_vacuum"));
+    }
+
+}
@@ -0,0 +1,198 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.jdbc.JdbcPooledConnectionSource;
+import com.j256.ormlite.table.DatabaseTable;
+import com.j256.ormlite.table.TableUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Class {@link WriteQueueTest}.
+ * <p>
+ * Runs {@link WriteQueue} on in-memory H2 database.
+ * </p>
+ */
+public class WriteQueueTest {
+
+    @DatabaseTable(tableName = "item")
+    public static class Item {
+
+        @DatabaseField(generatedId = true)
+        long id;
+        @DatabaseField(unique = true)
+        String name;
+
+        public Item() {
+        }
+
+        Item(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final AtomicInteger DATABASE_COUNTER = new AtomicInteger();
+
+    private JdbcPooledConnectionSource mConnectionSource;
+    private MeteredDao<Item, Long> mDao;
+    private TableChanges mTableChanges;
+
+    @Before
+    public void setUp() throws Exception {
+        mConnectionSource = new JdbcPooledConnectionSource("jdbc:h2:mem:write_queue_" + DATABASE_COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        TableUtils.createTable(mConnectionSource, Item.class);
+        mDao = new MeteredDao<Item, Long>(mConnectionSource, Item.class, HelperMetrics.NONE);
+        mTableChanges = new TableChanges(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                // observers are not used
+            }
+        });
+        mDao.setTableChanges(mTableChanges);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mConnectionSource.close();
+    }
+
+    @Test
+    public void queuedWritesAreCommittedInOneBatch() throws Exception {
+        WriteQueue queue = new WriteQueue(mConnectionSource, 100, 500, mTableChanges);
+        List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(queue.submit(create("item" + i)));
+        }
+        for (Future<Integer> future : futures) {
+            assertEquals(Integer.valueOf(1), future.get(5, TimeUnit.SECONDS));
+        }
+        queue.shutdown();
+
+        assertEquals(20, mDao.countOf());
+        // changes of one batch are published once
+        assertEquals(1, mTableChanges.getVersion(Item.class));
+    }
+
+    @Test
+    public void batchIsLimitedBySize() throws Exception {
+        WriteQueue queue = new WriteQueue(mConnectionSource, 5, 500, mTableChanges);
+        List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(queue.submit(create("item" + i)));
+        }
+        queue.shutdown();
+
+        for (Future<Integer> future : futures) {
+            assertTrue(future.isDone());
+        }
+        assertEquals(20, mDao.countOf());
+        assertEquals(4, mTableChanges.getVersion(Item.class));
+    }
+
+    @Test
+    public void failedWriteDoesNotFailOthers() throws Exception {
+        WriteQueue queue = new WriteQueue(mConnectionSource, 100, 500, mTableChanges);
+        Future<Integer> first = queue.submit(create("a"));
+        Future<Integer> duplicate = queue.submit(create("a"));
+        Future<Integer> last = queue.submit(create("b"));
+        queue.shutdown();
+
+        assertEquals(Integer.valueOf(1), first.get());
+        assertEquals(Integer.valueOf(1), last.get());
+        try {
+            duplicate.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+        }
+        assertEquals(2, mDao.countOf());
+    }
+
+    @Test
+    public void errorOfWriteDoesNotStopQueue() throws Exception {
+        WriteQueue queue = new WriteQueue(mConnectionSource, 100, 0, mTableChanges);
+        final AssertionError error = new AssertionError("write failed");
+        Future<Integer> failed = queue.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                mDao.create(new Item("rolled back"));
+                throw error;
+            }
+        });
+        try {
+            failed.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(error, e.getCause());
+        }
+
+        // writer thread is still running
+        assertEquals(Integer.valueOf(1), queue.submit(create("next")).get(5, TimeUnit.SECONDS));
+        queue.shutdown();
+
+        assertEquals(1, mDao.countOf());
+        assertEquals(0, mDao.queryForEq("name", "rolled back").size());
+    }
+
+    @Test
+    public void changesOfRolledBackBatchAreNotPublished() throws Exception {
+        WriteQueue queue = new WriteQueue(mConnectionSource, 100, 0, mTableChanges);
+        Future<Integer> failed = queue.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                mDao.create(new Item("rolled back"));
+                throw new SQLException("write failed");
+            }
+        });
+        queue.shutdown();
+
+        try {
+            failed.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("write failed", e.getCause().getMessage());
+        }
+        assertEquals(0, mDao.countOf());
+        assertEquals(0, mTableChanges.getVersion(Item.class));
+    }
+
+    @Test
+    public void shutdownRejectsWrites() throws Exception {
+        WriteQueue queue = new WriteQueue(mConnectionSource, 100, 0, mTableChanges);
+        queue.shutdown();
+        try {
+            queue.submit(create("rejected"));
+            fail();
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+    }
+
+    private Callable<Integer> create(final String name) {
+        return new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return mDao.create(new Item(name));
+            }
+        };
+    }
+
+}
@@ -4,14 +4,61 @@ import com.google.common.base.Joiner;
 import com.google.common.truth.Truth;
 import com.google.testing.compile.JavaFileObjects;
 import com.google.testing.compile.JavaSourcesSubjectFactory;
+import com.j256.ormlite.android.AndroidConnectionSource;
+import com.j256.ormlite.android.apptools.OrmLiteSqliteOpenHelper;
+import com.j256.ormlite.logger.LocalLog;
+import com.j256.ormlite.logger.LoggerFactory;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.TableUtils;
 
+import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import android.database.sqlite.SQLiteDatabase;
+import eu.f3rog.ormlite.helper.HelperMetrics;
+import eu.f3rog.ormlite.helper.MeteredDao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Class {@link HelperProcessorTest}.
@@ -21,6 +68,16 @@ import javax.tools.JavaFileObject;
  */
 public class HelperProcessorTest {
 
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUpLogger() {
+        // Android logger of ORMLite calls Android stubs
+        System.setProperty(LoggerFactory.LOG_TYPE_SYSTEM_PROPERTY, LoggerFactory.LogType.LOCAL.name());
+        System.setProperty(LocalLog.LOCAL_LOG_LEVEL_PROPERTY, "error");
+    }
+
     private JavaFileObject classFile(String packageName, String className) {
         return JavaFileObjects.forSourceString(String.format("%s.%s", packageName, className),
                 Joiner.on('\n').join(
@@ -63,6 +120,39 @@ public class HelperProcessorTest {
         );
     }
 
+    private JavaFileObject eventClass() {
+        return JavaFileObjects.forSourceString("com.example.model.Event",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import com.j256.ormlite.field.DataType;",
+                        "import com.j256.ormlite.field.DatabaseField;",
+                        "import com.j256.ormlite.table.DatabaseTable;",
+                        "import java.util.Date;",
+                        "",
+                        "@DatabaseTable",
+                        "public class Event {",
+                        "",
+                        "    public enum Type { CLICK, VIEW, OTHER }",
+                        "",
+                        "    @DatabaseField(generatedId = true)",
+                        "    long id;",
+                        "    @DatabaseField(columnName = \"event_name\")",
+                        "    String name;",
+                        "    @DatabaseField",
+                        "    Integer count;",
+                        "    @DatabaseField",
+                        "    boolean handled;",
+                        "    @DatabaseField(unknownEnumName = \"OTHER\")",
+                        "    Type type;",
+                        "    @DatabaseField(dataType = DataType.DATE_LONG)",
+                        "    Date createdAt;",
+                        "",
+                        "}"
+                )
+        );
+    }
+
     private Iterable<JavaFileObject> files(JavaFileObject... f) {
         List<JavaFileObject> files = new ArrayList<>();
         files.add(baseClass());
@@ -292,20 +382,39 @@ public class HelperProcessorTest {
                         "package com.example;",
                         "",
                         "import android.content.Context;",
+                        "import android.database.Cursor;",
                         "import android.database.sqlite.SQLiteDatabase;",
+                        "import android.os.AsyncTask;",
                         "import android.util.Log;",
                         "import com.example.model.TableClass1;",
                         "import com.j256.ormlite.android.apptools.OrmLiteSqliteOpenHelper;",
                         "import com.j256.ormlite.dao.Dao;",
+                        "import com.j256.ormlite.dao.DaoManager;",
                         "import com.j256.ormlite.support.ConnectionSource;",
                         "import com.j256.ormlite.table.TableUtils;",
+                        "import eu.f3rog.ormlite.helper.HelperMetrics;",
+                        "import eu.f3rog.ormlite.helper.MeteredDao;",
+                        "import eu.f3rog.ormlite.helper.Vacuum;",
+                        "import java.lang.Class;",
+                        "import java.lang.Exception;",
+                        "import java.lang.IllegalArgumentException;",
+                        "import java.lang.Object;",
                         "import java.lang.Override;",
                         "import java.lang.String;",
+                        "import java.lang.System;",
+                        "import java.lang.Void;",
                         "import java.sql.SQLException;",
+                        "import java.util.Collection;",
+                        "import java.util.concurrent.Callable;",
+                        "import java.util.concurrent.Executor;",
+                        "import java.util.concurrent.Future;",
+                        "import java.util.concurrent.FutureTask;",
                         "",
                         "public final class CustomerDatabaseHelper extends OrmLiteSqliteOpenHelper {",
                         "",
-                        "   private Dao<TableClass1, String> mTableClass1Dao;",
+                        "   private final Object mDaoLock = new Object();",
+                        "   private volatile HelperMetrics mMetrics = HelperMetrics.NONE;",
+                        "   private volatile Dao<TableClass1, String> mTableClass1Dao;",
                         "",
                         "   public Gen_MyDatabaseHelper(Context context) {",
                         "       super(context, \"customer.db\", null, 3);",
@@ -314,12 +423,18 @@ public class HelperProcessorTest {
                         "   @Override",
                         "   public void onCreate(SQLiteDatabase database, ConnectionSource connectionSource) {",
                         "       Log.i(CustomerDatabase.class.getName(), \"onCreate\");",
+                        "       HelperMetrics metrics = mMetrics;",
+                        "       long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "       database.beginTransaction();",
                         "       try {",
-                        "               TableUtils.createTable(connectionSource, TableClass1.class);",
+                        "           database.execSQL(\"CREATE TABLE `tableclass1` (`id` VARCHAR , PRIMARY KEY (`id`) ) \");",
+                        "           database.setTransactionSuccessful();",
                         "       }",
-                        "       catch (SQLException e) {",
-                        "               Log.e(CustomerDatabase.class.getName(), \"Can't create database tables.\", e);",
-                        "               throw new RuntimeException(e);",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "       if (metrics != HelperMetrics.NONE) {",
+                        "           metrics.onCreate(System.nanoTime() - start);",
                         "       }",
                         "   }",
                         "",
@@ -340,27 +455,137 @@ public class HelperProcessorTest {
                         "   }",
                         "",
                         "   public void clearTables() {",
+                        "       clearTables(Vacuum.NONE);",
+                        "   }",
+                        "",
+                        "   public void clearTables(Vacuum vacuum) {",
+                        "       clearTables(vacuum, TableClass1.class);",
+                        "   }",
+                        "",
+                        "   public void clearTables(Vacuum vacuum, Class<?>... tables) {",
                         "       Log.i(CustomerDatabase.class.getName(), \"clearTables\");",
+                        "       HelperMetrics metrics = mMetrics;",
+                        "       long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       database.beginTransaction();",
                         "       try {",
-                        "           connectionSource.getReadWriteConnection();",
-                        "           TableUtils.clearTable(connectionSource, TableClass1.class);",
+                        "           for (Class<?> table : tables) {",
+                        "               database.execSQL(\"DELETE FROM `\" + getTableName(table) + \"`\");",
+                        "           }",
+                        "           database.setTransactionSuccessful();",
                         "       }",
-                        "       catch (SQLException e) {",
-                        "           Log.e(CustomerDatabase.class.getName(), \"Can't clear database tables.\", e);",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "       if (vacuum == Vacuum.FULL) {",
+                        "           database.execSQL(\"VACUUM\");",
+                        "       }",
+                        "       else if (vacuum == Vacuum.INCREMENTAL) {",
+                        "           Cursor cursor = database.rawQuery(\"PRAGMA incremental_vacuum\", null);",
+                        "           try {",
+                        "               cursor.getCount();",
+                        "           }",
+                        "           finally {",
+                        "               cursor.close();",
+                        "           }",
+                        "       }",
+                        "       if (metrics != HelperMetrics.NONE) {",
+                        "           metrics.onClearTables(System.nanoTime() - start);",
+                        "       }",
+                        "   }",
+                        "",
+                        "   private static String getTableName(Class<?> tableClass) {",
+                        "       if (tableClass == TableClass1.class) {",
+                        "           return \"tableclass1\";",
                         "       }",
+                        "       throw new IllegalArgumentException(\"Unknown table \" + tableClass.getName());",
                         "   }",
                         "",
                         "   @Override",
                         "   public void close() {",
-                        "       super.close();",
-                        "       mTableClass1Dao = null;",
+                        "       synchronized (mDaoLock) {",
+                        "           mTableClass1Dao = null;",
+                        "           super.close();",
+                        "       }",
+                        "   }",
+                        "",
+                        "   /**",
+                        "    * Sets listener which receives timings of this helper and its DAOs. {@code null} removes listener.",
+                        "    */",
+                        "   public void setMetrics(HelperMetrics metrics) {",
+                        "       synchronized (mDaoLock) {",
+                        "           mMetrics = (metrics != null) ? metrics : HelperMetrics.NONE;",
+                        "           if (mTableClass1Dao instanceof MeteredDao) {",
+                        "               ((MeteredDao<?, ?>) mTableClass1Dao).setMetrics(mMetrics);",
+                        "           }",
+                        "       }",
                         "   }",
                         "",
                         "   public Dao<TableClass1, String> getTableClass1Dao() throws SQLException {",
-                        "       if (mTableClass1Dao == null)  {",
-                        "           mTableClass1Dao = getDao(TableClass1.class);",
+                        "       Dao<TableClass1, String> dao = mTableClass1Dao;",
+                        "       if (dao == null) {",
+                        "           synchronized (mDaoLock) {",
+                        "               dao = mTableClass1Dao;",
+                        "               if (dao == null) {",
+                        "                   HelperMetrics metrics = mMetrics;",
+                        "                   long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "                   dao = new MeteredDao<TableClass1, String>(getConnectionSource(), TableClass1.class, metrics);",
+                        "                   DaoManager.registerDao(getConnectionSource(), dao);",
+                        "                   if (metrics != HelperMetrics.NONE) {",
+                        "                       metrics.onDaoCreated(TableClass1.class, System.nanoTime() - start);",
+                        "                   }",
+                        "                   mTableClass1Dao = dao;",
+                        "               }",
+                        "           }",
+                        "       }",
+                        "       return dao;",
+                        "   }",
+                        "",
+                        "   public Future<Void> warmUp(Executor executor) {",
+                        "       FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {",
+                        "           @Override",
+                        "           public Void call() throws Exception {",
+                        "               getWritableDatabase();",
+                        "               getTableClass1Dao();",
+                        "               return null;",
+                        "           }",
+                        "       });",
+                        "       executor.execute(task);",
+                        "       return task;",
+                        "   }",
+                        "",
+                        "   public Future<Void> openAsync() {",
+                        "       return warmUp(AsyncTask.THREAD_POOL_EXECUTOR);",
+                        "   }",
+                        "",
+                        "   public void insertAllTableClass1(Collection<TableClass1> data) throws SQLException {",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       database.beginTransaction();",
+                        "       try {",
+                        "           Dao<TableClass1, String> dao = getTableClass1Dao();",
+                        "           for (TableClass1 item : data) {",
+                        "               dao.create(item);",
+                        "           }",
+                        "           database.setTransactionSuccessful();",
+                        "       }",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "   }",
+                        "",
+                        "   public void upsertAllTableClass1(Collection<TableClass1> data) throws SQLException {",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       database.beginTransaction();",
+                        "       try {",
+                        "           Dao<TableClass1, String> dao = getTableClass1Dao();",
+                        "           for (TableClass1 item : data) {",
+                        "               dao.createOrUpdate(item);",
+                        "           }",
+                        "           database.setTransactionSuccessful();",
+                        "       }",
+                        "       finally {",
+                        "           database.endTransaction();",
                         "       }",
-                        "       return mTableClass1Dao;",
                         "   }",
                         "",
                         "}"
@@ -389,7 +614,7 @@ public class HelperProcessorTest {
                         "import eu.f3rog.ormlite.helper.OnUpgrade;",
                         "",
                         "@Helper(",
-                        "   version = 3,",
+                        "   version = 6,",
                         "   name = \"whatever\",",
                         "   tables = {",
                         "       TableClass1.class",
@@ -397,7 +622,7 @@ public class HelperProcessorTest {
                         ")",
                         "public class WhateverDatabase {",
                         "",
-                        "   @OnUpgrade(from = 1, to = 3)",
+                        "   @OnUpgrade(from = 1, to = 2)",
                         "   public void up1to2(SQLiteDatabase database, ConnectionSource connectionSource) {",
                         "   }",
                         "",
@@ -426,85 +651,236 @@ public class HelperProcessorTest {
                         "package com.example;",
                         "",
                         "import android.content.Context;",
+                        "import android.database.Cursor;",
                         "import android.database.sqlite.SQLiteDatabase;",
+                        "import android.os.AsyncTask;",
                         "import android.util.Log;",
                         "import com.example.model.TableClass1;",
                         "import com.j256.ormlite.android.apptools.OrmLiteSqliteOpenHelper;",
                         "import com.j256.ormlite.dao.Dao;",
+                        "import com.j256.ormlite.dao.DaoManager;",
                         "import com.j256.ormlite.support.ConnectionSource;",
-                        "import com.j256.ormlite.table.TableUtils;",
+                        "import eu.f3rog.ormlite.helper.HelperMetrics;",
+                        "import eu.f3rog.ormlite.helper.MeteredDao;",
+                        "import eu.f3rog.ormlite.helper.Vacuum;",
+                        "import java.lang.Class;",
+                        "import java.lang.Exception;",
+                        "import java.lang.IllegalArgumentException;",
+                        "import java.lang.IllegalStateException;",
+                        "import java.lang.Object;",
                         "import java.lang.Override;",
                         "import java.lang.String;",
+                        "import java.lang.System;",
+                        "import java.lang.Void;",
                         "import java.sql.SQLException;",
+                        "import java.util.Collection;",
+                        "import java.util.concurrent.Callable;",
+                        "import java.util.concurrent.Executor;",
+                        "import java.util.concurrent.Future;",
+                        "import java.util.concurrent.FutureTask;",
                         "",
                         "public final class WhateverDatabaseHelper extends OrmLiteSqliteOpenHelper {",
                         "",
-                        "   private Dao<TableClass1, String> mTableClass1Dao;",
+                        "   private final Object mDaoLock = new Object();",
+                        "   private volatile HelperMetrics mMetrics = HelperMetrics.NONE;",
+                        "   private volatile Dao<TableClass1, String> mTableClass1Dao;",
                         "",
                         "   public Gen_MyDatabaseHelper(Context context) {",
-                        "       super(context, \"whatever.db\", null, 3);",
+                        "       super(context, \"whatever.db\", null, 6);",
                         "   }",
                         "",
                         "   @Override",
                         "   public void onCreate(SQLiteDatabase database, ConnectionSource connectionSource) {",
                         "       Log.i(WhateverDatabase.class.getName(), \"onCreate\");",
+                        "       HelperMetrics metrics = mMetrics;",
+                        "       long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "       database.beginTransaction();",
                         "       try {",
-                        "               TableUtils.createTable(connectionSource, TableClass1.class);",
+                        "           database.execSQL(\"CREATE TABLE `tableclass1` (`id` VARCHAR , PRIMARY KEY (`id`) ) \");",
+                        "           database.setTransactionSuccessful();",
                         "       }",
-                        "       catch (SQLException e) {",
-                        "           Log.e(WhateverDatabase.class.getName(), \"Can't create database tables.\", e);",
-                        "           throw new RuntimeException(e);",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "       if (metrics != HelperMetrics.NONE) {",
+                        "           metrics.onCreate(System.nanoTime() - start);",
                         "       }",
                         "   }",
                         "",
                         "   @Override",
                         "   public void onUpgrade(SQLiteDatabase database, ConnectionSource connectionSource, int oldVersion, int newVersion) {",
                         "       WhateverDatabase upgradeHelper = new WhateverDatabase();",
-                        "       int version = oldVersion;",
-                        "       if (version == 1) {",
-                        "           upgradeHelper.up1to2(database, connectionSource);",
-                        "           version = 3;",
-                        "       }",
-                        "       if (version == 2) {",
-                        "           upgradeHelper.up2to3(database, connectionSource);",
-                        "           version = 3;",
-                        "       }",
-                        "       if (version <= 4) {",
-                        "            upgradeHelper.upto4(database, connectionSource);",
-                        "            version = 4;",
-                        "       }",
-                        "       if (version <= 5) {",
-                        "           upgradeHelper.upto5(database, connectionSource);",
-                        "           version = 5;",
-                        "       }",
-                        "       if (version <= 6) {",
-                        "           upgradeHelper.upto6(database, connectionSource);",
-                        "           version = 6;",
+                        "       HelperMetrics metrics = mMetrics;",
+                        "       long start;",
+                        "       switch (oldVersion) {",
+                        "           case 1:",
+                        "               start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "               upgradeHelper.up1to2(database, connectionSource);",
+                        "               if (metrics != HelperMetrics.NONE) {",
+                        "                   metrics.onUpgrade(1, 2, System.nanoTime() - start);",
+                        "               }",
+                        "           case 2:",
+                        "               start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "               upgradeHelper.up2to3(database, connectionSource);",
+                        "               if (metrics != HelperMetrics.NONE) {",
+                        "                   metrics.onUpgrade(2, 3, System.nanoTime() - start);",
+                        "               }",
+                        "           case 3:",
+                        "               start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "               upgradeHelper.upto4(database, connectionSource);",
+                        "               if (metrics != HelperMetrics.NONE) {",
+                        "                   metrics.onUpgrade(3, 4, System.nanoTime() - start);",
+                        "               }",
+                        "           case 4:",
+                        "               start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "               upgradeHelper.upto5(database, connectionSource);",
+                        "               if (metrics != HelperMetrics.NONE) {",
+                        "                   metrics.onUpgrade(4, 5, System.nanoTime() - start);",
+                        "               }",
+                        "           case 5:",
+                        "               start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "               upgradeHelper.upto6(database, connectionSource);",
+                        "               if (metrics != HelperMetrics.NONE) {",
+                        "                   metrics.onUpgrade(5, 6, System.nanoTime() - start);",
+                        "               }",
+                        "               break;",
+                        "           default:",
+                        "               throw new IllegalStateException(\"Cannot upgrade database from version \" + oldVersion);",
                         "       }",
                         "   }",
                         "",
                         "   public void clearTables() {",
+                        "       clearTables(Vacuum.NONE);",
+                        "   }",
+                        "",
+                        "   public void clearTables(Vacuum vacuum) {",
+                        "       clearTables(vacuum, TableClass1.class);",
+                        "   }",
+                        "",
+                        "   public void clearTables(Vacuum vacuum, Class<?>... tables) {",
                         "       Log.i(WhateverDatabase.class.getName(), \"clearTables\");",
+                        "       HelperMetrics metrics = mMetrics;",
+                        "       long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       database.beginTransaction();",
                         "       try {",
-                        "           connectionSource.getReadWriteConnection();",
-                        "           TableUtils.clearTable(connectionSource, TableClass1.class);",
+                        "           for (Class<?> table : tables) {",
+                        "               database.execSQL(\"DELETE FROM `\" + getTableName(table) + \"`\");",
+                        "           }",
+                        "           database.setTransactionSuccessful();",
                         "       }",
-                        "       catch (SQLException e) {",
-                        "           Log.e(WhateverDatabase.class.getName(), \"Can't clear database tables.\", e);",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "       if (vacuum == Vacuum.FULL) {",
+                        "           database.execSQL(\"VACUUM\");",
+                        "       }",
+                        "       else if (vacuum == Vacuum.INCREMENTAL) {",
+                        "           Cursor cursor = database.rawQuery(\"PRAGMA incremental_vacuum\", null);",
+                        "           try {",
+                        "               cursor.getCount();",
+                        "           }",
+                        "           finally {",
+                        "               cursor.close();",
+                        "           }",
+                        "       }",
+                        "       if (metrics != HelperMetrics.NONE) {",
+                        "           metrics.onClearTables(System.nanoTime() - start);",
                         "       }",
                         "   }",
                         "",
+                        "   private static String getTableName(Class<?> tableClass) {",
+                        "       if (tableClass == TableClass1.class) {",
+                        "           return \"tableclass1\";",
+                        "       }",
+                        "       throw new IllegalArgumentException(\"Unknown table \" + tableClass.getName());",
+                        "   }",
+                        "",
                         "   @Override",
                         "   public void close() {",
-                        "       super.close();",
-                        "       mTableClass1Dao = null;",
+                        "       synchronized (mDaoLock) {",
+                        "           mTableClass1Dao = null;",
+                        "           super.close();",
+                        "       }",
+                        "   }",
+                        "",
+                        "   /**",
+                        "    * Sets listener which receives timings of this helper and its DAOs. {@code null} removes listener.",
+                        "    */",
+                        "   public void setMetrics(HelperMetrics metrics) {",
+                        "       synchronized (mDaoLock) {",
+                        "           mMetrics = (metrics != null) ? metrics : HelperMetrics.NONE;",
+                        "           if (mTableClass1Dao instanceof MeteredDao) {",
+                        "               ((MeteredDao<?, ?>) mTableClass1Dao).setMetrics(mMetrics);",
+                        "           }",
+                        "       }",
                         "   }",
                         "",
                         "   public Dao<TableClass1, String> getTableClass1Dao() throws SQLException {",
-                        "       if (mTableClass1Dao == null)  {",
-                        "           mTableClass1Dao = getDao(TableClass1.class);",
+                        "       Dao<TableClass1, String> dao = mTableClass1Dao;",
+                        "       if (dao == null) {",
+                        "           synchronized (mDaoLock) {",
+                        "               dao = mTableClass1Dao;",
+                        "               if (dao == null) {",
+                        "                   HelperMetrics metrics = mMetrics;",
+                        "                   long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "                   dao = new MeteredDao<TableClass1, String>(getConnectionSource(), TableClass1.class, metrics);",
+                        "                   DaoManager.registerDao(getConnectionSource(), dao);",
+                        "                   if (metrics != HelperMetrics.NONE) {",
+                        "                       metrics.onDaoCreated(TableClass1.class, System.nanoTime() - start);",
+                        "                   }",
+                        "                   mTableClass1Dao = dao;",
+                        "               }",
+                        "           }",
+                        "       }",
+                        "       return dao;",
+                        "   }",
+                        "",
+                        "   public Future<Void> warmUp(Executor executor) {",
+                        "       FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {",
+                        "           @Override",
+                        "           public Void call() throws Exception {",
+                        "               getWritableDatabase();",
+                        "               getTableClass1Dao();",
+                        "               return null;",
+                        "           }",
+                        "       });",
+                        "       executor.execute(task);",
+                        "       return task;",
+                        "   }",
+                        "",
+                        "   public Future<Void> openAsync() {",
+                        "       return warmUp(AsyncTask.THREAD_POOL_EXECUTOR);",
+                        "   }",
+                        "",
+                        "   public void insertAllTableClass1(Collection<TableClass1> data) throws SQLException {",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       database.beginTransaction();",
+                        "       try {",
+                        "           Dao<TableClass1, String> dao = getTableClass1Dao();",
+                        "           for (TableClass1 item : data) {",
+                        "               dao.create(item);",
+                        "           }",
+                        "           database.setTransactionSuccessful();",
+                        "       }",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "   }",
+                        "",
+                        "   public void upsertAllTableClass1(Collection<TableClass1> data) throws SQLException {",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       database.beginTransaction();",
+                        "       try {",
+                        "           Dao<TableClass1, String> dao = getTableClass1Dao();",
+                        "           for (TableClass1 item : data) {",
+                        "               dao.createOrUpdate(item);",
+                        "           }",
+                        "           database.setTransactionSuccessful();",
+                        "       }",
+                        "       finally {",
+                        "           database.endTransaction();",
                         "       }",
-                        "       return mTableClass1Dao;",
                         "   }",
                         "",
                         "}"
@@ -520,4 +896,1883 @@ public class HelperProcessorTest {
                 .generatesSources(expectedFile);
     }
 
+    @Test
+    public void upgradeGap() {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.MyDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import android.database.sqlite.SQLiteDatabase;",
+                        "import com.j256.ormlite.support.ConnectionSource;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "import eu.f3rog.ormlite.helper.OnUpgrade;",
+                        "",
+                        "@Helper(",
+                        "   version = 4,",
+                        "   name = \"my_database\",",
+                        "   tables = {}",
+                        ")",
+                        "public class MyDatabase {",
+                        "",
+                        "   @OnUpgrade(from = 1, to = 2)",
+                        "   public void up1to2(SQLiteDatabase database, ConnectionSource connectionSource) {",
+                        "   }",
+                        "",
+                        "   @OnUpgrade(from = 3, to = 4)",
+                        "   public void up3to4(SQLiteDatabase database, ConnectionSource connectionSource) {",
+                        "   }",
+                        "",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .failsToCompile()
+                .withErrorContaining("Upgrade from version 2 to 3 is missing");
+    }
+
+    @Test
+    public void upgradeOverlap() {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.MyDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import android.database.sqlite.SQLiteDatabase;",
+                        "import com.j256.ormlite.support.ConnectionSource;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "import eu.f3rog.ormlite.helper.OnUpgrade;",
+                        "",
+                        "@Helper(",
+                        "   version = 3,",
+                        "   name = \"my_database\",",
+                        "   tables = {}",
+                        ")",
+                        "public class MyDatabase {",
+                        "",
+                        "   @OnUpgrade(from = 1, to = 3)",
+                        "   public void up1to3(SQLiteDatabase database, ConnectionSource connectionSource) {",
+                        "   }",
+                        "",
+                        "   @OnUpgrade(from = 2, to = 3)",
+                        "   public void up2to3(SQLiteDatabase database, ConnectionSource connectionSource) {",
+                        "   }",
+                        "",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .failsToCompile()
+                .withErrorContaining("overlaps with upgrade up1to3");
+    }
+
+    @Test
+    public void upgradeBeyondVersion() {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.MyDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import android.database.sqlite.SQLiteDatabase;",
+                        "import com.j256.ormlite.support.ConnectionSource;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "import eu.f3rog.ormlite.helper.OnUpgrade;",
+                        "",
+                        "@Helper(",
+                        "   version = 2,",
+                        "   name = \"my_database\",",
+                        "   tables = {}",
+                        ")",
+                        "public class MyDatabase {",
+                        "",
+                        "   @OnUpgrade(from = 1, to = 2)",
+                        "   public void up1to2(SQLiteDatabase database, ConnectionSource connectionSource) {",
+                        "   }",
+                        "",
+                        "   @OnUpgrade(to = 3)",
+                        "   public void upto3(SQLiteDatabase database, ConnectionSource connectionSource) {",
+                        "   }",
+                        "",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .failsToCompile()
+                .withErrorContaining("cannot upgrade to higher version than @Helper version 2");
+    }
+
+    @Test
+    public void upgradeNotFromFirstVersion() {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.MyDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import android.database.sqlite.SQLiteDatabase;",
+                        "import com.j256.ormlite.support.ConnectionSource;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "import eu.f3rog.ormlite.helper.OnUpgrade;",
+                        "",
+                        "@Helper(",
+                        "   version = 3,",
+                        "   name = \"my_database\",",
+                        "   tables = {}",
+                        ")",
+                        "public class MyDatabase {",
+                        "",
+                        "   @OnUpgrade(from = 2, to = 3)",
+                        "   public void up2to3(SQLiteDatabase database, ConnectionSource connectionSource) {",
+                        "   }",
+                        "",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .failsToCompile()
+                .withErrorContaining("Upgrade from version 1 to 2 is missing before this method.");
+    }
+
+    @Test
+    public void upgradeWithoutFromCoversOlderVersions() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.MyDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import android.database.sqlite.SQLiteDatabase;",
+                        "import com.example.model.Event;",
+                        "import com.j256.ormlite.support.ConnectionSource;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "import eu.f3rog.ormlite.helper.OnUpgrade;",
+                        "",
+                        "@Helper(",
+                        "   version = 5,",
+                        "   name = \"upgrade\",",
+                        "   tables = {",
+                        "       Event.class",
+                        "   }",
+                        ")",
+                        "public class MyDatabase {",
+                        "",
+                        "   @OnUpgrade(to = 4)",
+                        "   public void upto4(SQLiteDatabase database, ConnectionSource connectionSource) {",
+                        "   }",
+                        "",
+                        "   @OnUpgrade(to = 5)",
+                        "   public void upto5(SQLiteDatabase database, ConnectionSource connectionSource) {",
+                        "   }",
+                        "",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(eventClass(), helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/UpgradeDatabaseHelper.java");
+        // the first upgrade without from is run for every version below its target version
+        assertTrue(helperSource.contains("case 1:\n      case 2:\n      case 3:\n"));
+        assertTrue(helperSource.contains("metrics.onUpgrade(1, 4, System.nanoTime() - start);"));
+        assertTrue(helperSource.contains("case 4:\n"));
+        assertTrue(helperSource.contains("metrics.onUpgrade(4, 5, System.nanoTime() - start);"));
+    }
+
+    @Test
+    public void withConfigUtil() {
+        JavaFileObject table = JavaFileObjects.forSourceString("com.example.model.Person",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import com.j256.ormlite.dao.ForeignCollection;",
+                        "import com.j256.ormlite.field.DataType;",
+                        "import com.j256.ormlite.field.DatabaseField;",
+                        "import com.j256.ormlite.field.ForeignCollectionField;",
+                        "import com.j256.ormlite.table.DatabaseTable;",
+                        "",
+                        "@DatabaseTable(tableName = \"people\")",
+                        "public class Person {",
+                        "",
+                        "    public enum Gender { MALE, FEMALE, UNKNOWN }",
+                        "",
+                        "    @DatabaseField(generatedId = true)",
+                        "    long id;",
+                        "    @DatabaseField(columnName = \"full_name\", canBeNull = false, index = true, width = 100)",
+                        "    String name;",
+                        "    @DatabaseField(dataType = DataType.LONG_STRING, columnName = \"\")",
+                        "    String note;",
+                        "    @DatabaseField(unknownEnumName = \"UNKNOWN\")",
+                        "    Gender gender;",
+                        "    @DatabaseField(persisted = false)",
+                        "    String ignored;",
+                        "    @ForeignCollectionField(eager = true, orderColumnName = \"name\")",
+                        "    ForeignCollection<Person> friends;",
+                        "    String notAnnotated;",
+                        "",
+                        "}"
+                )
+        );
+
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.PeopleDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Person;",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"people\",",
+                        "   tables = {",
+                        "       TableClass1.class,",
+                        "       Person.class",
+                        "   },",
+                        "   withConfigUtil = true",
+                        ")",
+                        "public class PeopleDatabase {",
+                        "}"
+                )
+        );
+
+        JavaFileObject expectedFile = JavaFileObjects.forSourceString("com.example.PeopleDatabaseConfigUtil",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Person;",
+                        "import com.example.model.TableClass1;",
+                        "import com.j256.ormlite.field.DataType;",
+                        "import com.j256.ormlite.field.DatabaseFieldConfig;",
+                        "import com.j256.ormlite.table.DatabaseTableConfig;",
+                        "import java.lang.String;",
+                        "import java.util.ArrayList;",
+                        "import java.util.List;",
+                        "",
+                        "public final class PeopleDatabaseConfigUtil {",
+                        "",
+                        "   public static List<DatabaseTableConfig<?>> getTableConfigs() {",
+                        "       List<DatabaseTableConfig<?>> tableConfigs = new ArrayList<DatabaseTableConfig<?>>(2);",
+                        "       tableConfigs.add(createTableClass1TableConfig());",
+                        "       tableConfigs.add(createPersonTableConfig());",
+                        "       return tableConfigs;",
+                        "   }",
+                        "",
+                        "   public static DatabaseTableConfig<TableClass1> createTableClass1TableConfig() {",
+                        "       List<DatabaseFieldConfig> fieldConfigs = new ArrayList<DatabaseFieldConfig>(1);",
+                        "       DatabaseFieldConfig fieldConfig;",
+                        "       fieldConfig = new DatabaseFieldConfig(\"id\");",
+                        "       fieldConfig.setId(true);",
+                        "       fieldConfigs.add(fieldConfig);",
+                        "       return new DatabaseTableConfig<TableClass1>(TableClass1.class, \"tableclass1\", fieldConfigs);",
+                        "   }",
+                        "",
+                        "   public static DatabaseTableConfig<Person> createPersonTableConfig() {",
+                        "       List<DatabaseFieldConfig> fieldConfigs = new ArrayList<DatabaseFieldConfig>(5);",
+                        "       DatabaseFieldConfig fieldConfig;",
+                        "       fieldConfig = new DatabaseFieldConfig(\"id\");",
+                        "       fieldConfig.setGeneratedId(true);",
+                        "       fieldConfigs.add(fieldConfig);",
+                        "       fieldConfig = new DatabaseFieldConfig(\"name\");",
+                        "       fieldConfig.setColumnName(\"full_name\");",
+                        "       fieldConfig.setCanBeNull(false);",
+                        "       fieldConfig.setIndex(true);",
+                        "       fieldConfig.setWidth(100);",
+                        "       fieldConfigs.add(fieldConfig);",
+                        "       fieldConfig = new DatabaseFieldConfig(\"note\");",
+                        "       fieldConfig.setDataType(DataType.LONG_STRING);",
+                        "       fieldConfigs.add(fieldConfig);",
+                        "       fieldConfig = new DatabaseFieldConfig(\"gender\");",
+                        "       fieldConfig.setUnknownEnumValue(Person.Gender.UNKNOWN);",
+                        "       fieldConfigs.add(fieldConfig);",
+                        "       fieldConfig = new DatabaseFieldConfig(\"friends\");",
+                        "       fieldConfig.setForeignCollection(true);",
+                        "       fieldConfig.setForeignCollectionEager(true);",
+                        "       fieldConfig.setForeignCollectionOrderColumnName(\"name\");",
+                        "       fieldConfigs.add(fieldConfig);",
+                        "       return new DatabaseTableConfig<Person>(Person.class, \"people\", fieldConfigs);",
+                        "   }",
+                        "",
+                        "   public static String[] getCreateStatements() {",
+                        "       return new String[] {",
+                        "           \"CREATE TABLE `tableclass1` (`id` VARCHAR , PRIMARY KEY (`id`) ) \",",
+                        "           \"CREATE TABLE `people` (`id` INTEGER PRIMARY KEY AUTOINCREMENT , `full_name` VARCHAR NOT NULL , `note` TEXT , `gender` VARCHAR ) \",",
+                        "           \"CREATE INDEX `people_full_name_idx` ON `people` ( `full_name` )\",",
+                        "       };",
+                        "   }",
+                        "",
+                        "   public static String[] getClearStatements() {",
+                        "       return new String[] {",
+                        "           \"DELETE FROM `tableclass1`\",",
+                        "           \"DELETE FROM `people`\",",
+                        "       };",
+                        "   }",
+                        "",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(table, helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedFile);
+    }
+
+    @Test
+    public void withRowMappers() {
+        JavaFileObject table = eventClass();
+
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.EventsDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Event;",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"events\",",
+                        "   tables = {",
+                        "       Event.class,",
+                        "       TableClass1.class",
+                        "   },",
+                        "   withRowMappers = true",
+                        ")",
+                        "public class EventsDatabase {",
+                        "}"
+                )
+        );
+
+        JavaFileObject expectedMapper = JavaFileObjects.forSourceString("com.example.model.EventRowMapper",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import com.j256.ormlite.support.DatabaseResults;",
+                        "import eu.f3rog.ormlite.helper.TableRowMapper;",
+                        "import java.lang.Override;",
+                        "import java.lang.String;",
+                        "import java.sql.SQLException;",
+                        "import java.util.Date;",
+                        "",
+                        "public final class EventRowMapper extends TableRowMapper<Event> {",
+                        "",
+                        "   public static final int INDEX_ID = 0;",
+                        "   public static final int INDEX_NAME = 1;",
+                        "   public static final int INDEX_COUNT = 2;",
+                        "   public static final int INDEX_HANDLED = 3;",
+                        "   public static final int INDEX_TYPE = 4;",
+                        "   public static final int INDEX_CREATED_AT = 5;",
+                        "   private static final String[] COLUMNS = {\"id\", \"event_name\", \"count\", \"handled\", \"type\", \"createdAt\"};",
+                        "",
+                        "   public EventRowMapper() {",
+                        "       super(COLUMNS);",
+                        "   }",
+                        "",
+                        "   @Override",
+                        "   public Event mapRow(DatabaseResults results) throws SQLException {",
+                        "       Event data = new Event();",
+                        "       data.id = results.getLong(INDEX_ID);",
+                        "       data.name = results.getString(INDEX_NAME);",
+                        "       int countValue = results.getInt(INDEX_COUNT);",
+                        "       data.count = results.wasNull(INDEX_COUNT) ? null : countValue;",
+                        "       data.handled = results.getBoolean(INDEX_HANDLED);",
+                        "       data.type = toEnum(Event.Type.class, results.getString(INDEX_TYPE), Event.Type.OTHER);",
+                        "       long createdAtValue = results.getLong(INDEX_CREATED_AT);",
+                        "       data.createdAt = results.wasNull(INDEX_CREATED_AT) ? null : new Date(createdAtValue);",
+                        "       return data;",
+                        "   }",
+                        "",
+                        "}"
+                )
+        );
+
+        JavaFileObject expectedBinder = JavaFileObjects.forSourceString("com.example.model.EventStatementBinder",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import android.database.sqlite.SQLiteDatabase;",
+                        "import android.database.sqlite.SQLiteStatement;",
+                        "import java.lang.String;",
+                        "import java.util.Collection;",
+                        "",
+                        "public final class EventStatementBinder {",
+                        "",
+                        "   public static final String INSERT = \"INSERT INTO `event` (`event_name`, `count`, `handled`, `type`, `createdAt`) VALUES (?, ?, ?, ?, ?)\";",
+                        "",
+                        "   public static final String REPLACE = \"INSERT OR REPLACE INTO `event` (`event_name`, `count`, `handled`, `type`, `createdAt`, `id`) VALUES (?, ?, ?, ?, ?, ?)\";",
+                        "",
+                        "   private EventStatementBinder() {",
+                        "   }",
+                        "",
+                        "   /**",
+                        "    * Binds all columns except generated id.",
+                        "    */",
+                        "   public static void bind(SQLiteStatement statement, Event data) {",
+                        "       if (data.name == null) {",
+                        "           statement.bindNull(1);",
+                        "       }",
+                        "       else {",
+                        "           statement.bindString(1, data.name);",
+                        "       }",
+                        "       if (data.count == null) {",
+                        "           statement.bindNull(2);",
+                        "       }",
+                        "       else {",
+                        "           statement.bindLong(2, data.count);",
+                        "       }",
+                        "       statement.bindLong(3, data.handled ? 1 : 0);",
+                        "       if (data.type == null) {",
+                        "           statement.bindNull(4);",
+                        "       }",
+                        "       else {",
+                        "           statement.bindString(4, data.type.name());",
+                        "       }",
+                        "       if (data.createdAt == null) {",
+                        "           statement.bindNull(5);",
+                        "       }",
+                        "       else {",
+                        "           statement.bindLong(5, data.createdAt.getTime());",
+                        "       }",
+                        "   }",
+                        "",
+                        "   public static void insertAll(SQLiteDatabase database, Collection<Event> data) {",
+                        "       SQLiteStatement insert = database.compileStatement(INSERT);",
+                        "       try {",
+                        "           for (Event item : data) {",
+                        "               bind(insert, item);",
+                        "               item.id = insert.executeInsert();",
+                        "           }",
+                        "       }",
+                        "       finally {",
+                        "           insert.close();",
+                        "       }",
+                        "   }",
+                        "",
+                        "   public static void upsertAll(SQLiteDatabase database, Collection<Event> data) {",
+                        "       SQLiteStatement insert = database.compileStatement(INSERT);",
+                        "       SQLiteStatement replace = database.compileStatement(REPLACE);",
+                        "       try {",
+                        "           for (Event item : data) {",
+                        "               if (item.id == 0) {",
+                        "                   bind(insert, item);",
+                        "                   item.id = insert.executeInsert();",
+                        "               }",
+                        "               else {",
+                        "                   bind(replace, item);",
+                        "                   replace.bindLong(6, item.id);",
+                        "                   replace.executeInsert();",
+                        "               }",
+                        "           }",
+                        "       }",
+                        "       finally {",
+                        "           insert.close();",
+                        "           replace.close();",
+                        "       }",
+                        "   }",
+                        "}"
+                )
+        );
+
+        JavaFileObject expectedHelper = JavaFileObjects.forSourceString("com.example.EventsDatabaseHelper",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import android.content.Context;",
+                        "import android.database.Cursor;",
+                        "import android.database.sqlite.SQLiteDatabase;",
+                        "import android.os.AsyncTask;",
+                        "import android.util.Log;",
+                        "import com.example.model.Event;",
+                        "import com.example.model.EventRowMapper;",
+                        "import com.example.model.EventStatementBinder;",
+                        "import com.example.model.TableClass1;",
+                        "import com.j256.ormlite.android.apptools.OrmLiteSqliteOpenHelper;",
+                        "import com.j256.ormlite.dao.Dao;",
+                        "import com.j256.ormlite.dao.DaoManager;",
+                        "import com.j256.ormlite.support.ConnectionSource;",
+                        "import eu.f3rog.ormlite.helper.HelperMetrics;",
+                        "import eu.f3rog.ormlite.helper.MappedDao;",
+                        "import eu.f3rog.ormlite.helper.MeteredDao;",
+                        "import eu.f3rog.ormlite.helper.Vacuum;",
+                        "import java.lang.Class;",
+                        "import java.lang.Exception;",
+                        "import java.lang.IllegalArgumentException;",
+                        "import java.lang.Long;",
+                        "import java.lang.Object;",
+                        "import java.lang.Override;",
+                        "import java.lang.String;",
+                        "import java.lang.System;",
+                        "import java.lang.Void;",
+                        "import java.sql.SQLException;",
+                        "import java.util.Collection;",
+                        "import java.util.concurrent.Callable;",
+                        "import java.util.concurrent.Executor;",
+                        "import java.util.concurrent.Future;",
+                        "import java.util.concurrent.FutureTask;",
+                        "",
+                        "public final class EventsDatabaseHelper extends OrmLiteSqliteOpenHelper {",
+                        "",
+                        "   private final Object mDaoLock = new Object();",
+                        "   private volatile HelperMetrics mMetrics = HelperMetrics.NONE;",
+                        "   private volatile Dao<Event, Long> mEventDao;",
+                        "   private volatile Dao<TableClass1, String> mTableClass1Dao;",
+                        "",
+                        "   public EventsDatabaseHelper(Context context) {",
+                        "       super(context, \"events.db\", null, 1);",
+                        "   }",
+                        "",
+                        "   @Override",
+                        "   public void onCreate(SQLiteDatabase database, ConnectionSource connectionSource) {",
+                        "       Log.i(EventsDatabase.class.getName(), \"onCreate\");",
+                        "       HelperMetrics metrics = mMetrics;",
+                        "       long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "       database.beginTransaction();",
+                        "       try {",
+                        "           database.execSQL(\"CREATE TABLE `event` (`id` INTEGER PRIMARY KEY AUTOINCREMENT , `event_name` VARCHAR , `count` INTEGER , `handled` SMALLINT , `type` VARCHAR , `createdAt` BIGINT ) \");",
+                        "           database.execSQL(\"CREATE TABLE `tableclass1` (`id` VARCHAR , PRIMARY KEY (`id`) ) \");",
+                        "           database.setTransactionSuccessful();",
+                        "       }",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "       if (metrics != HelperMetrics.NONE) {",
+                        "           metrics.onCreate(System.nanoTime() - start);",
+                        "       }",
+                        "   }",
+                        "",
+                        "   @Override",
+                        "   public void onUpgrade(SQLiteDatabase database, ConnectionSource connectionSource, int oldVersion, int newVersion) {",
+                        "   }",
+                        "",
+                        "   public void clearTables() {",
+                        "       clearTables(Vacuum.NONE);",
+                        "   }",
+                        "",
+                        "   public void clearTables(Vacuum vacuum) {",
+                        "       clearTables(vacuum, Event.class, TableClass1.class);",
+                        "   }",
+                        "",
+                        "   public void clearTables(Vacuum vacuum, Class<?>... tables) {",
+                        "       Log.i(EventsDatabase.class.getName(), \"clearTables\");",
+                        "       HelperMetrics metrics = mMetrics;",
+                        "       long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       database.beginTransaction();",
+                        "       try {",
+                        "           for (Class<?> table : tables) {",
+                        "               database.execSQL(\"DELETE FROM `\" + getTableName(table) + \"`\");",
+                        "           }",
+                        "           database.setTransactionSuccessful();",
+                        "       }",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "       if (vacuum == Vacuum.FULL) {",
+                        "           database.execSQL(\"VACUUM\");",
+                        "       }",
+                        "       else if (vacuum == Vacuum.INCREMENTAL) {",
+                        "           Cursor cursor = database.rawQuery(\"PRAGMA incremental_vacuum\", null);",
+                        "           try {",
+                        "               cursor.getCount();",
+                        "           }",
+                        "           finally {",
+                        "               cursor.close();",
+                        "           }",
+                        "       }",
+                        "       if (metrics != HelperMetrics.NONE) {",
+                        "           metrics.onClearTables(System.nanoTime() - start);",
+                        "       }",
+                        "   }",
+                        "",
+                        "   private static String getTableName(Class<?> tableClass) {",
+                        "       if (tableClass == Event.class) {",
+                        "           return \"event\";",
+                        "       }",
+                        "       if (tableClass == TableClass1.class) {",
+                        "           return \"tableclass1\";",
+                        "       }",
+                        "       throw new IllegalArgumentException(\"Unknown table \" + tableClass.getName());",
+                        "   }",
+                        "",
+                        "   @Override",
+                        "   public void close() {",
+                        "       synchronized (mDaoLock) {",
+                        "           mEventDao = null;",
+                        "           mTableClass1Dao = null;",
+                        "           super.close();",
+                        "       }",
+                        "   }",
+                        "",
+                        "   /**",
+                        "    * Sets listener which receives timings of this helper and its DAOs. {@code null} removes listener.",
+                        "    */",
+                        "   public void setMetrics(HelperMetrics metrics) {",
+                        "       synchronized (mDaoLock) {",
+                        "           mMetrics = (metrics != null) ? metrics : HelperMetrics.NONE;",
+                        "           if (mEventDao instanceof MeteredDao) {",
+                        "               ((MeteredDao<?, ?>) mEventDao).setMetrics(mMetrics);",
+                        "           }",
+                        "           if (mTableClass1Dao instanceof MeteredDao) {",
+                        "               ((MeteredDao<?, ?>) mTableClass1Dao).setMetrics(mMetrics);",
+                        "           }",
+                        "       }",
+                        "   }",
+                        "",
+                        "   public Dao<Event, Long> getEventDao() throws SQLException {",
+                        "       Dao<Event, Long> dao = mEventDao;",
+                        "       if (dao == null) {",
+                        "           synchronized (mDaoLock) {",
+                        "               dao = mEventDao;",
+                        "               if (dao == null) {",
+                        "                   HelperMetrics metrics = mMetrics;",
+                        "                   long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "                   dao = new MappedDao<Event, Long>(getConnectionSource(), Event.class, new EventRowMapper(), metrics);",
+                        "                   DaoManager.registerDao(getConnectionSource(), dao);",
+                        "                   if (metrics != HelperMetrics.NONE) {",
+                        "                       metrics.onDaoCreated(Event.class, System.nanoTime() - start);",
+                        "                   }",
+                        "                   mEventDao = dao;",
+                        "               }",
+                        "           }",
+                        "       }",
+                        "       return dao;",
+                        "   }",
+                        "",
+                        "   public Dao<TableClass1, String> getTableClass1Dao() throws SQLException {",
+                        "       Dao<TableClass1, String> dao = mTableClass1Dao;",
+                        "       if (dao == null) {",
+                        "           synchronized (mDaoLock) {",
+                        "               dao = mTableClass1Dao;",
+                        "               if (dao == null) {",
+                        "                   HelperMetrics metrics = mMetrics;",
+                        "                   long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "                   dao = new MeteredDao<TableClass1, String>(getConnectionSource(), TableClass1.class, metrics);",
+                        "                   DaoManager.registerDao(getConnectionSource(), dao);",
+                        "                   if (metrics != HelperMetrics.NONE) {",
+                        "                       metrics.onDaoCreated(TableClass1.class, System.nanoTime() - start);",
+                        "                   }",
+                        "                   mTableClass1Dao = dao;",
+                        "               }",
+                        "           }",
+                        "       }",
+                        "       return dao;",
+                        "   }",
+                        "",
+                        "   public Future<Void> warmUp(Executor executor) {",
+                        "       FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {",
+                        "           @Override",
+                        "           public Void call() throws Exception {",
+                        "               getWritableDatabase();",
+                        "               getEventDao();",
+                        "               getTableClass1Dao();",
+                        "               return null;",
+                        "           }",
+                        "       });",
+                        "       executor.execute(task);",
+                        "       return task;",
+                        "   }",
+                        "",
+                        "   public Future<Void> openAsync() {",
+                        "       return warmUp(AsyncTask.THREAD_POOL_EXECUTOR);",
+                        "   }",
+                        "",
+                        "   public void insertAllEvent(Collection<Event> data) throws SQLException {",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       HelperMetrics metrics = mMetrics;",
+                        "       long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "       database.beginTransaction();",
+                        "       try {",
+                        "           EventStatementBinder.insertAll(database, data);",
+                        "           database.setTransactionSuccessful();",
+                        "       }",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "       if (metrics != HelperMetrics.NONE) {",
+                        "           metrics.onInsert(Event.class, data.size(), System.nanoTime() - start);",
+                        "       }",
+                        "   }",
+                        "",
+                        "   public void upsertAllEvent(Collection<Event> data) throws SQLException {",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       HelperMetrics metrics = mMetrics;",
+                        "       long start = (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;",
+                        "       database.beginTransaction();",
+                        "       try {",
+                        "           EventStatementBinder.upsertAll(database, data);",
+                        "           database.setTransactionSuccessful();",
+                        "       }",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "       if (metrics != HelperMetrics.NONE) {",
+                        "           metrics.onInsert(Event.class, data.size(), System.nanoTime() - start);",
+                        "       }",
+                        "   }",
+                        "",
+                        "   public void insertAllTableClass1(Collection<TableClass1> data) throws SQLException {",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       database.beginTransaction();",
+                        "       try {",
+                        "           Dao<TableClass1, String> dao = getTableClass1Dao();",
+                        "           for (TableClass1 item : data) {",
+                        "               dao.create(item);",
+                        "           }",
+                        "           database.setTransactionSuccessful();",
+                        "       }",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "   }",
+                        "",
+                        "   public void upsertAllTableClass1(Collection<TableClass1> data) throws SQLException {",
+                        "       SQLiteDatabase database = getWritableDatabase();",
+                        "       database.beginTransaction();",
+                        "       try {",
+                        "           Dao<TableClass1, String> dao = getTableClass1Dao();",
+                        "           for (TableClass1 item : data) {",
+                        "               dao.createOrUpdate(item);",
+                        "           }",
+                        "           database.setTransactionSuccessful();",
+                        "       }",
+                        "       finally {",
+                        "           database.endTransaction();",
+                        "       }",
+                        "   }",
+                        "",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(table, helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedMapper, expectedBinder, expectedHelper);
+    }
+
+    @Test
+    public void concurrentDaoGetters() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.StressDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Event;",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"stress\",",
+                        "   tables = {",
+                        "       Event.class,",
+                        "       TableClass1.class",
+                        "   },",
+                        "   withRowMappers = true",
+                        ")",
+                        "public class StressDatabase {",
+                        "}"
+                )
+        );
+
+        ClassLoader classLoader = compile(mTemporaryFolder.newFolder(), files(eventClass(), helperClass));
+        final Object helper = newHelper(classLoader.loadClass("com.example.StressDatabaseHelper"));
+        final Method getEventDao = helper.getClass().getMethod("getEventDao");
+        final Method getTableClass1Dao = helper.getClass().getMethod("getTableClass1Dao");
+        final Method close = helper.getClass().getMethod("close");
+
+        final int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // all threads ask for DAO at the same time -> only one DAO is created
+            for (int round = 0; round < 50; round++) {
+                closeHelper(close, helper);
+                final CyclicBarrier barrier = new CyclicBarrier(threads);
+                List<Future<Object>> daos = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    daos.add(executor.submit(new Callable<Object>() {
+                        @Override
+                        public Object call() throws Exception {
+                            barrier.await();
+                            return getEventDao.invoke(helper);
+                        }
+                    }));
+                }
+                Object dao = daos.get(0).get();
+                assertNotNull(dao);
+                for (Future<Object> other : daos) {
+                    assertSame(dao, other.get());
+                }
+            }
+
+            // getters racing with close() never return null
+            final AtomicBoolean running = new AtomicBoolean(true);
+            List<Future<Integer>> getters = new ArrayList<>();
+            for (int i = 0; i < threads - 1; i++) {
+                getters.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        int nulls = 0;
+                        while (running.get()) {
+                            if (getEventDao.invoke(helper) == null) nulls++;
+                            if (getTableClass1Dao.invoke(helper) == null) nulls++;
+                        }
+                        return nulls;
+                    }
+                }));
+            }
+            for (int i = 0; i < 2000; i++) {
+                closeHelper(close, helper);
+            }
+            running.set(false);
+            for (Future<Integer> getter : getters) {
+                assertEquals(0, getter.get().intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void createStatementsMatchTableUtils() throws Exception {
+        JavaFileObject table = JavaFileObjects.forSourceString("com.example.model.Account",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import com.j256.ormlite.field.DataType;",
+                        "import com.j256.ormlite.field.DatabaseField;",
+                        "import com.j256.ormlite.table.DatabaseTable;",
+                        "import java.math.BigDecimal;",
+                        "import java.util.Date;",
+                        "",
+                        "@DatabaseTable(tableName = \"accounts\")",
+                        "public class Account {",
+                        "",
+                        "    public enum State { ACTIVE, BLOCKED }",
+                        "",
+                        "    @DatabaseField(id = true, columnName = \"account_id\")",
+                        "    String id;",
+                        "    @DatabaseField(canBeNull = false, unique = true)",
+                        "    String email;",
+                        "    @DatabaseField(defaultValue = \"5\", index = true)",
+                        "    int level;",
+                        "    @DatabaseField(defaultValue = \"true\")",
+                        "    boolean enabled;",
+                        "    @DatabaseField(defaultValue = \"ACTIVE\", canBeNull = false)",
+                        "    State state;",
+                        "    @DatabaseField(uniqueCombo = true)",
+                        "    short region;",
+                        "    @DatabaseField(uniqueCombo = true, columnName = \"ext\", uniqueIndex = true)",
+                        "    Long external;",
+                        "    @DatabaseField",
+                        "    double ratio;",
+                        "    @DatabaseField",
+                        "    Float score;",
+                        "    @DatabaseField",
+                        "    char grade;",
+                        "    @DatabaseField",
+                        "    Date created;",
+                        "    @DatabaseField",
+                        "    BigDecimal balance;",
+                        "    @DatabaseField(dataType = DataType.BYTE_ARRAY)",
+                        "    byte[] avatar;",
+                        "    @DatabaseField(dataType = DataType.LONG_STRING)",
+                        "    String note;",
+                        "    @DatabaseField(columnDefinition = \"INTEGER NOT NULL DEFAULT 0\")",
+                        "    int flags;",
+                        "    @DatabaseField(foreign = true)",
+                        "    Event lastEvent;",
+                        "",
+                        "}"
+                )
+        );
+
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.AccountDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Account;",
+                        "import com.example.model.Event;",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"account\",",
+                        "   tables = {",
+                        "       Account.class,",
+                        "       Event.class,",
+                        "       TableClass1.class",
+                        "   }",
+                        ")",
+                        "public class AccountDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        ClassLoader classLoader = compile(output, files(table, eventClass(), helperClass));
+
+        // create statements generated by processor
+        String helperSource = readGeneratedSource(output, "com/example/AccountDatabaseHelper.java");
+        Matcher matcher = Pattern.compile("database\\.execSQL\\(\"(CREATE (?:[^\"\\\\]|\\\\.)*)\"\\)").matcher(helperSource);
+        List<String> generated = new ArrayList<>();
+        while (matcher.find()) {
+            generated.add(matcher.group(1).replace("\\\"", "\"").replace("\\\\", "\\"));
+        }
+
+        // statements created by ORMLite at runtime
+        ConnectionSource connectionSource = new AndroidConnectionSource((SQLiteDatabase) null);
+        List<String> expected = new ArrayList<>();
+        for (String tableClass : Arrays.asList("com.example.model.Account", "com.example.model.Event", "com.example.model.TableClass1")) {
+            expected.addAll(TableUtils.getCreateTableStatements(connectionSource, classLoader.loadClass(tableClass)));
+        }
+
+        assertEquals(expected, generated);
+    }
+
+    @Test
+    public void writeAheadLogging() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.WalDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"wal\",",
+                        "   tables = {",
+                        "       TableClass1.class",
+                        "   },",
+                        "   writeAheadLogging = true",
+                        ")",
+                        "public class WalDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/WalDatabaseHelper.java");
+        assertTrue(helperSource.contains("setWriteAheadLoggingEnabled(true);"));
+        assertTrue(helperSource.contains("public void onOpen(SQLiteDatabase database) {"));
+        assertTrue(helperSource.contains("database.enableWriteAheadLogging();"));
+    }
+
+    @Test
+    public void storageProfile() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.ReportsDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "import eu.f3rog.ormlite.helper.Storage;",
+                        "",
+                        "@Helper(",
+                        "   name = \"reports\",",
+                        "   tables = {",
+                        "       TableClass1.class",
+                        "   },",
+                        "   storage = @Storage(",
+                        "       mmapSize = 268435456,",
+                        "       pageSize = 8192,",
+                        "       cacheSizeKb = 8192,",
+                        "       synchronous = Storage.Synchronous.NORMAL,",
+                        "       tempStore = Storage.TempStore.MEMORY,",
+                        "       autoVacuum = Storage.AutoVacuum.INCREMENTAL",
+                        "   )",
+                        ")",
+                        "public class ReportsDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/ReportsDatabaseHelper.java");
+        // page size and auto-vacuum are applied outside of transaction of onCreate
+        assertFalse(helperSource.contains("PRAGMA page_size"));
+        assertFalse(helperSource.contains("PRAGMA auto_vacuum"));
+        assertTrue(helperSource.contains("StorageFile.apply(new AndroidDatabaseConnection(database, true), 8192, Storage.AutoVacuum.INCREMENTAL);"));
+        assertTrue(helperSource.contains("database.rawQuery(\"PRAGMA mmap_size = 268435456\", null);"));
+        assertTrue(helperSource.contains("database.execSQL(\"PRAGMA cache_size = -8192\");"));
+        assertTrue(helperSource.contains("database.execSQL(\"PRAGMA synchronous = NORMAL\");"));
+        assertTrue(helperSource.contains("database.execSQL(\"PRAGMA temp_store = MEMORY\");"));
+    }
+
+    @Test
+    public void wrongPageSize() {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.MyDatabaseHelper",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "import eu.f3rog.ormlite.helper.Storage;",
+                        "",
+                        "@Helper(",
+                        "   name = \"my_database.db\",",
+                        "   tables = {},",
+                        "   storage = @Storage(pageSize = 1000)",
+                        ")",
+                        "public class MyDatabaseHelper {",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .failsToCompile()
+                .withErrorContaining("pageSize must be power of two");
+    }
+
+    @Test
+    public void connectionPragmasWithWriteAheadLogging() {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.MyDatabaseHelper",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "import eu.f3rog.ormlite.helper.Storage;",
+                        "",
+                        "@Helper(",
+                        "   name = \"my_database.db\",",
+                        "   tables = {},",
+                        "   writeAheadLogging = true,",
+                        "   storage = @Storage(cacheSizeKb = 8192)",
+                        ")",
+                        "public class MyDatabaseHelper {",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .failsToCompile()
+                .withErrorContaining("@Storage mmapSize, cacheSizeKb and tempStore cannot be combined with writeAheadLogging.");
+    }
+
+    @Test
+    public void slowStatementLog() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.SlowDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"slow\",",
+                        "   tables = {",
+                        "       TableClass1.class",
+                        "   },",
+                        "   slowStatementLog = true",
+                        ")",
+                        "public class SlowDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/SlowDatabaseHelper.java");
+        assertTrue(helperSource.contains("private final SlowStatementLog mSlowStatementLog = new SlowStatementLog();"));
+        assertTrue(helperSource.contains("connectionSource = new TimedConnectionSource(this, mSlowStatementLog);"));
+        assertTrue(helperSource.contains("public SlowStatementLog getSlowStatementLog() {"));
+    }
+
+    @Test
+    public void daoHolders() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.HeldDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"held\",",
+                        "   tables = {",
+                        "       TableClass1.class",
+                        "   },",
+                        "   withDaoHolders = true",
+                        ")",
+                        "public class HeldDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/HeldDatabaseHelper.java");
+        assertTrue(helperSource.contains("static final class TableClass1DaoHolder {"));
+        assertTrue(helperSource.contains("TableClass1DaoHolder.createTable(database, connectionSource);"));
+        assertTrue(helperSource.contains("dao = TableClass1DaoHolder.createDao(getConnectionSource(), mMetrics);"));
+        assertTrue(helperSource.contains("static Dao<TableClass1, String> createDao(ConnectionSource connectionSource, HelperMetrics metrics)"));
+    }
+
+    @Test
+    public void primitiveIds() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.IdsDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Event;",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"ids\",",
+                        "   tables = {",
+                        "       Event.class,",
+                        "       TableClass1.class",
+                        "   },",
+                        "   withPrimitiveIds = true",
+                        ")",
+                        "public class IdsDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(eventClass(), helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/IdsDatabaseHelper.java");
+        // only table with long id has primitive id API
+        assertTrue(helperSource.contains("public LongIdDao<Event, Long> getEventDao() throws SQLException {"));
+        assertTrue(helperSource.contains("public Dao<TableClass1, String> getTableClass1Dao() throws SQLException {"));
+    }
+
+    @Test
+    public void changeTracking() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.TrackedDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"tracked\",",
+                        "   tables = {",
+                        "       TableClass1.class",
+                        "   },",
+                        "   withChangeTracking = true",
+                        ")",
+                        "public class TrackedDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/TrackedDatabaseHelper.java");
+        assertTrue(helperSource.contains("private final TableChanges mTableChanges = new TableChanges(AsyncTask.THREAD_POOL_EXECUTOR);"));
+        assertTrue(helperSource.contains("((MeteredDao<?, ?>) dao).setTableChanges(mTableChanges);"));
+        assertTrue(helperSource.contains("public <R> TableChanges.Observation<R> observe(TableChanges.Query<R> query, TableChanges.Observer<R> observer, Class<?>... tables) {"));
+        assertTrue(helperSource.contains("R result = TransactionManager.callInTransaction(getConnectionSource(), callable);"));
+        // cleared tables are published after transaction ends
+        assertTrue(helperSource.contains("mTableChanges.onChanged(table);"));
+        // changes of rolled back transaction are discarded
+        assertTrue(helperSource.contains("committed = true;"));
+        assertTrue(helperSource.contains("mTableChanges.endBatch(committed);"));
+        assertFalse(helperSource.contains("mTableChanges.endBatch();"));
+    }
+
+    @Test
+    public void queryCache() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.DashboardDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Event;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"dashboard\",",
+                        "   tables = {",
+                        "       Event.class",
+                        "   },",
+                        "   withChangeTracking = true,",
+                        "   queryCacheBytes = 262144",
+                        ")",
+                        "public class DashboardDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(eventClass(), helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/DashboardDatabaseHelper.java");
+        assertTrue(helperSource.contains("private final QueryCache mQueryCache = new QueryCache(mTableChanges, 262144L);"));
+        assertTrue(helperSource.contains("mQueryCache.addTable(\"event\", Event.class);"));
+        assertTrue(helperSource.contains("public List<String[]> queryRawCached(String sql, String... args) throws SQLException {"));
+        assertTrue(helperSource.contains("public long queryRawValueCached(String sql, String... args) throws SQLException {"));
+    }
+
+    @Test
+    public void queryCacheWithoutChangeTracking() {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.MyDatabaseHelper",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"my_database.db\",",
+                        "   tables = {},",
+                        "   queryCacheBytes = 1024",
+                        ")",
+                        "public class MyDatabaseHelper {",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .failsToCompile()
+                .withErrorContaining("queryCacheBytes can be used only withChangeTracking");
+    }
+
+    @Test
+    public void writeQueue() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.TelemetryDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Event;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"telemetry\",",
+                        "   tables = {",
+                        "       Event.class",
+                        "   },",
+                        "   withWriteQueue = true,",
+                        "   writeBatchSize = 250,",
+                        "   writeLatencyMillis = 5",
+                        ")",
+                        "public class TelemetryDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(eventClass(), helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/TelemetryDatabaseHelper.java");
+        assertTrue(helperSource.contains("mWriteQueue = new WriteQueue(getConnectionSource(), 250, 5L, null);"));
+        assertTrue(helperSource.contains("public Future<Integer> createAsync(final Event data) {"));
+        assertTrue(helperSource.contains("return getEventDao().createOrUpdate(data).getNumLinesChanged();"));
+        assertTrue(helperSource.contains("public <R> Future<R> writeAsync(Callable<R> write) {"));
+        // queued writes are committed before helper is closed
+        assertTrue(helperSource.contains("mWriteQueue.shutdown();"));
+    }
+
+    @Test
+    public void chunkedQueries() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.ExportDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Event;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"export\",",
+                        "   tables = {",
+                        "       Event.class",
+                        "   },",
+                        "   withChunkedQueries = true",
+                        ")",
+                        "public class ExportDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(eventClass(), helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/ExportDatabaseHelper.java");
+        assertTrue(helperSource.contains("public ChunkedQuery<Event, Long> streamEvent(Where<Event, Long> where, int chunkSize) throws SQLException {"));
+        assertTrue(helperSource.contains("return new ChunkedQuery<Event, Long>(getEventDao(), \"id\", where, chunkSize);"));
+        assertTrue(helperSource.contains("public int forEachChunkEvent(Where<Event, Long> where, int chunkSize, ChunkedQuery.Callback<Event> callback) throws SQLException {"));
+    }
+
+    @Test
+    public void keysetPaging() throws Exception {
+        JavaFileObject table = JavaFileObjects.forSourceString("com.example.model.Message",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import com.j256.ormlite.field.DatabaseField;",
+                        "import com.j256.ormlite.table.DatabaseTable;",
+                        "import eu.f3rog.ormlite.helper.PageKey;",
+                        "",
+                        "@DatabaseTable(tableName = \"messages\")",
+                        "public class Message {",
+                        "",
+                        "    @DatabaseField(generatedId = true)",
+                        "    long id;",
+                        "    @DatabaseField(columnName = \"sent_at\", index = true, canBeNull = false)",
+                        "    @PageKey(ascending = false)",
+                        "    long sentAt;",
+                        "",
+                        "}"
+                )
+        );
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.ChatDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Event;",
+                        "import com.example.model.Message;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"chat\",",
+                        "   tables = {",
+                        "       Event.class,",
+                        "       Message.class",
+                        "   },",
+                        "   withKeysetPaging = true",
+                        ")",
+                        "public class ChatDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(eventClass(), table, helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/ChatDatabaseHelper.java");
+        // table without page key is paged by id
+        assertTrue(helperSource.contains("return new KeysetPager<Event, Long>(getEventDao(), \"id\");"));
+        assertTrue(helperSource.contains("return new KeysetPager<Message, Long>(getMessageDao(), \"messages\", \"id\", \"sent_at\", false);"));
+        assertTrue(helperSource.contains("public List<Message> pageAfterMessage(Long id, int limit) throws SQLException {"));
+        assertTrue(helperSource.contains("return createMessagePager().pageBefore(id, limit);"));
+    }
+
+    @Test
+    public void nullablePageKey() throws Exception {
+        JavaFileObject table = JavaFileObjects.forSourceString("com.example.model.Message",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import com.j256.ormlite.field.DatabaseField;",
+                        "import com.j256.ormlite.table.DatabaseTable;",
+                        "import eu.f3rog.ormlite.helper.PageKey;",
+                        "",
+                        "@DatabaseTable(tableName = \"messages\")",
+                        "public class Message {",
+                        "",
+                        "    @DatabaseField(generatedId = true)",
+                        "    long id;",
+                        "    @DatabaseField",
+                        "    @PageKey",
+                        "    String title;",
+                        "",
+                        "}"
+                )
+        );
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.ChatDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Message;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"chat\",",
+                        "   tables = {",
+                        "       Message.class",
+                        "   },",
+                        "   withKeysetPaging = true",
+                        ")",
+                        "public class ChatDatabase {",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(table, helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .failsToCompile()
+                .withErrorContaining("@PageKey must annotate field which cannot be null (canBeNull = false).");
+    }
+
+    @Test
+    public void cursorViews() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.EventsDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Event;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"events\",",
+                        "   tables = {",
+                        "       Event.class",
+                        "   },",
+                        "   withCursorViews = true",
+                        ")",
+                        "public class EventsDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(eventClass(), helperClass));
+
+        String viewSource = readGeneratedSource(output, "com/example/model/EventView.java");
+        assertTrue(viewSource.contains("public final class EventView extends CursorView {"));
+        assertTrue(viewSource.contains("public static final String[] COLUMNS = {\"`id`\", \"`event_name`\", \"`count`\", \"`handled`\", \"`type`\", \"`createdAt`\"};"));
+        assertTrue(viewSource.contains("return mCursor.getLong(INDEX_ID);"));
+        assertTrue(viewSource.contains("return mCursor.isNull(INDEX_COUNT) ? null : mCursor.getInt(INDEX_COUNT);"));
+        assertTrue(viewSource.contains("public boolean isHandled() {"));
+        assertTrue(viewSource.contains("return toEnum(Event.Type.class, mCursor.getString(INDEX_TYPE), Event.Type.OTHER);"));
+        assertTrue(viewSource.contains("return mCursor.isNull(INDEX_CREATED_AT) ? null : new Date(mCursor.getLong(INDEX_CREATED_AT));"));
+
+        String helperSource = readGeneratedSource(output, "com/example/EventsDatabaseHelper.java");
+        assertTrue(helperSource.contains("public EventView queryEventView(String selection, String[] selectionArgs, String orderBy) {"));
+        assertTrue(helperSource.contains("Cursor cursor = getReadableDatabase().query(\"`event`\", EventView.COLUMNS, selection, selectionArgs, null, null, orderBy);"));
+    }
+
+    @Test
+    public void projections() throws Exception {
+        JavaFileObject summary = JavaFileObjects.forSourceString("com.example.model.EventSummary",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import eu.f3rog.ormlite.helper.Projection;",
+                        "",
+                        "@Projection(table = Event.class)",
+                        "public class EventSummary {",
+                        "",
+                        "    long id;",
+                        "    String name;",
+                        "",
+                        "}"
+                )
+        );
+        JavaFileObject state = JavaFileObjects.forSourceString("com.example.model.EventState",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import eu.f3rog.ormlite.helper.Projection;",
+                        "",
+                        "@Projection(table = Event.class)",
+                        "public interface EventState {",
+                        "",
+                        "    Integer getCount();",
+                        "",
+                        "    boolean isHandled();",
+                        "",
+                        "}"
+                )
+        );
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.EventsDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Event;",
+                        "import com.example.model.EventState;",
+                        "import com.example.model.EventSummary;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"events\",",
+                        "   tables = {",
+                        "       Event.class",
+                        "   },",
+                        "   projections = {",
+                        "       EventSummary.class,",
+                        "       EventState.class",
+                        "   }",
+                        ")",
+                        "public class EventsDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(eventClass(), summary, state, helperClass));
+
+        String summaryMapperSource = readGeneratedSource(output, "com/example/model/EventSummaryMapper.java");
+        assertTrue(summaryMapperSource.contains("public final class EventSummaryMapper extends TableRowMapper<EventSummary> {"));
+        assertTrue(summaryMapperSource.contains("private static final String[] COLUMNS = {\"id\", \"event_name\"};"));
+        assertTrue(summaryMapperSource.contains("data.name = results.getString(INDEX_NAME);"));
+
+        String stateMapperSource = readGeneratedSource(output, "com/example/model/EventStateMapper.java");
+        assertTrue(stateMapperSource.contains("private static final class Values implements EventState {"));
+        assertTrue(stateMapperSource.contains("data.count = results.wasNull(INDEX_COUNT) ? null : countValue;"));
+        assertTrue(stateMapperSource.contains("public boolean isHandled() {"));
+
+        String helperSource = readGeneratedSource(output, "com/example/EventsDatabaseHelper.java");
+        assertTrue(helperSource.contains("public List<EventSummary> queryEventSummary(QueryBuilder<Event, Long> query) throws SQLException {"));
+        assertTrue(helperSource.contains("return Projections.query(getEventDao(), query, new EventSummaryMapper());"));
+        assertTrue(helperSource.contains("return queryEventState(getEventDao().queryBuilder());"));
+    }
+
+    @Test
+    public void projectionWithOtherType() throws Exception {
+        JavaFileObject summary = JavaFileObjects.forSourceString("com.example.model.EventSummary",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import eu.f3rog.ormlite.helper.Projection;",
+                        "",
+                        "@Projection(table = Event.class)",
+                        "public class EventSummary {",
+                        "",
+                        "    int count;",
+                        "",
+                        "}"
+                )
+        );
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.EventsDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Event;",
+                        "import com.example.model.EventSummary;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"events\",",
+                        "   tables = {",
+                        "       Event.class",
+                        "   },",
+                        "   projections = {",
+                        "       EventSummary.class",
+                        "   }",
+                        ")",
+                        "public class EventsDatabase {",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(eventClass(), summary, helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .failsToCompile()
+                .withErrorContaining("@Projection EventSummary cannot be mapped, because 'count' has other type than field of Event.");
+    }
+
+    @Test
+    public void cachePolicies() throws Exception {
+        JavaFileObject table = JavaFileObjects.forSourceString("com.example.model.Country",
+                Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import com.j256.ormlite.field.DatabaseField;",
+                        "import com.j256.ormlite.table.DatabaseTable;",
+                        "import eu.f3rog.ormlite.helper.Cache;",
+                        "",
+                        "@DatabaseTable",
+                        "@Cache(policy = Cache.Policy.WEAK)",
+                        "public class Country {",
+                        "",
+                        "    @DatabaseField(id = true)",
+                        "    String code;",
+                        "",
+                        "}"
+                )
+        );
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.CachedDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.Country;",
+                        "import com.example.model.Event;",
+                        "import eu.f3rog.ormlite.helper.Cache;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"cached\",",
+                        "   tables = {",
+                        "       Country.class,",
+                        "       Event.class",
+                        "   },",
+                        "   caches = {",
+                        "       @Cache(table = Event.class, maxCount = 100, maxBytes = 65536)",
+                        "   }",
+                        ")",
+                        "public class CachedDatabase {",
+                        "}"
+                )
+        );
+
+        File output = mTemporaryFolder.newFolder();
+        compile(output, files(table, eventClass(), helperClass));
+
+        String helperSource = readGeneratedSource(output, "com/example/CachedDatabaseHelper.java");
+        assertTrue(helperSource.contains("dao.setObjectCache(true);"));
+        assertTrue(helperSource.contains("dao.setObjectCache(new BoundedObjectCache(100, 65536L));"));
+        // cleared objects are removed from cache
+        assertTrue(helperSource.contains("mEventDao.clearObjectCache();"));
+    }
+
+    @Test
+    public void unboundedLruCache() {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.MyDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Cache;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"my\",",
+                        "   tables = {",
+                        "       TableClass1.class",
+                        "   },",
+                        "   caches = {",
+                        "       @Cache(table = TableClass1.class, policy = Cache.Policy.LRU)",
+                        "   }",
+                        ")",
+                        "public class MyDatabase {",
+                        "}"
+                )
+        );
+
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor())
+                .failsToCompile()
+                .withErrorContaining("@Cache with LRU policy must specify maxCount or maxBytes.");
+    }
+
+    @Test
+    public void tableGeneratedInLaterRound() {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.GeneratedDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.GeneratedTable;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"generated\",",
+                        "   tables = {",
+                        "       GeneratedTable.class",
+                        "   }",
+                        ")",
+                        "public class GeneratedDatabase {",
+                        "}"
+                )
+        );
+
+        // helper is deferred until table generated by other processor exists
+        Truth.assert_()
+                .about(JavaSourcesSubjectFactory.javaSources())
+                .that(files(helperClass))
+                .processedWith(new eu.f3rog.ormlite.helper.compiler.HelperProcessor(), new TableGeneratingProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesFileNamed(StandardLocation.SOURCE_OUTPUT, "com.example", "GeneratedDatabaseHelper.java");
+    }
+
+    @Test
+    public void metricsListener() throws Exception {
+        JavaFileObject helperClass = JavaFileObjects.forSourceString("com.example.MeteredDatabase",
+                Joiner.on('\n').join(
+                        "package com.example;",
+                        "",
+                        "import com.example.model.TableClass1;",
+                        "import eu.f3rog.ormlite.helper.Helper;",
+                        "",
+                        "@Helper(",
+                        "   name = \"metered\",",
+                        "   tables = {",
+                        "       TableClass1.class",
+                        "   }",
+                        ")",
+                        "public class MeteredDatabase {",
+                        "}"
+                )
+        );
+
+        ClassLoader classLoader = compile(mTemporaryFolder.newFolder(), files(helperClass));
+        Object helper = newHelper(classLoader.loadClass("com.example.MeteredDatabaseHelper"));
+        Method setMetrics = helper.getClass().getMethod("setMetrics", HelperMetrics.class);
+        final List<Class<?>> createdDaos = Collections.synchronizedList(new ArrayList<Class<?>>());
+        HelperMetrics metrics = new HelperMetrics() {
+            @Override
+            public void onCreate(long durationNanos) {
+            }
+
+            @Override
+            public void onUpgrade(int fromVersion, int toVersion, long durationNanos) {
+            }
+
+            @Override
+            public void onClearTables(long durationNanos) {
+            }
+
+            @Override
+            public void onDaoCreated(Class<?> table, long durationNanos) {
+                createdDaos.add(table);
+            }
+
+            @Override
+            public void onQuery(Class<?> table, int rows, long durationNanos) {
+            }
+
+            @Override
+            public void onInsert(Class<?> table, int rows, long durationNanos) {
+            }
+        };
+
+        setMetrics.invoke(helper, metrics);
+        Object dao = helper.getClass().getMethod("getTableClass1Dao").invoke(helper);
+        helper.getClass().getMethod("getTableClass1Dao").invoke(helper);
+
+        // DAO is created once and reports to listener
+        assertEquals(Collections.<Class<?>>singletonList(classLoader.loadClass("com.example.model.TableClass1")), createdDaos);
+        assertTrue(dao instanceof MeteredDao);
+        assertSame(metrics, ((MeteredDao<?, ?>) dao).getMetrics());
+
+        // listener of created DAO is replaced too
+        setMetrics.invoke(helper, new Object[]{null});
+        assertSame(HelperMetrics.NONE, ((MeteredDao<?, ?>) dao).getMetrics());
+    }
+
+    /**
+     * Processor which generates table class in the first round, like other annotation processors of application could do.
+     */
+    @SupportedAnnotationTypes("*")
+    private static class TableGeneratingProcessor extends AbstractProcessor {
+
+        private boolean mGenerated;
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            if (mGenerated) {
+                return false;
+            }
+            mGenerated = true;
+            try (Writer writer = processingEnv.getFiler().createSourceFile("com.example.model.GeneratedTable").openWriter()) {
+                writer.write(Joiner.on('\n').join(
+                        "package com.example.model;",
+                        "",
+                        "import com.j256.ormlite.field.DatabaseField;",
+                        "import com.j256.ormlite.table.DatabaseTable;",
+                        "",
+                        "@DatabaseTable",
+                        "public class GeneratedTable {",
+                        "    @DatabaseField(generatedId = true)",
+                        "    long id;",
+                        "}"
+                ));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return false;
+        }
+
+    }
+
+    /**
+     * Compiles given sources with {@link HelperProcessor} and returns class loader of compiled classes.
+     */
+    private ClassLoader compile(File output, Iterable<JavaFileObject> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(output));
+        fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singleton(output));
+
+        List<String> options = Arrays.asList("-classpath", getTestClassPath());
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, sources);
+        task.setProcessors(Collections.singleton(new HelperProcessor()));
+        assertTrue(task.call());
+        fileManager.close();
+
+        return new URLClassLoader(new URL[]{output.toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    private String readGeneratedSource(File output, String path) throws IOException {
+        return new String(Files.readAllBytes(new File(output, path).toPath()), "UTF-8");
+    }
+
+    private String getTestClassPath() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        if (classLoader instanceof URLClassLoader) {
+            StringBuilder classPath = new StringBuilder();
+            for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+                classPath.append(url.getPath()).append(File.pathSeparatorChar);
+            }
+            return classPath.toString();
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    /**
+     * Creates helper without calling its constructor, because Android stubs throw from {@code SQLiteOpenHelper}.
+     * DAO creation only needs connection source with database type, it does not touch database.
+     */
+    private Object newHelper(Class<?> helperClass) throws Exception {
+        Field unsafeField = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+        unsafeField.setAccessible(true);
+        Object unsafe = unsafeField.get(null);
+        Object helper = unsafe.getClass().getMethod("allocateInstance", Class.class).invoke(unsafe, helperClass);
+
+        setField(helper, helperClass, "mDaoLock", new Object());
+        setField(helper, helperClass, "mMetrics", HelperMetrics.NONE);
+        setField(helper, OrmLiteSqliteOpenHelper.class, "connectionSource", new AndroidConnectionSource((SQLiteDatabase) null));
+        setField(helper, OrmLiteSqliteOpenHelper.class, "isOpen", true);
+        return helper;
+    }
+
+    private void setField(Object object, Class<?> declaringClass, String name, Object value) throws Exception {
+        Field field = declaringClass.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(object, value);
+    }
+
+    private void closeHelper(Method close, Object helper) throws Exception {
+        try {
+            close.invoke(helper);
+        } catch (InvocationTargetException e) {
+            // SQLiteOpenHelper.close() of Android stubs throws after DAOs were released
+            if (!"Stub!".equals(e.getCause().getMessage())) {
+                throw e;
+            }
+        }
+    }
+
 }
@@ -0,0 +1,219 @@
+package eu.f3rog.ormlite.helper;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class {@link BoundedObjectCache}.
+ * <p>
+ * Object cache which keeps strongly referenced objects up to given count and/or estimated size in bytes for each class.
+ * When it is full, the least recently used objects are removed. Size of objects is estimated by {@link ObjectSizer}.
+ * </p>
+ */
+public class BoundedObjectCache implements MeteredObjectCache {
+
+    private final int mMaxCount;
+    private final long mMaxBytes;
+    private final CacheStats mStats = new CacheStats();
+    private final Map<Class<?>, Objects> mObjects = new ConcurrentHashMap<Class<?>, Objects>();
+
+    /**
+     * Creates cache with given limits. Value 0 means that the limit is not used, but at least one limit has to be given.
+     */
+    public BoundedObjectCache(int maxCount, long maxBytes) {
+        if (maxCount < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("Limits must not be negative");
+        }
+        if (maxCount == 0 && maxBytes == 0) {
+            throw new IllegalArgumentException("Cache has to be limited by count or bytes");
+        }
+        mMaxCount = maxCount;
+        mMaxBytes = maxBytes;
+    }
+
+    public int getMaxCount() {
+        return mMaxCount;
+    }
+
+    public long getMaxBytes() {
+        return mMaxBytes;
+    }
+
+    /**
+     * Returns estimated size of objects of given class which are in cache.
+     */
+    public <T> long getBytes(Class<T> clazz) {
+        Objects objects = mObjects.get(clazz);
+        if (objects == null) {
+            return 0;
+        }
+        synchronized (objects) {
+            return objects.bytes;
+        }
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return mStats;
+    }
+
+    @Override
+    public synchronized <T> void registerClass(Class<T> clazz) {
+        if (!mObjects.containsKey(clazz)) {
+            mObjects.put(clazz, new Objects((mMaxBytes > 0) ? new ObjectSizer(clazz) : null));
+        }
+    }
+
+    @Override
+    public <T, ID> T get(Class<T> clazz, ID id) {
+        Objects objects = mObjects.get(clazz);
+        if (objects == null) {
+            return null;
+        }
+        Entry entry;
+        synchronized (objects) {
+            entry = objects.map.get(id);
+        }
+        if (entry == null) {
+            mStats.onMiss();
+            return null;
+        }
+        mStats.onHit();
+        return clazz.cast(entry.data);
+    }
+
+    @Override
+    public <T, ID> void put(Class<T> clazz, ID id, T data) {
+        Objects objects = mObjects.get(clazz);
+        if (objects == null) {
+            return;
+        }
+        // size is estimated outside of lock, because it reads all fields
+        long size = (objects.sizer != null) ? objects.sizer.sizeOf(data) : 0;
+        synchronized (objects) {
+            Entry old = objects.map.put(id, new Entry(data, size));
+            if (old != null) {
+                objects.bytes -= old.size;
+            }
+            objects.bytes += size;
+            evict(objects);
+        }
+    }
+
+    @Override
+    public <T, ID> void remove(Class<T> clazz, ID id) {
+        Objects objects = mObjects.get(clazz);
+        if (objects != null) {
+            synchronized (objects) {
+                Entry old = objects.map.remove(id);
+                if (old != null) {
+                    objects.bytes -= old.size;
+                }
+            }
+        }
+    }
+
+    @Override
+    public <T, ID> T updateId(Class<T> clazz, ID oldId, ID newId) {
+        Objects objects = mObjects.get(clazz);
+        if (objects == null) {
+            return null;
+        }
+        synchronized (objects) {
+            Entry entry = objects.map.remove(oldId);
+            if (entry == null) {
+                return null;
+            }
+            Entry old = objects.map.put(newId, entry);
+            if (old != null) {
+                objects.bytes -= old.size;
+            }
+            return clazz.cast(entry.data);
+        }
+    }
+
+    @Override
+    public <T> void clear(Class<T> clazz) {
+        Objects objects = mObjects.get(clazz);
+        if (objects != null) {
+            synchronized (objects) {
+                objects.map.clear();
+                objects.bytes = 0;
+            }
+        }
+    }
+
+    @Override
+    public void clearAll() {
+        for (Objects objects : mObjects.values()) {
+            synchronized (objects) {
+                objects.map.clear();
+                objects.bytes = 0;
+            }
+        }
+    }
+
+    @Override
+    public <T> int size(Class<T> clazz) {
+        Objects objects = mObjects.get(clazz);
+        if (objects == null) {
+            return 0;
+        }
+        synchronized (objects) {
+            return objects.map.size();
+        }
+    }
+
+    @Override
+    public int sizeAll() {
+        int size = 0;
+        for (Objects objects : mObjects.values()) {
+            synchronized (objects) {
+                size += objects.map.size();
+            }
+        }
+        return size;
+    }
+
+    private void evict(Objects objects) {
+        Iterator<Entry> eldest = objects.map.values().iterator();
+        while (isFull(objects) && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            objects.bytes -= entry.size;
+            mStats.onEviction();
+        }
+    }
+
+    private boolean isFull(Objects objects) {
+        return (mMaxCount > 0 && objects.map.size() > mMaxCount) || (mMaxBytes > 0 && objects.bytes > mMaxBytes);
+    }
+
+    /**
+     * Cached objects of one class ordered from the least recently used.
+     */
+    private static final class Objects {
+
+        final LinkedHashMap<Object, Entry> map = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+        final ObjectSizer sizer;
+        long bytes;
+
+        Objects(ObjectSizer sizer) {
+            this.sizer = sizer;
+        }
+    }
+
+    private static final class Entry {
+
+        final Object data;
+        final long size;
+
+        Entry(Object data, long size) {
+            this.data = data;
+            this.size = size;
+        }
+    }
+
+}
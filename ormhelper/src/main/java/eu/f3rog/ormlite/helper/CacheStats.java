@@ -0,0 +1,65 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.ObjectCache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class {@link CacheStats}.
+ * <p>
+ * Counters of {@link MeteredObjectCache}. ORMLite looks up cache for each queried id and for each mapped row,
+ * so both are counted as hits or misses.
+ * </p>
+ */
+public final class CacheStats {
+
+    private final AtomicLong mHits = new AtomicLong();
+    private final AtomicLong mMisses = new AtomicLong();
+    private final AtomicLong mEvictions = new AtomicLong();
+
+    /**
+     * Returns statistics of object cache of given DAO or {@code null} if DAO has no cache or its cache does not count them.
+     */
+    public static CacheStats of(Dao<?, ?> dao) {
+        ObjectCache cache = dao.getObjectCache();
+        return (cache instanceof MeteredObjectCache) ? ((MeteredObjectCache) cache).getStats() : null;
+    }
+
+    CacheStats() {
+    }
+
+    public long getHitCount() {
+        return mHits.get();
+    }
+
+    public long getMissCount() {
+        return mMisses.get();
+    }
+
+    /**
+     * Returns number of objects which were removed because cache was full or because they were garbage collected.
+     * Objects removed because of delete or clear are not counted.
+     */
+    public long getEvictionCount() {
+        return mEvictions.get();
+    }
+
+    void onHit() {
+        mHits.incrementAndGet();
+    }
+
+    void onMiss() {
+        mMisses.incrementAndGet();
+    }
+
+    void onEviction() {
+        mEvictions.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, evictions=%d", getHitCount(), getMissCount(), getEvictionCount());
+    }
+
+}
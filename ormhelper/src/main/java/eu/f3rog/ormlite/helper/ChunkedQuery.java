@@ -0,0 +1,146 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.stmt.PreparedQuery;
+import com.j256.ormlite.stmt.QueryBuilder;
+import com.j256.ormlite.stmt.SelectArg;
+import com.j256.ormlite.stmt.Where;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Class {@link ChunkedQuery}.
+ * <p>
+ * Walks rows of one table in windows of fixed size ordered by id. Each window is a separate query which seeks
+ * after the last id of previous window ({@code WHERE id > ? ORDER BY id LIMIT n}), so no cursor is kept open
+ * between windows and only one window of objects is held in memory at a time.
+ * </p>
+ * <p>
+ * <b> NOTE: </b>
+ * Given {@link Where} is extended with id condition, so it cannot be used for other queries. Rows which are inserted
+ * during the walk are returned only if their id is greater than the last returned id.
+ * </p>
+ */
+public class ChunkedQuery<T, ID> implements Iterable<T> {
+
+    /**
+     * Receives windows of rows.
+     */
+    public interface Callback<T> {
+
+        /**
+         * Called for each window. Objects of the window are not referenced by query after this method returns.
+         */
+        void onChunk(List<T> chunk) throws SQLException;
+    }
+
+    private final Dao<T, ID> mDao;
+    private final int mChunkSize;
+    private final SelectArg mLastId = new SelectArg();
+    private final PreparedQuery<T> mFirstQuery;
+    private final PreparedQuery<T> mNextQuery;
+
+    /**
+     * Creates query over rows matching given where clause ({@code null} for all rows) of table with given id column.
+     */
+    public ChunkedQuery(Dao<T, ID> dao, String idColumn, Where<T, ID> where, int chunkSize) throws SQLException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        mDao = dao;
+        mChunkSize = chunkSize;
+
+        QueryBuilder<T, ID> query = dao.queryBuilder();
+        query.orderBy(idColumn, true);
+        query.limit((long) chunkSize);
+        if (where != null) {
+            query.setWhere(where);
+        }
+        // first window has no lower bound, prepared query keeps its statement
+        mFirstQuery = query.prepare();
+        if (where != null) {
+            where.and().gt(idColumn, mLastId);
+        } else {
+            query.where().gt(idColumn, mLastId);
+        }
+        mNextQuery = query.prepare();
+    }
+
+    public int getChunkSize() {
+        return mChunkSize;
+    }
+
+    /**
+     * Passes all rows to given callback window by window and returns number of rows.
+     */
+    public int forEachChunk(Callback<T> callback) throws SQLException {
+        int count = 0;
+        List<T> chunk = mDao.query(mFirstQuery);
+        while (!chunk.isEmpty()) {
+            count += chunk.size();
+            boolean last = chunk.size() < mChunkSize;
+            ID lastId = mDao.extractId(chunk.get(chunk.size() - 1));
+            callback.onChunk(chunk);
+            if (last) {
+                break;
+            }
+            chunk = nextChunk(lastId);
+        }
+        return count;
+    }
+
+    /**
+     * Returns iterator which loads rows window by window. Each call starts a new walk.
+     * {@link SQLException} thrown by window query is wrapped in {@link IllegalStateException}.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+
+            private List<T> mChunk;
+            private int mIndex;
+
+            @Override
+            public boolean hasNext() {
+                if (mChunk != null && mIndex < mChunk.size()) {
+                    return true;
+                }
+                if (mChunk != null && mChunk.size() < mChunkSize) {
+                    return false;
+                }
+                try {
+                    mChunk = (mChunk == null) ? mDao.query(mFirstQuery) : nextChunk(mDao.extractId(mChunk.get(mChunk.size() - 1)));
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not get next chunk of " + mDao.getDataClass().getName(), e);
+                }
+                mIndex = 0;
+                return !mChunk.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return mChunk.get(mIndex++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private List<T> nextChunk(ID lastId) throws SQLException {
+        // prepared query is shared, so windows are loaded one at a time
+        synchronized (mLastId) {
+            mLastId.setValue(lastId);
+            return mDao.query(mNextQuery);
+        }
+    }
+
+}
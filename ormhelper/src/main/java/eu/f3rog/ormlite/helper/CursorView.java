@@ -0,0 +1,85 @@
+package eu.f3rog.ormlite.helper;
+
+import android.database.Cursor;
+
+import java.io.Closeable;
+
+/**
+ * Class {@link CursorView}.
+ * <p>
+ * Base class for generated views of table rows. View does not copy rows into objects, its getters read columns
+ * of the current row of an open cursor by fixed indexes. One view is moved over all rows, so only rows which are
+ * actually read (e.g. visible items of a list) are decoded.
+ * </p>
+ * <p>
+ * <b> NOTE: </b>
+ * View has to be closed when it is not used anymore. Values returned by getters of one row are not changed
+ * when view is moved to other row, but the view itself must not be kept as a row.
+ * </p>
+ */
+public abstract class CursorView implements Closeable {
+
+    protected final Cursor mCursor;
+
+    protected CursorView(Cursor cursor) {
+        mCursor = cursor;
+    }
+
+    /**
+     * Returns number of rows.
+     */
+    public int size() {
+        return mCursor.getCount();
+    }
+
+    /**
+     * Moves view to row at given position and returns {@code false} if there is no such row.
+     */
+    public boolean moveTo(int position) {
+        return mCursor.moveToPosition(position);
+    }
+
+    /**
+     * Moves view to the next row and returns {@code false} if there is no next row.
+     */
+    public boolean moveToNext() {
+        return mCursor.moveToNext();
+    }
+
+    /**
+     * Returns position of current row.
+     */
+    public int position() {
+        return mCursor.getPosition();
+    }
+
+    @Override
+    public void close() {
+        mCursor.close();
+    }
+
+    /**
+     * Reads character the same way as ORMLite does (the first character of the string value).
+     */
+    protected static char toChar(String value) {
+        return (value == null || value.isEmpty()) ? 0 : value.charAt(0);
+    }
+
+    /**
+     * Converts name of enum constant the same way as ORMLite does.
+     */
+    protected static <E extends Enum<E>> E toEnum(Class<E> enumClass, String name, E unknownValue) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(enumClass, name);
+        } catch (IllegalArgumentException e) {
+            if (unknownValue != null) {
+                return unknownValue;
+            }
+            throw new IllegalStateException(String.format("Cannot get enum value of '%s' for %s", name, enumClass.getName()), e);
+        }
+    }
+
+}
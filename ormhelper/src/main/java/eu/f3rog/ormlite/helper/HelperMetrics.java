@@ -0,0 +1,48 @@
+package eu.f3rog.ormlite.helper;
+
+/**
+ * Interface {@link HelperMetrics}.
+ * <p>
+ * Listener which receives timings of generated helper and its DAOs. All durations are in nanoseconds.
+ * Set it with {@code setMetrics} of generated helper. Methods are called on the thread which did the operation,
+ * so implementation has to be thread-safe and fast.
+ * </p>
+ */
+public interface HelperMetrics {
+
+    /**
+     * Default listener which does nothing.
+     */
+    HelperMetrics NONE = new NoMetrics();
+
+    /**
+     * Called when all tables were created.
+     */
+    void onCreate(long durationNanos);
+
+    /**
+     * Called after each {@link OnUpgrade} method.
+     */
+    void onUpgrade(int fromVersion, int toVersion, long durationNanos);
+
+    /**
+     * Called when {@code clearTables} finished (including vacuum).
+     */
+    void onClearTables(long durationNanos);
+
+    /**
+     * Called when DAO for given table was created.
+     */
+    void onDaoCreated(Class<?> table, long durationNanos);
+
+    /**
+     * Called when DAO query of given table returned {@code rows} objects.
+     */
+    void onQuery(Class<?> table, int rows, long durationNanos);
+
+    /**
+     * Called when {@code rows} objects were inserted into given table.
+     */
+    void onInsert(Class<?> table, int rows, long durationNanos);
+
+}
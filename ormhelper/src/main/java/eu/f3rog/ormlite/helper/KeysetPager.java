@@ -0,0 +1,136 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.stmt.QueryBuilder;
+import com.j256.ormlite.stmt.SelectArg;
+import com.j256.ormlite.stmt.Where;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class {@link KeysetPager}.
+ * <p>
+ * Loads pages of one table by seeking on key of the last loaded row instead of skipping rows with {@code OFFSET},
+ * so each page costs the same no matter how deep it is. Rows are ordered by id or by page key column and then by id.
+ * Sort column must not contain {@code NULL} values, because they do not match any comparison of the seek.
+ * Rows are identified by their id, page key of a row is looked up by its id in the same query.
+ * </p>
+ * <p>
+ * Methods match item-keyed data sources of paging libraries: {@link #getKey(Object)} returns key of loaded item,
+ * {@link #pageFrom(Object, int)} loads initial page and {@link #pageAfter(Object, int)} or {@link #pageBefore(Object, int)}
+ * load adjacent pages. All pages are returned in the same order.
+ * </p>
+ */
+public class KeysetPager<T, ID> {
+
+    private final Dao<T, ID> mDao;
+    private final String mTableName;
+    private final String mIdColumn;
+    private final String mSortColumn;
+    private final boolean mAscending;
+
+    /**
+     * Creates pager which orders rows by given id column in ascending order.
+     */
+    public KeysetPager(Dao<T, ID> dao, String idColumn) {
+        this(dao, null, idColumn, null, true);
+    }
+
+    /**
+     * Creates pager which orders rows by given sort column ({@code null} for id only) and then by id in given direction.
+     * Table name is required only with sort column.
+     */
+    public KeysetPager(Dao<T, ID> dao, String tableName, String idColumn, String sortColumn, boolean ascending) {
+        if (sortColumn != null && tableName == null) {
+            throw new IllegalArgumentException("Table name is required with sort column");
+        }
+        mDao = dao;
+        mTableName = tableName;
+        mIdColumn = idColumn;
+        mSortColumn = sortColumn;
+        mAscending = ascending;
+    }
+
+    /**
+     * Returns key of given row, which can be passed to other methods.
+     */
+    public ID getKey(T data) throws SQLException {
+        return mDao.extractId(data);
+    }
+
+    /**
+     * Returns the first page.
+     */
+    public List<T> firstPage(int limit) throws SQLException {
+        return query(null, mAscending, true, limit);
+    }
+
+    /**
+     * Returns page which starts with row with given id ({@code null} for the first page).
+     */
+    public List<T> pageFrom(ID id, int limit) throws SQLException {
+        return query(id, mAscending, true, limit);
+    }
+
+    /**
+     * Returns page of rows which follow row with given id ({@code null} for the first page).
+     */
+    public List<T> pageAfter(ID id, int limit) throws SQLException {
+        return query(id, mAscending, false, limit);
+    }
+
+    /**
+     * Returns page of rows which precede row with given id. Rows are returned in the same order as by {@link #pageAfter(Object, int)}.
+     */
+    public List<T> pageBefore(ID id, int limit) throws SQLException {
+        if (id == null) {
+            return Collections.emptyList();
+        }
+        // rows are read backwards from the key, so page is reversed afterwards
+        List<T> page = query(id, !mAscending, false, limit);
+        Collections.reverse(page);
+        return page;
+    }
+
+    private List<T> query(ID id, boolean ascending, boolean inclusive, int limit) throws SQLException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        QueryBuilder<T, ID> query = mDao.queryBuilder();
+        if (mSortColumn != null) {
+            query.orderBy(mSortColumn, ascending);
+        }
+        query.orderBy(mIdColumn, ascending);
+        query.limit((long) limit);
+        if (id != null) {
+            seek(query.where(), id, ascending, inclusive);
+        }
+        return mDao.query(query.prepare());
+    }
+
+    private void seek(Where<T, ID> where, ID id, boolean ascending, boolean inclusive) throws SQLException {
+        String idComparison = escape(mIdColumn) + (ascending ? (inclusive ? " >= ?" : " > ?") : (inclusive ? " <= ?" : " < ?"));
+        if (mSortColumn == null) {
+            where.raw(idComparison, idArg(id));
+            return;
+        }
+        // sort value of the key row is looked up by id, the first comparison can be answered by index
+        String keySort = "(SELECT " + escape(mSortColumn) + " FROM " + escape(mTableName) + " WHERE " + escape(mIdColumn) + " = ?)";
+        String sort = escape(mSortColumn);
+        where.raw(sort + (ascending ? " >= " : " <= ") + keySort
+                + " AND (" + sort + (ascending ? " > " : " < ") + keySort + " OR " + idComparison + ")", idArg(id), idArg(id), idArg(id));
+    }
+
+    private SelectArg idArg(ID id) {
+        return new SelectArg(mIdColumn, id);
+    }
+
+    private String escape(String column) {
+        StringBuilder sb = new StringBuilder();
+        mDao.getConnectionSource().getDatabaseType().appendEscapedEntityName(sb, column);
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,31 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.dao.Dao;
+
+import java.sql.SQLException;
+
+/**
+ * Interface {@link LongIdDao}.
+ * <p>
+ * DAO of table with {@code int} or {@code long} id, which can be used with primitive ids, so callers do not have to box them.
+ * It is returned by generated Helper if {@code withPrimitiveIds} is enabled.
+ * </p>
+ */
+public interface LongIdDao<T, ID> extends Dao<T, ID> {
+
+    /**
+     * Returns object with given id or {@code null} if there is none. Object is looked up in {@link LongObjectCache} first, if it is enabled.
+     */
+    T queryForId(long id) throws SQLException;
+
+    /**
+     * Checks if row with given id exists.
+     */
+    boolean existsById(long id) throws SQLException;
+
+    /**
+     * Deletes rows with given ids and returns number of deleted rows.
+     */
+    int deleteByIds(long... ids) throws SQLException;
+
+}
@@ -0,0 +1,155 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.dao.ObjectCache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class {@link LongObjectCache}.
+ * <p>
+ * ORMLite object cache of tables with {@code int} or {@code long} id. Objects are weakly referenced (the same way as by default ORMLite cache)
+ * and kept in map keyed by primitive id, so {@link #get(Class, long)} does not box id nor allocate.
+ * ORMLite itself uses the boxed methods of {@link ObjectCache}, which unbox given id. Objects with other id types are not cached.
+ * Objects which were garbage collected are counted as evictions when they are looked up.
+ * </p>
+ */
+public class LongObjectCache implements MeteredObjectCache {
+
+    private final Map<Class<?>, LongObjectMap> mMaps = new ConcurrentHashMap<Class<?>, LongObjectMap>();
+    private final CacheStats mStats = new CacheStats();
+
+    @Override
+    public CacheStats getStats() {
+        return mStats;
+    }
+
+    @Override
+    public synchronized <T> void registerClass(Class<T> clazz) {
+        if (!mMaps.containsKey(clazz)) {
+            mMaps.put(clazz, new LongObjectMap());
+        }
+    }
+
+    public <T> T get(Class<T> clazz, long id) {
+        T data = lookup(clazz, id);
+        if (data != null) {
+            mStats.onHit();
+        } else {
+            mStats.onMiss();
+        }
+        return data;
+    }
+
+    /**
+     * Returns cached object without counting hit or miss.
+     */
+    <T> T lookup(Class<T> clazz, long id) {
+        LongObjectMap map = mMaps.get(clazz);
+        if (map == null) {
+            return null;
+        }
+        synchronized (map) {
+            int size = map.size();
+            Object data = map.get(id);
+            if (map.size() < size) {
+                mStats.onEviction();
+            }
+            return clazz.cast(data);
+        }
+    }
+
+    public <T> void put(Class<T> clazz, long id, T data) {
+        LongObjectMap map = mMaps.get(clazz);
+        if (map != null) {
+            synchronized (map) {
+                map.put(id, data);
+            }
+        }
+    }
+
+    public <T> void remove(Class<T> clazz, long id) {
+        LongObjectMap map = mMaps.get(clazz);
+        if (map != null) {
+            synchronized (map) {
+                map.remove(id);
+            }
+        }
+    }
+
+    @Override
+    public <T, ID> T get(Class<T> clazz, ID id) {
+        return (id instanceof Number) ? get(clazz, ((Number) id).longValue()) : null;
+    }
+
+    @Override
+    public <T, ID> void put(Class<T> clazz, ID id, T data) {
+        if (id instanceof Number) {
+            put(clazz, ((Number) id).longValue(), data);
+        }
+    }
+
+    @Override
+    public <T, ID> void remove(Class<T> clazz, ID id) {
+        if (id instanceof Number) {
+            remove(clazz, ((Number) id).longValue());
+        }
+    }
+
+    @Override
+    public <T, ID> T updateId(Class<T> clazz, ID oldId, ID newId) {
+        LongObjectMap map = mMaps.get(clazz);
+        if (map == null || !(oldId instanceof Number) || !(newId instanceof Number)) {
+            return null;
+        }
+        synchronized (map) {
+            Object data = map.remove(((Number) oldId).longValue());
+            if (data != null) {
+                map.put(((Number) newId).longValue(), data);
+            }
+            return clazz.cast(data);
+        }
+    }
+
+    @Override
+    public <T> void clear(Class<T> clazz) {
+        LongObjectMap map = mMaps.get(clazz);
+        if (map != null) {
+            synchronized (map) {
+                map.clear();
+            }
+        }
+    }
+
+    @Override
+    public void clearAll() {
+        for (LongObjectMap map : mMaps.values()) {
+            synchronized (map) {
+                map.clear();
+            }
+        }
+    }
+
+    @Override
+    public <T> int size(Class<T> clazz) {
+        LongObjectMap map = mMaps.get(clazz);
+        if (map == null) {
+            return 0;
+        }
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    @Override
+    public int sizeAll() {
+        int size = 0;
+        for (LongObjectMap map : mMaps.values()) {
+            synchronized (map) {
+                size += map.size();
+            }
+        }
+        return size;
+    }
+
+}
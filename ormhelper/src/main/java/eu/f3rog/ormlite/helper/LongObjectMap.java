@@ -0,0 +1,127 @@
+package eu.f3rog.ormlite.helper;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Class {@link LongObjectMap}.
+ * <p>
+ * Open addressing hash map from {@code long} keys to weakly referenced values. Lookups do not allocate.
+ * Entries whose values were collected are removed when they are found. Methods are not synchronized.
+ * </p>
+ */
+final class LongObjectMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] mKeys;
+    private WeakReference<?>[] mValues;
+    private int mSize;
+
+    LongObjectMap() {
+        mKeys = new long[MIN_CAPACITY];
+        mValues = new WeakReference<?>[MIN_CAPACITY];
+    }
+
+    Object get(long key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        Object value = mValues[i].get();
+        if (value == null) {
+            removeAt(i);
+        }
+        return value;
+    }
+
+    void put(long key, Object value) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            mValues[i] = new WeakReference<Object>(value);
+            return;
+        }
+        if ((mSize + 1) * 4 > mKeys.length * 3) {
+            resize(mKeys.length * 2);
+        }
+        insert(key, new WeakReference<Object>(value));
+        mSize++;
+    }
+
+    Object remove(long key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        Object value = mValues[i].get();
+        removeAt(i);
+        return value;
+    }
+
+    void clear() {
+        mKeys = new long[MIN_CAPACITY];
+        mValues = new WeakReference<?>[MIN_CAPACITY];
+        mSize = 0;
+    }
+
+    /**
+     * Returns number of entries including those whose values were already collected.
+     */
+    int size() {
+        return mSize;
+    }
+
+    private int indexOf(long key) {
+        int mask = mKeys.length - 1;
+        for (int i = hash(key) & mask; mValues[i] != null; i = (i + 1) & mask) {
+            if (mKeys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long key, WeakReference<?> value) {
+        int mask = mKeys.length - 1;
+        int i = hash(key) & mask;
+        while (mValues[i] != null) {
+            i = (i + 1) & mask;
+        }
+        mKeys[i] = key;
+        mValues[i] = value;
+    }
+
+    private void removeAt(int i) {
+        // entries after removed one are shifted back, so probing does not need deleted markers
+        int mask = mKeys.length - 1;
+        mValues[i] = null;
+        mSize--;
+        for (int j = (i + 1) & mask; mValues[j] != null; j = (j + 1) & mask) {
+            int home = hash(mKeys[j]) & mask;
+            boolean movable = (i <= j) ? (home <= i || home > j) : (home <= i && home > j);
+            if (movable) {
+                mKeys[i] = mKeys[j];
+                mValues[i] = mValues[j];
+                mValues[j] = null;
+                i = j;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] keys = mKeys;
+        WeakReference<?>[] values = mValues;
+        mKeys = new long[capacity];
+        mValues = new WeakReference<?>[capacity];
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                insert(keys[i], values[i]);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        int h = (int) (key ^ (key >>> 32));
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,134 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.stmt.GenericRowMapper;
+import com.j256.ormlite.stmt.PreparedQuery;
+import com.j256.ormlite.stmt.StatementBuilder;
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.support.DatabaseResults;
+import com.j256.ormlite.table.DatabaseTableConfig;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class {@link MappedDao}.
+ * <p>
+ * DAO which maps query results with generated {@link TableRowMapper} instead of ORMLite reflection.
+ * If object cache is enabled or if query returns different columns than the mapper reads, default ORMLite mapping is used.
+ * Queries are reported to {@link HelperMetrics} the same way as by {@link MeteredDao}.
+ * </p>
+ */
+public class MappedDao<T, ID> extends MeteredDao<T, ID> {
+
+    private static final FieldType[] NO_FIELD_TYPES = new FieldType[0];
+
+    private final TableRowMapper<T> mRowMapper;
+    private String mSelectAllQuery;
+
+    public MappedDao(ConnectionSource connectionSource, Class<T> dataClass, TableRowMapper<T> rowMapper) throws SQLException {
+        this(connectionSource, dataClass, rowMapper, HelperMetrics.NONE);
+    }
+
+    public MappedDao(ConnectionSource connectionSource, DatabaseTableConfig<T> tableConfig, TableRowMapper<T> rowMapper) throws SQLException {
+        this(connectionSource, tableConfig, rowMapper, HelperMetrics.NONE);
+    }
+
+    public MappedDao(ConnectionSource connectionSource, Class<T> dataClass, TableRowMapper<T> rowMapper, HelperMetrics metrics) throws SQLException {
+        super(connectionSource, dataClass, metrics);
+        mRowMapper = rowMapper;
+    }
+
+    public MappedDao(ConnectionSource connectionSource, DatabaseTableConfig<T> tableConfig, TableRowMapper<T> rowMapper, HelperMetrics metrics) throws SQLException {
+        super(connectionSource, tableConfig, metrics);
+        mRowMapper = rowMapper;
+    }
+
+    public TableRowMapper<T> getRowMapper() {
+        return mRowMapper;
+    }
+
+    @Override
+    public List<T> queryForAll() throws SQLException {
+        if (getObjectCache() != null) {
+            return super.queryForAll();
+        }
+
+        HelperMetrics metrics = getMetrics();
+        long start = startTiming(metrics);
+        DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+        CompiledStatement statement = null;
+        try {
+            statement = connection.compileStatement(getSelectAllQuery(), StatementBuilder.StatementType.SELECT,
+                    NO_FIELD_TYPES, DatabaseConnection.DEFAULT_RESULT_FLAGS);
+            List<T> list = mapResults(statement.runQuery(null), mRowMapper);
+            onQuery(metrics, list.size(), start);
+            return list;
+        } finally {
+            if (statement != null) {
+                statement.closeQuietly();
+            }
+            connectionSource.releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public List<T> query(PreparedQuery<T> preparedQuery) throws SQLException {
+        if (getObjectCache() != null) {
+            return super.query(preparedQuery);
+        }
+
+        HelperMetrics metrics = getMetrics();
+        long start = startTiming(metrics);
+        DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+        CompiledStatement statement = null;
+        try {
+            statement = preparedQuery.compile(connection, StatementBuilder.StatementType.SELECT);
+            DatabaseResults results = statement.runQuery(null);
+            // prepared query maps any columns it selected
+            GenericRowMapper<T> rowMapper = mRowMapper.matches(results) ? mRowMapper : preparedQuery;
+            List<T> list = mapResults(results, rowMapper);
+            onQuery(metrics, list.size(), start);
+            return list;
+        } finally {
+            if (statement != null) {
+                statement.closeQuietly();
+            }
+            connectionSource.releaseConnection(connection);
+        }
+    }
+
+    private List<T> mapResults(DatabaseResults results, GenericRowMapper<T> rowMapper) throws SQLException {
+        try {
+            List<T> list = new ArrayList<T>();
+            while (results.next()) {
+                list.add(rowMapper.mapRow(results));
+            }
+            return list;
+        } finally {
+            results.closeQuietly();
+        }
+    }
+
+    private String getSelectAllQuery() {
+        if (mSelectAllQuery == null) {
+            String[] columns = mRowMapper.getColumns();
+            StringBuilder sb = new StringBuilder(64);
+            sb.append("SELECT ");
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                databaseType.appendEscapedEntityName(sb, columns[i]);
+            }
+            sb.append(" FROM ");
+            databaseType.appendEscapedEntityName(sb, tableInfo.getTableName());
+            mSelectAllQuery = sb.toString();
+        }
+        return mSelectAllQuery;
+    }
+
+}
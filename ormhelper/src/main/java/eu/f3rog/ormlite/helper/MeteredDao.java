@@ -0,0 +1,378 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.dao.BaseDaoImpl;
+import com.j256.ormlite.dao.ObjectCache;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.stmt.PreparedDelete;
+import com.j256.ormlite.stmt.PreparedQuery;
+import com.j256.ormlite.stmt.PreparedUpdate;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.table.DatabaseTableConfig;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Class {@link MeteredDao}.
+ * <p>
+ * DAO which reports count and duration of queries and inserts to {@link HelperMetrics}.
+ * Other query methods of ORMLite DAO (e.g. {@code queryForEq}) use {@link #query(PreparedQuery)}, so they are reported too.
+ * </p>
+ * <p>
+ * If table has {@code int} or {@code long} id, DAO can be used as {@link LongIdDao} and enabled object cache is {@link LongObjectCache}.
+ * </p>
+ * <p>
+ * If {@link TableChanges} is set, every write which changed any row marks the table as changed. Changes made in {@link #callBatchTasks(Callable)}
+ * are published when it finishes.
+ * </p>
+ */
+public class MeteredDao<T, ID> extends BaseDaoImpl<T, ID> implements LongIdDao<T, ID> {
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final FieldType[] NO_FIELD_TYPES = new FieldType[0];
+    private static final int DELETE_CHUNK_SIZE = 500;
+
+    private volatile HelperMetrics mMetrics;
+    private volatile TableChanges mTableChanges;
+    private String mDeleteQueryPrefix;
+
+    public MeteredDao(ConnectionSource connectionSource, Class<T> dataClass, HelperMetrics metrics) throws SQLException {
+        super(connectionSource, dataClass);
+        mMetrics = metrics;
+    }
+
+    public MeteredDao(ConnectionSource connectionSource, DatabaseTableConfig<T> tableConfig, HelperMetrics metrics) throws SQLException {
+        super(connectionSource, tableConfig);
+        mMetrics = metrics;
+    }
+
+    public HelperMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    public void setMetrics(HelperMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    public TableChanges getTableChanges() {
+        return mTableChanges;
+    }
+
+    /**
+     * Sets tracker which is notified about writes of this DAO. {@code null} disables notifications.
+     */
+    public void setTableChanges(TableChanges tableChanges) {
+        mTableChanges = tableChanges;
+    }
+
+    @Override
+    public T queryForId(ID id) throws SQLException {
+        HelperMetrics metrics = mMetrics;
+        long start = startTiming(metrics);
+        T result = super.queryForId(id);
+        onQuery(metrics, (result != null) ? 1 : 0, start);
+        return result;
+    }
+
+    @Override
+    public T queryForFirst(PreparedQuery<T> preparedQuery) throws SQLException {
+        HelperMetrics metrics = mMetrics;
+        long start = startTiming(metrics);
+        T result = super.queryForFirst(preparedQuery);
+        onQuery(metrics, (result != null) ? 1 : 0, start);
+        return result;
+    }
+
+    @Override
+    public List<T> queryForAll() throws SQLException {
+        HelperMetrics metrics = mMetrics;
+        long start = startTiming(metrics);
+        List<T> result = super.queryForAll();
+        onQuery(metrics, result.size(), start);
+        return result;
+    }
+
+    @Override
+    public List<T> query(PreparedQuery<T> preparedQuery) throws SQLException {
+        HelperMetrics metrics = mMetrics;
+        long start = startTiming(metrics);
+        List<T> result = super.query(preparedQuery);
+        onQuery(metrics, result.size(), start);
+        return result;
+    }
+
+    @Override
+    public int create(T data) throws SQLException {
+        HelperMetrics metrics = mMetrics;
+        long start = startTiming(metrics);
+        int rows = super.create(data);
+        if (metrics != HelperMetrics.NONE) {
+            metrics.onInsert(dataClass, rows, System.nanoTime() - start);
+        }
+        onChanged(rows);
+        return rows;
+    }
+
+    @Override
+    public int update(T data) throws SQLException {
+        return onChanged(super.update(data));
+    }
+
+    @Override
+    public int updateId(T data, ID newId) throws SQLException {
+        return onChanged(super.updateId(data, newId));
+    }
+
+    @Override
+    public int update(PreparedUpdate<T> preparedUpdate) throws SQLException {
+        return onChanged(super.update(preparedUpdate));
+    }
+
+    @Override
+    public int delete(T data) throws SQLException {
+        return onChanged(super.delete(data));
+    }
+
+    @Override
+    public int deleteById(ID id) throws SQLException {
+        return onChanged(super.deleteById(id));
+    }
+
+    @Override
+    public int delete(Collection<T> datas) throws SQLException {
+        return onChanged(super.delete(datas));
+    }
+
+    @Override
+    public int deleteIds(Collection<ID> ids) throws SQLException {
+        return onChanged(super.deleteIds(ids));
+    }
+
+    @Override
+    public int delete(PreparedDelete<T> preparedDelete) throws SQLException {
+        return onChanged(super.delete(preparedDelete));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Statement is expected to change table of this DAO.
+     * </p>
+     */
+    @Override
+    public int updateRaw(String statement, String... arguments) throws SQLException {
+        return onChanged(super.updateRaw(statement, arguments));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Statement is expected to change table of this DAO.
+     * </p>
+     */
+    @Override
+    public int executeRaw(String statement, String... arguments) throws SQLException {
+        return onChanged(super.executeRaw(statement, arguments));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Statement is expected to change table of this DAO.
+     * </p>
+     */
+    @Override
+    public int executeRawNoArgs(String statement) throws SQLException {
+        return onChanged(super.executeRawNoArgs(statement));
+    }
+
+    @Override
+    public <CT> CT callBatchTasks(Callable<CT> callable) throws SQLException {
+        TableChanges tableChanges = mTableChanges;
+        if (tableChanges == null) {
+            return super.callBatchTasks(callable);
+        }
+        // tasks run in transaction, so their changes are published after it is committed
+        boolean committed = false;
+        tableChanges.beginBatch();
+        try {
+            CT result = super.callBatchTasks(callable);
+            committed = true;
+            return result;
+        } finally {
+            tableChanges.endBatch(committed);
+        }
+    }
+
+    @Override
+    public T queryForId(long id) throws SQLException {
+        ObjectCache cache = getObjectCache();
+        if (cache instanceof LongObjectCache) {
+            HelperMetrics metrics = mMetrics;
+            long start = startTiming(metrics);
+            // miss is counted by ORMLite lookup below
+            T cached = ((LongObjectCache) cache).lookup(dataClass, id);
+            if (cached != null) {
+                ((LongObjectCache) cache).getStats().onHit();
+                onQuery(metrics, 1, start);
+                return cached;
+            }
+        }
+        ID boxedId = toId(id);
+        return (boxedId != null) ? queryForId(boxedId) : null;
+    }
+
+    @Override
+    public boolean existsById(long id) throws SQLException {
+        ID boxedId = toId(id);
+        return boxedId != null && idExists(boxedId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ids are written to statement as literals, at most {@value #DELETE_CHUNK_SIZE} ids per statement.
+     * Statements are not run in one transaction unless caller started it.
+     * </p>
+     */
+    @Override
+    public int deleteByIds(long... ids) throws SQLException {
+        checkLongId();
+        if (ids.length == 0) {
+            return 0;
+        }
+
+        int rows = 0;
+        DatabaseConnection connection = connectionSource.getReadWriteConnection();
+        try {
+            boolean intId = isIntId();
+            int from = 0;
+            while (from < ids.length) {
+                // ids which do not fit to int id cannot exist, so they are skipped
+                StringBuilder sb = new StringBuilder(getDeleteQueryPrefix());
+                int count = 0;
+                for (; from < ids.length && count < DELETE_CHUNK_SIZE; from++) {
+                    if (intId && (int) ids[from] != ids[from]) {
+                        continue;
+                    }
+                    if (count++ > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(ids[from]);
+                }
+                if (count > 0) {
+                    rows += connection.delete(sb.append(')').toString(), NO_ARGS, NO_FIELD_TYPES);
+                }
+            }
+        } finally {
+            connectionSource.releaseConnection(connection);
+        }
+        onChanged(rows);
+
+        ObjectCache cache = getObjectCache();
+        if (cache instanceof LongObjectCache) {
+            for (long id : ids) {
+                ((LongObjectCache) cache).remove(dataClass, id);
+            }
+        } else if (cache != null) {
+            for (long id : ids) {
+                ID boxedId = toId(id);
+                if (boxedId != null) {
+                    cache.remove(dataClass, boxedId);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Enables {@link LongObjectCache} if table has {@code int} or {@code long} id, otherwise default ORMLite cache.
+     */
+    @Override
+    public void setObjectCache(boolean enabled) throws SQLException {
+        if (enabled && hasLongId()) {
+            if (getObjectCache() == null) {
+                setObjectCache(new LongObjectCache());
+            }
+        } else {
+            super.setObjectCache(enabled);
+        }
+    }
+
+    /**
+     * Returns start of operation measured by given metrics. Clock is not read if metrics are {@link HelperMetrics#NONE}.
+     */
+    protected static long startTiming(HelperMetrics metrics) {
+        return (metrics != HelperMetrics.NONE) ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Reports query which was started at given {@link #startTiming(HelperMetrics)} to given metrics.
+     * Metrics should be read once for both calls, so they match if they are changed meanwhile.
+     */
+    protected void onQuery(HelperMetrics metrics, int rows, long start) {
+        if (metrics != HelperMetrics.NONE) {
+            metrics.onQuery(dataClass, rows, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Marks table as changed if given number of changed rows is positive. Returns given number.
+     */
+    protected int onChanged(int rows) {
+        TableChanges tableChanges = mTableChanges;
+        if (tableChanges != null && rows > 0) {
+            tableChanges.onChanged(dataClass);
+        }
+        return rows;
+    }
+
+    private boolean hasLongId() {
+        FieldType idField = tableInfo.getIdField();
+        if (idField == null) {
+            return false;
+        }
+        Class<?> type = idField.getType();
+        return type == long.class || type == Long.class || type == int.class || type == Integer.class;
+    }
+
+    private void checkLongId() throws SQLException {
+        if (!hasLongId()) {
+            throw new SQLException(String.format("Class %s does not have int or long id", dataClass.getName()));
+        }
+    }
+
+    /**
+     * Converts primitive id to id of this DAO. Returns {@code null} if id does not fit to {@code int} id, so there is no such row.
+     */
+    @SuppressWarnings("unchecked")
+    private ID toId(long id) throws SQLException {
+        checkLongId();
+        if (!isIntId()) {
+            return (ID) Long.valueOf(id);
+        }
+        return ((int) id == id) ? (ID) Integer.valueOf((int) id) : null;
+    }
+
+    private boolean isIntId() {
+        Class<?> type = tableInfo.getIdField().getType();
+        return type == int.class || type == Integer.class;
+    }
+
+    private String getDeleteQueryPrefix() {
+        if (mDeleteQueryPrefix == null) {
+            StringBuilder sb = new StringBuilder(64);
+            sb.append("DELETE FROM ");
+            databaseType.appendEscapedEntityName(sb, tableInfo.getTableName());
+            sb.append(" WHERE ");
+            databaseType.appendEscapedEntityName(sb, tableInfo.getIdField().getColumnName());
+            sb.append(" IN (");
+            mDeleteQueryPrefix = sb.toString();
+        }
+        return mDeleteQueryPrefix;
+    }
+
+}
@@ -0,0 +1,15 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.dao.ObjectCache;
+
+/**
+ * Interface {@link MeteredObjectCache}.
+ * <p>
+ * Object cache which counts its hits, misses and evictions.
+ * </p>
+ */
+public interface MeteredObjectCache extends ObjectCache {
+
+    CacheStats getStats();
+
+}
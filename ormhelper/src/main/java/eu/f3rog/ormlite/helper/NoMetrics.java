@@ -0,0 +1,36 @@
+package eu.f3rog.ormlite.helper;
+
+/**
+ * Class {@link NoMetrics}.
+ * <p>
+ * Implementation of {@link HelperMetrics#NONE}. Methods are empty. Generated helper and {@link MeteredDao} compare
+ * metrics with {@link HelperMetrics#NONE} and skip reading the clock and calling it.
+ * </p>
+ */
+final class NoMetrics implements HelperMetrics {
+
+    @Override
+    public void onCreate(long durationNanos) {
+    }
+
+    @Override
+    public void onUpgrade(int fromVersion, int toVersion, long durationNanos) {
+    }
+
+    @Override
+    public void onClearTables(long durationNanos) {
+    }
+
+    @Override
+    public void onDaoCreated(Class<?> table, long durationNanos) {
+    }
+
+    @Override
+    public void onQuery(Class<?> table, int rows, long durationNanos) {
+    }
+
+    @Override
+    public void onInsert(Class<?> table, int rows, long durationNanos) {
+    }
+
+}
@@ -0,0 +1,88 @@
+package eu.f3rog.ormlite.helper;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Class {@link ObjectSizer}.
+ * <p>
+ * Estimates number of bytes taken by objects of one class. Fields are found by reflection only once.
+ * Values of fields which are strings, arrays, boxed primitives or dates are counted, other referenced objects
+ * (e.g. foreign objects) are usually shared, so only their reference is counted.
+ * </p>
+ */
+final class ObjectSizer {
+
+    private static final int HEADER_SIZE = 16;
+    private static final int REFERENCE_SIZE = 8;
+
+    private final Field[] mReferenceFields;
+    private final long mShallowSize;
+
+    ObjectSizer(Class<?> clazz) {
+        List<Field> referenceFields = new ArrayList<Field>();
+        long size = HEADER_SIZE;
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                Class<?> type = field.getType();
+                if (type.isPrimitive()) {
+                    size += sizeOfPrimitive(type);
+                } else {
+                    size += REFERENCE_SIZE;
+                    field.setAccessible(true);
+                    referenceFields.add(field);
+                }
+            }
+        }
+        mReferenceFields = referenceFields.toArray(new Field[referenceFields.size()]);
+        mShallowSize = size;
+    }
+
+    long sizeOf(Object data) {
+        long size = mShallowSize;
+        for (Field field : mReferenceFields) {
+            try {
+                size += sizeOfValue(field.get(data));
+            } catch (IllegalAccessException e) {
+                // field is not counted
+            }
+        }
+        return size;
+    }
+
+    private static long sizeOfValue(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return HEADER_SIZE + 24 + 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return HEADER_SIZE + ((byte[]) value).length;
+        } else if (value.getClass().isArray()) {
+            Class<?> componentType = value.getClass().getComponentType();
+            int elementSize = componentType.isPrimitive() ? sizeOfPrimitive(componentType) : REFERENCE_SIZE;
+            return HEADER_SIZE + (long) elementSize * Array.getLength(value);
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Date) {
+            return HEADER_SIZE + 8;
+        }
+        return 0;
+    }
+
+    private static int sizeOfPrimitive(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+}
@@ -0,0 +1,76 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.stmt.PreparedQuery;
+import com.j256.ormlite.stmt.QueryBuilder;
+import com.j256.ormlite.stmt.StatementBuilder;
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.support.DatabaseResults;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class {@link Projections}.
+ * <p>
+ * Runs queries which select only columns of a projection and maps results with generated projection mapper.
+ * Queries of {@link MeteredDao} are reported to its {@link HelperMetrics}.
+ * </p>
+ */
+public final class Projections {
+
+    private Projections() {
+    }
+
+    /**
+     * Selects columns of given mapper in given query and returns mapped rows. Query must not select any other columns.
+     * ORMLite may append id column to selected columns, it is not read by mapper.
+     */
+    public static <T, ID, P> List<P> query(Dao<T, ID> dao, QueryBuilder<T, ID> query, TableRowMapper<P> mapper) throws SQLException {
+        query.selectColumns(mapper.getColumns());
+        PreparedQuery<T> preparedQuery = query.prepare();
+
+        HelperMetrics metrics = (dao instanceof MeteredDao) ? ((MeteredDao<?, ?>) dao).getMetrics() : HelperMetrics.NONE;
+        long start = MeteredDao.startTiming(metrics);
+        ConnectionSource connectionSource = dao.getConnectionSource();
+        DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+        CompiledStatement statement = null;
+        try {
+            statement = preparedQuery.compile(connection, StatementBuilder.StatementType.SELECT);
+            DatabaseResults results = statement.runQuery(null);
+            try {
+                checkColumns(results, mapper);
+                List<P> list = new ArrayList<P>();
+                while (results.next()) {
+                    list.add(mapper.mapRow(results));
+                }
+                if (dao instanceof MeteredDao) {
+                    ((MeteredDao<?, ?>) dao).onQuery(metrics, list.size(), start);
+                }
+                return list;
+            } finally {
+                results.closeQuietly();
+            }
+        } finally {
+            if (statement != null) {
+                statement.closeQuietly();
+            }
+            connectionSource.releaseConnection(connection);
+        }
+    }
+
+    private static void checkColumns(DatabaseResults results, TableRowMapper<?> mapper) throws SQLException {
+        String[] columns = mapper.getColumns();
+        String[] columnNames = results.getColumnNames();
+        // mapper reads columns by index, so they have to come first
+        for (int i = 0; i < columns.length; i++) {
+            if (i >= columnNames.length || !columns[i].equalsIgnoreCase(columnNames[i])) {
+                throw new SQLException(String.format("Query selects other columns than projection mapper %s reads", mapper.getClass().getName()));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,365 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.stmt.StatementBuilder;
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.support.DatabaseResults;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class {@link QueryCache}.
+ * <p>
+ * Read-through cache of raw query results keyed by SQL and its arguments. Each result remembers versions of tables
+ * which its SQL reads (see {@link TableChanges}), so any change of those tables invalidates it. Tables are found by
+ * matching words of SQL with names of registered tables. Queries which do not read any registered table are not cached,
+ * because their results could not be invalidated.
+ * </p>
+ * <p>
+ * Cache is limited by estimated size of results in bytes and the least recently used results are removed first.
+ * Invalidated results are removed when they are read again or when they are evicted.
+ * </p>
+ * <p>
+ * <b> NOTE: </b>
+ * Queries made on a thread with open batch of {@link TableChanges} (e.g. inside transaction) bypass the cache,
+ * because changes of the batch are published only when it ends.
+ * </p>
+ */
+public class QueryCache {
+
+    private static final FieldType[] NO_FIELD_TYPES = new FieldType[0];
+    private static final int HEADER_SIZE = 16;
+    private static final int REFERENCE_SIZE = 8;
+    private static final int MAX_READ_TABLES = 256;
+
+    private final TableChanges mTableChanges;
+    private final long mMaxBytes;
+    private final CacheStats mStats = new CacheStats();
+    private final Map<String, Class<?>> mTables = new ConcurrentHashMap<String, Class<?>>();
+    private final Map<String, Class<?>[]> mReadTables = new ConcurrentHashMap<String, Class<?>[]>();
+    private final LinkedHashMap<Key, Entry> mEntries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+    private long mBytes;
+
+    /**
+     * Creates cache which is invalidated by given tracker and holds results up to given estimated size in bytes.
+     */
+    public QueryCache(TableChanges tableChanges, long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache has to be limited by bytes");
+        }
+        mTableChanges = tableChanges;
+        mMaxBytes = maxBytes;
+    }
+
+    /**
+     * Registers table with given name, so results of queries which read it are cached.
+     */
+    public void addTable(String tableName, Class<?> table) {
+        mTables.put(tableName.toLowerCase(Locale.US), table);
+        mReadTables.clear();
+    }
+
+    public long getMaxBytes() {
+        return mMaxBytes;
+    }
+
+    /**
+     * Returns estimated size of cached results.
+     */
+    public synchronized long getBytes() {
+        return mBytes;
+    }
+
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    public CacheStats getStats() {
+        return mStats;
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public synchronized void clear() {
+        mEntries.clear();
+        mBytes = 0;
+    }
+
+    /**
+     * Returns rows of given query. Result is read from cache if none of its tables changed since it was cached.
+     * Returned list cannot be modified.
+     */
+    public List<String[]> queryRaw(ConnectionSource connectionSource, String sql, String... args) throws SQLException {
+        Key key = new Key(sql, args);
+        if (mTableChanges.isInBatch()) {
+            // changes of current batch are not published yet, so cache would return results without them
+            return Collections.unmodifiableList(runQuery(connectionSource, sql, key.args));
+        }
+        Class<?>[] tables = getReadTables(sql);
+        Object cached = get(key, tables);
+        if (cached != null) {
+            @SuppressWarnings("unchecked")
+            List<String[]> rows = (List<String[]>) cached;
+            return rows;
+        }
+        // versions are read before query, so change made during query invalidates its result
+        long[] versions = getVersions(tables);
+        List<String[]> rows = Collections.unmodifiableList(runQuery(connectionSource, sql, key.args));
+        put(key, tables, versions, rows, sizeOf(rows));
+        return rows;
+    }
+
+    /**
+     * Returns value of the first column of the first row of given query (e.g. aggregate function).
+     * Result is read from cache if none of its tables changed since it was cached.
+     */
+    public long queryRawValue(ConnectionSource connectionSource, String sql, String... args) throws SQLException {
+        Key key = new Key(sql, args);
+        if (mTableChanges.isInBatch()) {
+            return runValueQuery(connectionSource, sql, key.args);
+        }
+        Class<?>[] tables = getReadTables(sql);
+        Object cached = get(key, tables);
+        if (cached != null) {
+            return (Long) cached;
+        }
+        long[] versions = getVersions(tables);
+        Long value = runValueQuery(connectionSource, sql, key.args);
+        put(key, tables, versions, value, HEADER_SIZE + 8);
+        return value;
+    }
+
+    private synchronized Object get(Key key, Class<?>[] tables) {
+        if (tables.length == 0) {
+            return null;
+        }
+        Entry entry = mEntries.get(key);
+        if (entry == null) {
+            mStats.onMiss();
+            return null;
+        }
+        if (!Arrays.equals(entry.versions, getVersions(entry.tables))) {
+            remove(key);
+            mStats.onMiss();
+            return null;
+        }
+        mStats.onHit();
+        return entry.value;
+    }
+
+    private synchronized void put(Key key, Class<?>[] tables, long[] versions, Object value, long valueSize) {
+        if (tables.length == 0) {
+            return;
+        }
+        long size = key.size() + REFERENCE_SIZE * (2 + tables.length) + valueSize;
+        if (size > mMaxBytes) {
+            // result would evict everything else
+            return;
+        }
+        remove(key);
+        mEntries.put(key, new Entry(tables, versions, value, size));
+        mBytes += size;
+        Iterator<Entry> eldest = mEntries.values().iterator();
+        while (mBytes > mMaxBytes && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            mBytes -= entry.size;
+            mStats.onEviction();
+        }
+    }
+
+    private void remove(Key key) {
+        Entry old = mEntries.remove(key);
+        if (old != null) {
+            mBytes -= old.size;
+        }
+    }
+
+    private long[] getVersions(Class<?>[] tables) {
+        long[] versions = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            versions[i] = mTableChanges.getVersion(tables[i]);
+        }
+        return versions;
+    }
+
+    /**
+     * Returns registered tables whose names appear in given SQL. Result is remembered for each SQL.
+     */
+    private Class<?>[] getReadTables(String sql) {
+        Class<?>[] tables = mReadTables.get(sql);
+        if (tables != null) {
+            return tables;
+        }
+        Set<Class<?>> found = new LinkedHashSet<Class<?>>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            if (!isIdentifierPart(sql.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && isIdentifierPart(sql.charAt(i))) {
+                i++;
+            }
+            Class<?> table = mTables.get(sql.substring(start, i).toLowerCase(Locale.US));
+            if (table != null) {
+                found.add(table);
+            }
+        }
+        tables = found.toArray(new Class<?>[found.size()]);
+        if (mReadTables.size() >= MAX_READ_TABLES) {
+            // SQL with inlined values would fill the map
+            mReadTables.clear();
+        }
+        mReadTables.put(sql, tables);
+        return tables;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private static List<String[]> runQuery(ConnectionSource connectionSource, String sql, String[] args) throws SQLException {
+        DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+        CompiledStatement statement = null;
+        DatabaseResults results = null;
+        try {
+            statement = compile(connection, sql, args);
+            results = statement.runQuery(null);
+            int columnCount = results.getColumnCount();
+            List<String[]> rows = new ArrayList<String[]>();
+            while (results.next()) {
+                String[] row = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    row[i] = results.getString(i);
+                }
+                rows.add(row);
+            }
+            return rows;
+        } finally {
+            close(connectionSource, connection, statement, results);
+        }
+    }
+
+    private static long runValueQuery(ConnectionSource connectionSource, String sql, String[] args) throws SQLException {
+        DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+        CompiledStatement statement = null;
+        DatabaseResults results = null;
+        try {
+            statement = compile(connection, sql, args);
+            results = statement.runQuery(null);
+            if (!results.next()) {
+                throw new SQLException("No result found in queryRawValue: " + sql);
+            }
+            return results.getLong(0);
+        } finally {
+            close(connectionSource, connection, statement, results);
+        }
+    }
+
+    private static CompiledStatement compile(DatabaseConnection connection, String sql, String[] args) throws SQLException {
+        CompiledStatement statement = connection.compileStatement(sql, StatementBuilder.StatementType.SELECT, NO_FIELD_TYPES,
+                DatabaseConnection.DEFAULT_RESULT_FLAGS);
+        for (int i = 0; i < args.length; i++) {
+            statement.setObject(i, args[i], SqlType.STRING);
+        }
+        return statement;
+    }
+
+    private static void close(ConnectionSource connectionSource, DatabaseConnection connection, CompiledStatement statement,
+                              DatabaseResults results) throws SQLException {
+        if (results != null) {
+            results.closeQuietly();
+        }
+        if (statement != null) {
+            statement.closeQuietly();
+        }
+        connectionSource.releaseConnection(connection);
+    }
+
+    private static long sizeOf(List<String[]> rows) {
+        long size = HEADER_SIZE + REFERENCE_SIZE * (long) rows.size();
+        for (String[] row : rows) {
+            size += HEADER_SIZE + REFERENCE_SIZE * (long) row.length;
+            for (String value : row) {
+                size += sizeOf(value);
+            }
+        }
+        return size;
+    }
+
+    private static long sizeOf(String value) {
+        return (value != null) ? HEADER_SIZE + 24 + 2L * value.length() : 0;
+    }
+
+    private static final class Key {
+
+        final String sql;
+        final String[] args;
+        final int hash;
+
+        Key(String sql, String[] args) {
+            this.sql = sql;
+            this.args = (args != null) ? args.clone() : new String[0];
+            this.hash = 31 * sql.hashCode() + Arrays.hashCode(this.args);
+        }
+
+        long size() {
+            long size = HEADER_SIZE + sizeOf(sql) + HEADER_SIZE + REFERENCE_SIZE * (long) args.length;
+            for (String arg : args) {
+                size += sizeOf(arg);
+            }
+            return size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return sql.equals(key.sql) && Arrays.equals(args, key.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+
+        final Class<?>[] tables;
+        final long[] versions;
+        final Object value;
+        final long size;
+
+        Entry(Class<?>[] tables, long[] versions, Object value, long size) {
+            this.tables = tables;
+            this.versions = versions;
+            this.value = value;
+            this.size = size;
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package eu.f3rog.ormlite.helper;
+
+/**
+ * Class {@link SlowStatement}.
+ * <p>
+ * One statement recorded by {@link SlowStatementLog}.
+ * </p>
+ */
+public final class SlowStatement {
+
+    private final long mTimestamp;
+    private final String mSql;
+    private final int mBindCount;
+    private final int mRowCount;
+    private final long mDurationNanos;
+    private final String mQueryPlan;
+
+    SlowStatement(long timestamp, String sql, int bindCount, int rowCount, long durationNanos, String queryPlan) {
+        mTimestamp = timestamp;
+        mSql = sql;
+        mBindCount = bindCount;
+        mRowCount = rowCount;
+        mDurationNanos = durationNanos;
+        mQueryPlan = queryPlan;
+    }
+
+    /**
+     * Returns time (in milliseconds since epoch) when statement finished.
+     */
+    public long getTimestamp() {
+        return mTimestamp;
+    }
+
+    public String getSql() {
+        return mSql;
+    }
+
+    /**
+     * Returns number of bound arguments.
+     */
+    public int getBindCount() {
+        return mBindCount;
+    }
+
+    /**
+     * Returns number of returned or changed rows.
+     */
+    public int getRowCount() {
+        return mRowCount;
+    }
+
+    public long getDurationNanos() {
+        return mDurationNanos;
+    }
+
+    /**
+     * Returns output of {@code EXPLAIN QUERY PLAN} (one line per step) or {@code null} if it is not available.
+     */
+    public String getQueryPlan() {
+        return mQueryPlan;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d ms, %d args, %d rows: %s", mDurationNanos / 1000000L, mBindCount, mRowCount, mSql);
+    }
+
+}
@@ -0,0 +1,100 @@
+package eu.f3rog.ormlite.helper;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class {@link SlowStatementLog}.
+ * <p>
+ * Bounded ring buffer of statements which took longer than threshold. When buffer is full, the oldest statement is replaced.
+ * It is filled by {@link TimedConnectionSource}, so only statements issued through ORMLite connection source are recorded.
+ * </p>
+ */
+public final class SlowStatementLog {
+
+    public static final long DEFAULT_THRESHOLD_MILLIS = 100;
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final SlowStatement[] mStatements;
+    private int mNext;
+    private int mSize;
+    private volatile long mThresholdNanos;
+
+    public SlowStatementLog() {
+        this(DEFAULT_THRESHOLD_MILLIS, DEFAULT_CAPACITY);
+    }
+
+    public SlowStatementLog(long thresholdMillis, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        mStatements = new SlowStatement[capacity];
+        setThresholdMillis(thresholdMillis);
+    }
+
+    public long getThresholdMillis() {
+        return mThresholdNanos / 1000000L;
+    }
+
+    public void setThresholdMillis(long thresholdMillis) {
+        if (thresholdMillis < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+        mThresholdNanos = thresholdMillis * 1000000L;
+    }
+
+    /**
+     * Returns {@code true} if statement with given duration should be recorded.
+     */
+    public boolean isSlow(long durationNanos) {
+        return durationNanos >= mThresholdNanos;
+    }
+
+    public synchronized void add(SlowStatement statement) {
+        mStatements[mNext] = statement;
+        mNext = (mNext + 1) % mStatements.length;
+        if (mSize < mStatements.length) {
+            mSize++;
+        }
+    }
+
+    /**
+     * Returns recorded statements from the oldest to the newest.
+     */
+    public synchronized List<SlowStatement> getStatements() {
+        List<SlowStatement> statements = new ArrayList<SlowStatement>(mSize);
+        int first = (mNext - mSize + mStatements.length) % mStatements.length;
+        for (int i = 0; i < mSize; i++) {
+            statements.add(mStatements[(first + i) % mStatements.length]);
+        }
+        return statements;
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < mStatements.length; i++) {
+            mStatements[i] = null;
+        }
+        mNext = 0;
+        mSize = 0;
+    }
+
+    /**
+     * Writes all recorded statements with their query plans, e.g. from {@code dump} method of Activity or Service.
+     */
+    public void dump(PrintWriter writer) {
+        List<SlowStatement> statements = getStatements();
+        writer.println(String.format("Slow statements (%d, threshold %d ms):", statements.size(), getThresholdMillis()));
+        for (SlowStatement statement : statements) {
+            writer.println(statement);
+            if (statement.getQueryPlan() != null) {
+                for (String step : statement.getQueryPlan().split("\n")) {
+                    writer.print("    ");
+                    writer.println(step);
+                }
+            }
+        }
+        writer.flush();
+    }
+
+}
@@ -0,0 +1,58 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.support.DatabaseConnection;
+
+import java.sql.SQLException;
+
+/**
+ * Class {@link StorageFile}.
+ * <p>
+ * Applies settings of {@link Storage} which SQLite keeps in database file. Android creates {@code android_metadata} table
+ * as soon as database is opened, so they cannot be set before the first table is created. They are changed by rebuilding
+ * the file with {@code VACUUM} instead, which is done only if stored value differs from declared one.
+ * </p>
+ * <p>
+ * <b> NOTE: </b>
+ * {@code VACUUM} cannot run inside transaction, so it is called from {@code onOpen} of generated Helper.
+ * </p>
+ */
+public final class StorageFile {
+
+    private StorageFile() {
+    }
+
+    /**
+     * Sets given page size ({@link Storage#UNDEFINED} keeps current one) and auto-vacuum mode ({@link Storage.AutoVacuum#DEFAULT}
+     * keeps current one) and rebuilds database file once if any of them differs. Returns {@code true} if file was rebuilt.
+     */
+    public static boolean apply(DatabaseConnection connection, int pageSize, Storage.AutoVacuum autoVacuum) throws SQLException {
+        boolean rebuild = false;
+        if (pageSize != Storage.UNDEFINED && connection.queryForLong("PRAGMA page_size") != pageSize) {
+            connection.executeStatement("PRAGMA page_size = " + pageSize, DatabaseConnection.DEFAULT_RESULT_FLAGS);
+            rebuild = true;
+        }
+        if (autoVacuum != Storage.AutoVacuum.DEFAULT && connection.queryForLong("PRAGMA auto_vacuum") != getAutoVacuumValue(autoVacuum)) {
+            connection.executeStatement("PRAGMA auto_vacuum = " + autoVacuum.name(), DatabaseConnection.DEFAULT_RESULT_FLAGS);
+            rebuild = true;
+        }
+        if (rebuild) {
+            connection.executeStatement("VACUUM", DatabaseConnection.DEFAULT_RESULT_FLAGS);
+        }
+        return rebuild;
+    }
+
+    /**
+     * Returns value which {@code PRAGMA auto_vacuum} returns for given mode.
+     */
+    private static int getAutoVacuumValue(Storage.AutoVacuum autoVacuum) {
+        switch (autoVacuum) {
+            case FULL:
+                return 1;
+            case INCREMENTAL:
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+}
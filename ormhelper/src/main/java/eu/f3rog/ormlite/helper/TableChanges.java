@@ -0,0 +1,230 @@
+package eu.f3rog.ormlite.helper;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class {@link TableChanges}.
+ * <p>
+ * Keeps modification counter (version) of each table and re-runs observed queries when any of their tables changes.
+ * Changes are coalesced: observers are refreshed by one task on given executor, so a burst of writes results in one query
+ * and observer whose tables did not change is not queried at all.
+ * </p>
+ * <p>
+ * Changes made between {@link #beginBatch()} and {@link #endBatch(boolean)} on the same thread are published when the outermost batch ends,
+ * so queries do not run before transaction is committed, and they are discarded if the transaction was rolled back.
+ * </p>
+ */
+public class TableChanges {
+
+    /**
+     * Query whose result is observed.
+     */
+    public interface Query<R> {
+
+        R run() throws SQLException;
+    }
+
+    /**
+     * Receives results of observed query. Methods are called on thread of {@link TableChanges} executor.
+     */
+    public interface Observer<R> {
+
+        void onResult(R result);
+
+        void onError(SQLException e);
+    }
+
+    private final Executor mExecutor;
+    private final ConcurrentHashMap<Class<?>, AtomicLong> mVersions = new ConcurrentHashMap<Class<?>, AtomicLong>();
+    private final List<Observation<?>> mObservations = new CopyOnWriteArrayList<Observation<?>>();
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+    private final ThreadLocal<Batch> mBatch = new ThreadLocal<Batch>();
+    private final Runnable mRefreshTask = new Runnable() {
+        @Override
+        public void run() {
+            mScheduled.set(false);
+            for (Observation<?> observation : mObservations) {
+                observation.refresh();
+            }
+        }
+    };
+
+    /**
+     * Creates tracker which runs observed queries on given executor.
+     */
+    public TableChanges(Executor executor) {
+        mExecutor = executor;
+    }
+
+    /**
+     * Returns number of changes of given table since this tracker was created.
+     */
+    public long getVersion(Class<?> table) {
+        AtomicLong version = mVersions.get(table);
+        return (version != null) ? version.get() : 0;
+    }
+
+    /**
+     * Marks given table as changed. Change is published immediately or when the current batch ends.
+     */
+    public void onChanged(Class<?> table) {
+        Batch batch = mBatch.get();
+        if (batch != null) {
+            batch.tables.add(table);
+            return;
+        }
+        increment(table);
+        schedule();
+    }
+
+    /**
+     * Returns {@code true} if batch of changes was started on current thread and it has not ended yet.
+     */
+    public boolean isInBatch() {
+        return mBatch.get() != null;
+    }
+
+    /**
+     * Starts batch of changes on current thread. Batches can be nested, each call has to be followed by {@link #endBatch(boolean)}.
+     */
+    public void beginBatch() {
+        Batch batch = mBatch.get();
+        if (batch == null) {
+            batch = new Batch();
+            mBatch.set(batch);
+        }
+        batch.depth++;
+    }
+
+    /**
+     * Ends batch of changes on current thread. When the outermost batch ends, all its changed tables are published at once.
+     */
+    public void endBatch() {
+        endBatch(true);
+    }
+
+    /**
+     * Ends batch of changes on current thread. If the outermost batch was not committed (e.g. its transaction was rolled back),
+     * its changes are discarded. Changes of nested batch which was not committed are kept, because its tables may be
+     * changed by outer batch too.
+     */
+    public void endBatch(boolean committed) {
+        Batch batch = mBatch.get();
+        if (batch == null) {
+            throw new IllegalStateException("No batch was started");
+        }
+        if (--batch.depth > 0) {
+            return;
+        }
+        mBatch.remove();
+        if (committed && !batch.tables.isEmpty()) {
+            for (Class<?> table : batch.tables) {
+                increment(table);
+            }
+            schedule();
+        }
+    }
+
+    /**
+     * Runs given query now and whenever any of given tables changes, and passes its result to observer.
+     * Observation lasts until it is cancelled.
+     */
+    public <R> Observation<R> observe(Query<R> query, Observer<R> observer, Class<?>... tables) {
+        Observation<R> observation = new Observation<R>(query, observer, tables);
+        mObservations.add(observation);
+        schedule();
+        return observation;
+    }
+
+    private void increment(Class<?> table) {
+        AtomicLong version = mVersions.get(table);
+        if (version == null) {
+            AtomicLong newVersion = new AtomicLong();
+            version = mVersions.putIfAbsent(table, newVersion);
+            if (version == null) {
+                version = newVersion;
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    private void schedule() {
+        if (mScheduled.compareAndSet(false, true)) {
+            mExecutor.execute(mRefreshTask);
+        }
+    }
+
+    /**
+     * Class {@link Observation}.
+     * <p>
+     * Registered query and its observer. It remembers versions of tables which were seen by its last query.
+     * </p>
+     */
+    public final class Observation<R> {
+
+        private final Query<R> mQuery;
+        private final Observer<R> mObserver;
+        private final Class<?>[] mTables;
+        private long[] mSeenVersions;
+        private volatile boolean mCancelled;
+
+        private Observation(Query<R> query, Observer<R> observer, Class<?>[] tables) {
+            mQuery = query;
+            mObserver = observer;
+            mTables = tables.clone();
+        }
+
+        /**
+         * Stops observation. Observer is not called after this method returns, unless query is already running.
+         */
+        public void cancel() {
+            mCancelled = true;
+            mObservations.remove(this);
+        }
+
+        public boolean isCancelled() {
+            return mCancelled;
+        }
+
+        private synchronized void refresh() {
+            if (mCancelled) {
+                return;
+            }
+            // versions are read before query, so change made during query results in another refresh
+            long[] versions = new long[mTables.length];
+            for (int i = 0; i < mTables.length; i++) {
+                versions[i] = getVersion(mTables[i]);
+            }
+            if (mSeenVersions != null && Arrays.equals(versions, mSeenVersions)) {
+                return;
+            }
+            try {
+                R result = mQuery.run();
+                mSeenVersions = versions;
+                if (!mCancelled) {
+                    mObserver.onResult(result);
+                }
+            } catch (SQLException e) {
+                if (!mCancelled) {
+                    mObserver.onError(e);
+                }
+            }
+        }
+    }
+
+    private static final class Batch {
+
+        final Set<Class<?>> tables = new LinkedHashSet<Class<?>>();
+        int depth;
+    }
+
+}
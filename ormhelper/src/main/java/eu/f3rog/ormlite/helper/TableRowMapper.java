@@ -0,0 +1,63 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.stmt.GenericRowMapper;
+import com.j256.ormlite.support.DatabaseResults;
+
+import java.sql.SQLException;
+
+/**
+ * Class {@link TableRowMapper}.
+ * <p>
+ * Base class for generated row mappers. Generated mapper reads columns by fixed indexes, so it can map only results
+ * whose columns are ordered the same way as {@link #getColumns()}.
+ * </p>
+ */
+public abstract class TableRowMapper<T> implements GenericRowMapper<T> {
+
+    private final String[] mColumns;
+
+    protected TableRowMapper(String... columns) {
+        mColumns = columns;
+    }
+
+    /**
+     * Returns names of columns in order in which they are read by this mapper.
+     */
+    public String[] getColumns() {
+        return mColumns;
+    }
+
+    /**
+     * Checks if given results contain exactly the columns of this mapper in the same order.
+     */
+    public boolean matches(DatabaseResults results) throws SQLException {
+        String[] columnNames = results.getColumnNames();
+        if (columnNames.length != mColumns.length) {
+            return false;
+        }
+        for (int i = 0; i < mColumns.length; i++) {
+            if (!mColumns[i].equalsIgnoreCase(columnNames[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts name of enum constant the same way as ORMLite does.
+     */
+    protected static <E extends Enum<E>> E toEnum(Class<E> enumClass, String name, E unknownValue) throws SQLException {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(enumClass, name);
+        } catch (IllegalArgumentException e) {
+            if (unknownValue != null) {
+                return unknownValue;
+            }
+            throw new SQLException(String.format("Cannot get enum value of '%s' for %s", name, enumClass.getName()), e);
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.dao.ObjectCache;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.stmt.GenericRowMapper;
+import com.j256.ormlite.stmt.StatementBuilder;
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.support.DatabaseConnectionProxy;
+import com.j256.ormlite.support.DatabaseResults;
+import com.j256.ormlite.support.GeneratedKeyHolder;
+
+import java.sql.SQLException;
+
+/**
+ * Class {@link TimedConnection}.
+ * <p>
+ * Connection which measures statements of wrapped connection. Statement which is slower than threshold of {@link SlowStatementLog}
+ * is recorded together with output of {@code EXPLAIN QUERY PLAN}, which is run on the same connection.
+ * </p>
+ */
+final class TimedConnection extends DatabaseConnectionProxy {
+
+    private static final FieldType[] NO_FIELD_TYPES = new FieldType[0];
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final DatabaseConnection mDelegate;
+    private final SlowStatementLog mLog;
+
+    TimedConnection(DatabaseConnection delegate, SlowStatementLog log) {
+        super(delegate);
+        mDelegate = delegate;
+        mLog = log;
+    }
+
+    DatabaseConnection getDelegate() {
+        return mDelegate;
+    }
+
+    @Override
+    public int executeStatement(String statementStr, int resultFlags) throws SQLException {
+        long start = System.nanoTime();
+        int rows = super.executeStatement(statementStr, resultFlags);
+        record(statementStr, NO_ARGS, rows, start);
+        return rows;
+    }
+
+    @Override
+    public CompiledStatement compileStatement(String statement, StatementBuilder.StatementType type, FieldType[] argFieldTypes,
+                                              int resultFlags) throws SQLException {
+        return new TimedStatement(super.compileStatement(statement, type, argFieldTypes, resultFlags), statement, this);
+    }
+
+    @Override
+    public int insert(String statement, Object[] args, FieldType[] argfieldTypes, GeneratedKeyHolder keyHolder) throws SQLException {
+        long start = System.nanoTime();
+        int rows = super.insert(statement, args, argfieldTypes, keyHolder);
+        record(statement, args, rows, start);
+        return rows;
+    }
+
+    @Override
+    public int update(String statement, Object[] args, FieldType[] argfieldTypes) throws SQLException {
+        long start = System.nanoTime();
+        int rows = super.update(statement, args, argfieldTypes);
+        record(statement, args, rows, start);
+        return rows;
+    }
+
+    @Override
+    public int delete(String statement, Object[] args, FieldType[] argfieldTypes) throws SQLException {
+        long start = System.nanoTime();
+        int rows = super.delete(statement, args, argfieldTypes);
+        record(statement, args, rows, start);
+        return rows;
+    }
+
+    @Override
+    public <T> Object queryForOne(String statement, Object[] args, FieldType[] argfieldTypes, GenericRowMapper<T> rowMapper,
+                                  ObjectCache objectCache) throws SQLException {
+        long start = System.nanoTime();
+        Object result = super.queryForOne(statement, args, argfieldTypes, rowMapper, objectCache);
+        record(statement, args, (result == null) ? 0 : 1, start);
+        return result;
+    }
+
+    @Override
+    public long queryForLong(String statement) throws SQLException {
+        long start = System.nanoTime();
+        long result = super.queryForLong(statement);
+        record(statement, NO_ARGS, 1, start);
+        return result;
+    }
+
+    @Override
+    public long queryForLong(String statement, Object[] args, FieldType[] argFieldTypes) throws SQLException {
+        long start = System.nanoTime();
+        long result = super.queryForLong(statement, args, argFieldTypes);
+        record(statement, args, 1, start);
+        return result;
+    }
+
+    /**
+     * Records statement which was started at given {@link System#nanoTime()} if it is slow.
+     */
+    void record(String sql, Object[] args, int rows, long start) {
+        long duration = System.nanoTime() - start;
+        if (!mLog.isSlow(duration)) {
+            return;
+        }
+        mLog.add(new SlowStatement(System.currentTimeMillis(), sql, args.length, rows, duration, explain(sql, args)));
+    }
+
+    private String explain(String sql, Object[] args) {
+        CompiledStatement statement = null;
+        DatabaseResults results = null;
+        try {
+            statement = mDelegate.compileStatement("EXPLAIN QUERY PLAN " + sql, StatementBuilder.StatementType.SELECT,
+                    NO_FIELD_TYPES, DatabaseConnection.DEFAULT_RESULT_FLAGS);
+            // plan does not depend on values, but Android cannot bind null or blob as string argument
+            for (int i = 0; i < args.length; i++) {
+                Object arg = args[i];
+                statement.setObject(i, (arg == null || arg instanceof byte[]) ? "" : arg.toString(), SqlType.STRING);
+            }
+            results = statement.runQuery(null);
+            StringBuilder plan = new StringBuilder();
+            while (results.next()) {
+                if (plan.length() > 0) {
+                    plan.append('\n');
+                }
+                // last column is description of the step
+                plan.append(results.getString(results.getColumnCount() - 1));
+            }
+            return plan.toString();
+        } catch (Exception e) {
+            // plan is only additional information
+            return null;
+        } finally {
+            if (results != null) {
+                results.closeQuietly();
+            }
+            if (statement != null) {
+                statement.closeQuietly();
+            }
+        }
+    }
+
+}
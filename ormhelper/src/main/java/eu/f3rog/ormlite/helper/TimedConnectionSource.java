@@ -0,0 +1,60 @@
+package eu.f3rog.ormlite.helper;
+
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.j256.ormlite.android.AndroidConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+
+import java.sql.SQLException;
+
+/**
+ * Class {@link TimedConnectionSource}.
+ * <p>
+ * Connection source which measures every statement run through its connections and records slow ones to {@link SlowStatementLog}.
+ * Saved (special) connections are kept unwrapped, so transactions work the same way as with {@link AndroidConnectionSource}.
+ * </p>
+ */
+public class TimedConnectionSource extends AndroidConnectionSource {
+
+    private final SlowStatementLog mLog;
+    private volatile TimedConnection mConnection;
+
+    public TimedConnectionSource(SQLiteOpenHelper helper, SlowStatementLog log) {
+        super(helper);
+        mLog = log;
+    }
+
+    public SlowStatementLog getLog() {
+        return mLog;
+    }
+
+    @Override
+    public DatabaseConnection getReadWriteConnection() throws SQLException {
+        DatabaseConnection connection = super.getReadWriteConnection();
+        if (connection instanceof TimedConnection) {
+            return connection;
+        }
+        // the same connection is returned most of the time, so its wrapper is reused
+        TimedConnection timed = mConnection;
+        if (timed == null || timed.getDelegate() != connection) {
+            timed = new TimedConnection(connection, mLog);
+            mConnection = timed;
+        }
+        return timed;
+    }
+
+    @Override
+    public boolean saveSpecialConnection(DatabaseConnection connection) throws SQLException {
+        return super.saveSpecialConnection(unwrap(connection));
+    }
+
+    @Override
+    public void clearSpecialConnection(DatabaseConnection connection) {
+        super.clearSpecialConnection(unwrap(connection));
+    }
+
+    private static DatabaseConnection unwrap(DatabaseConnection connection) {
+        return (connection instanceof TimedConnection) ? ((TimedConnection) connection).getDelegate() : connection;
+    }
+
+}
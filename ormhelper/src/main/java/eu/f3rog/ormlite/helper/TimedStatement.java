@@ -0,0 +1,99 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.android.AndroidDatabaseResults;
+import com.j256.ormlite.dao.ObjectCache;
+import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.DatabaseResults;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class {@link TimedStatement}.
+ * <p>
+ * Compiled statement which measures its execution and reports it to {@link TimedConnection}.
+ * Android runs query when cursor counts its rows, so row count is read right away and it is part of measured time.
+ * </p>
+ */
+final class TimedStatement implements CompiledStatement {
+
+    private final CompiledStatement mDelegate;
+    private final String mSql;
+    private final TimedConnection mConnection;
+    private final List<Object> mArgs = new ArrayList<Object>();
+
+    TimedStatement(CompiledStatement delegate, String sql, TimedConnection connection) {
+        mDelegate = delegate;
+        mSql = sql;
+        mConnection = connection;
+    }
+
+    @Override
+    public int getColumnCount() throws SQLException {
+        return mDelegate.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int columnIndex) throws SQLException {
+        return mDelegate.getColumnName(columnIndex);
+    }
+
+    @Override
+    public int runUpdate() throws SQLException {
+        long start = System.nanoTime();
+        int rows = mDelegate.runUpdate();
+        mConnection.record(mSql, mArgs.toArray(), rows, start);
+        return rows;
+    }
+
+    @Override
+    public DatabaseResults runQuery(ObjectCache objectCache) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseResults results = mDelegate.runQuery(objectCache);
+        int rows = (results instanceof AndroidDatabaseResults) ? ((AndroidDatabaseResults) results).getCount() : -1;
+        mConnection.record(mSql, mArgs.toArray(), rows, start);
+        return results;
+    }
+
+    @Override
+    public int runExecute() throws SQLException {
+        long start = System.nanoTime();
+        int rows = mDelegate.runExecute();
+        mConnection.record(mSql, mArgs.toArray(), rows, start);
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        mDelegate.close();
+    }
+
+    @Override
+    public void closeQuietly() {
+        mDelegate.closeQuietly();
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        mDelegate.cancel();
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object obj, SqlType sqlType) throws SQLException {
+        mDelegate.setObject(parameterIndex, obj, sqlType);
+        mArgs.add(parameterIndex, obj);
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        mDelegate.setMaxRows(max);
+    }
+
+    @Override
+    public void setQueryTimeout(long millis) throws SQLException {
+        mDelegate.setQueryTimeout(millis);
+    }
+
+}
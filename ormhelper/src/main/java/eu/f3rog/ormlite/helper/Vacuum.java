@@ -0,0 +1,25 @@
+package eu.f3rog.ormlite.helper;
+
+/**
+ * Enum {@link Vacuum}.
+ * <p>
+ * Tells generated {@code clearTables} method how to give free pages back to file system after tables were cleared.
+ * </p>
+ */
+public enum Vacuum {
+
+    /**
+     * Database file keeps its size, free pages are reused by later inserts.
+     */
+    NONE,
+    /**
+     * Runs {@code VACUUM}, which rebuilds whole database file. It is slow for large databases.
+     */
+    FULL,
+    /**
+     * Runs {@code PRAGMA incremental_vacuum}, which removes free pages only. Helper has to use
+     * {@code @Storage(autoVacuum = Storage.AutoVacuum.INCREMENTAL)}, otherwise it does nothing.
+     */
+    INCREMENTAL
+
+}
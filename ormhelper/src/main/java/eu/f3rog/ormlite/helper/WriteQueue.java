@@ -0,0 +1,332 @@
+package eu.f3rog.ormlite.helper;
+
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.support.ConnectionSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Class {@link WriteQueue}.
+ * <p>
+ * Runs submitted writes on one dedicated writer thread. Queued writes are committed together in one transaction,
+ * which contains at most given number of writes and waits at most given time for more writes after the first one was taken.
+ * Future of each write is completed after its transaction is committed.
+ * </p>
+ * <p>
+ * If any write of a batch fails (with exception or error), the transaction is rolled back and writes of the batch are run again,
+ * each in its own transaction, so only the failed write reports its exception. Changes of rolled back transaction are not published.
+ * </p>
+ */
+public class WriteQueue {
+
+    private static final Write<Void> STOP = new Write<Void>(null);
+
+    private final ConnectionSource mConnectionSource;
+    private final int mMaxBatchSize;
+    private final long mMaxLatencyNanos;
+    private final TableChanges mTableChanges;
+    private final BlockingQueue<Write<?>> mQueue = new LinkedBlockingQueue<Write<?>>();
+    private Thread mThread;
+    private boolean mShutdown;
+
+    /**
+     * Creates queue which commits up to given number of writes in one transaction and waits at most given time for them.
+     * Given {@link TableChanges} (can be {@code null}) publishes changes of each batch after it is committed.
+     */
+    public WriteQueue(ConnectionSource connectionSource, int maxBatchSize, long maxLatencyMillis, TableChanges tableChanges) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        if (maxLatencyMillis < 0) {
+            throw new IllegalArgumentException("Latency must not be negative");
+        }
+        mConnectionSource = connectionSource;
+        mMaxBatchSize = maxBatchSize;
+        mMaxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatencyMillis);
+        mTableChanges = tableChanges;
+    }
+
+    public int getMaxBatchSize() {
+        return mMaxBatchSize;
+    }
+
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(mMaxLatencyNanos);
+    }
+
+    /**
+     * Returns number of writes waiting for writer thread.
+     */
+    public int getPendingCount() {
+        return mQueue.size();
+    }
+
+    /**
+     * Queues given write. Writer thread is started with the first write.
+     *
+     * @throws RejectedExecutionException if queue was shut down
+     */
+    public <R> Future<R> submit(Callable<R> write) {
+        if (write == null) {
+            throw new NullPointerException("write");
+        }
+        Write<R> task = new Write<R>(write);
+        synchronized (this) {
+            if (mShutdown) {
+                throw new RejectedExecutionException("Write queue is shut down");
+            }
+            if (mThread == null) {
+                mThread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        processWrites();
+                    }
+                }, "WriteQueue");
+                mThread.setDaemon(true);
+                mThread.start();
+            }
+            mQueue.add(task);
+        }
+        return task;
+    }
+
+    /**
+     * Stops accepting writes and waits until all queued writes are committed.
+     */
+    public void shutdown() {
+        Thread thread;
+        synchronized (this) {
+            if (mShutdown) {
+                return;
+            }
+            mShutdown = true;
+            thread = mThread;
+            if (thread != null) {
+                mQueue.add(STOP);
+            }
+        }
+        // write which closes helper cannot wait for itself
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void processWrites() {
+        List<Write<?>> batch = new ArrayList<Write<?>>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                Write<?> first = mQueue.take();
+                if (first == STOP) {
+                    return;
+                }
+                batch.add(first);
+                // more writes are collected until batch is full or the first write waited long enough
+                long deadline = System.nanoTime() + mMaxLatencyNanos;
+                while (batch.size() < mMaxBatchSize) {
+                    long wait = deadline - System.nanoTime();
+                    Write<?> next = (wait > 0) ? mQueue.poll(wait, TimeUnit.NANOSECONDS) : mQueue.poll();
+                    if (next == null) {
+                        break;
+                    } else if (next == STOP) {
+                        stop = true;
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // writer thread is stopped only by shutdown
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Write<?>> batch) {
+        List<Write<?>> writes = new ArrayList<Write<?>>(batch.size());
+        for (Write<?> write : batch) {
+            if (!write.isDone()) {
+                writes.add(write);
+            }
+        }
+        if (writes.isEmpty()) {
+            return;
+        }
+        try {
+            if (writes.size() == 1 || runInTransaction(writes) != null) {
+                // writes are retried one by one, so one failed write does not fail the others
+                for (Write<?> write : writes) {
+                    List<Write<?>> single = new ArrayList<Write<?>>(1);
+                    single.add(write);
+                    Throwable e = runInTransaction(single);
+                    if (e != null) {
+                        write.fail(e);
+                    } else {
+                        write.complete();
+                    }
+                }
+                return;
+            }
+            for (Write<?> write : writes) {
+                write.complete();
+            }
+        } catch (Throwable e) {
+            // writer thread has to keep running, otherwise futures of later writes would never be completed
+            for (Write<?> write : writes) {
+                write.fail(e);
+            }
+        }
+    }
+
+    /**
+     * Runs given writes in one transaction. Returns exception which rolled it back or {@code null} if it was committed.
+     * Changes of tables are published only if transaction was committed.
+     */
+    private Throwable runInTransaction(final List<Write<?>> writes) {
+        if (mTableChanges != null) {
+            mTableChanges.beginBatch();
+        }
+        boolean committed = false;
+        try {
+            TransactionManager.callInTransaction(mConnectionSource, new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    for (Write<?> write : writes) {
+                        write.run();
+                    }
+                    return null;
+                }
+            });
+            committed = true;
+            return null;
+        } catch (Throwable e) {
+            return e;
+        } finally {
+            if (mTableChanges != null) {
+                mTableChanges.endBatch(committed);
+            }
+        }
+    }
+
+    /**
+     * Queued write. Its result is kept until transaction is committed and then it is published to waiting threads.
+     */
+    private static final class Write<R> implements Future<R> {
+
+        private static final int PENDING = 0;
+        private static final int COMPLETED = 1;
+        private static final int FAILED = 2;
+        private static final int CANCELLED = 3;
+
+        private final Callable<R> mCallable;
+        private final CountDownLatch mDone = new CountDownLatch(1);
+        // result of the last run, it is accessed only by writer thread
+        private R mRunResult;
+        private Throwable mRunError;
+        // published outcome, it is read after latch is released
+        private int mState = PENDING;
+        private R mResult;
+        private Throwable mError;
+
+        Write(Callable<R> callable) {
+            mCallable = callable;
+        }
+
+        void run() throws Exception {
+            mRunResult = null;
+            mRunError = null;
+            try {
+                mRunResult = mCallable.call();
+            } catch (Exception e) {
+                mRunError = e;
+                throw e;
+            } catch (Error e) {
+                // error is passed as exception, so transaction is rolled back
+                mRunError = e;
+                throw new ExecutionException(e);
+            }
+        }
+
+        void complete() {
+            finish(COMPLETED, mRunResult, null);
+        }
+
+        void fail(Throwable e) {
+            // exception of write itself is more useful than exception of transaction
+            finish(FAILED, null, (mRunError != null) ? mRunError : e);
+        }
+
+        private synchronized boolean finish(int state, R result, Throwable error) {
+            if (mState != PENDING) {
+                return false;
+            }
+            mState = state;
+            mResult = result;
+            mError = error;
+            mDone.countDown();
+            return true;
+        }
+
+        /**
+         * Cancels write if it was not finished yet. Write which is already running is committed,
+         * but its result is not published.
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return finish(CANCELLED, null, null);
+        }
+
+        @Override
+        public synchronized boolean isCancelled() {
+            return mState == CANCELLED;
+        }
+
+        @Override
+        public synchronized boolean isDone() {
+            return mState != PENDING;
+        }
+
+        @Override
+        public R get() throws InterruptedException, ExecutionException {
+            mDone.await();
+            return getResult();
+        }
+
+        @Override
+        public R get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (!mDone.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            return getResult();
+        }
+
+        private synchronized R getResult() throws ExecutionException {
+            switch (mState) {
+                case CANCELLED:
+                    throw new CancellationException();
+                case FAILED:
+                    throw new ExecutionException(mError);
+                default:
+                    return mResult;
+            }
+        }
+    }
+
+}